@@ -165,6 +165,9 @@ public class Main {
         printMenuItem(6, "Fork/Join Framework");
         printMenuItem(7, "Parallel Streams");
         printMenuItem(8, "Thread Pool Sizing");
+        printMenuItem(9, "Metrics Registry (Counters, Gauges, Histograms)");
+        printMenuItem(10, "Bounded W-TinyLFU Cache");
+        printMenuItem(11, "Priority Executor (Lanes, Aging, Per-Lane Caps)");
         printMenuItem(0, "Back to Main Menu");
 
         System.out.print("\n" + YELLOW + "Enter your choice: " + RESET);
@@ -204,6 +207,15 @@ public class Main {
             case 8:
                 com.example.performance.ThreadPoolSizingExample.main(null);
                 break;
+            case 9:
+                com.example.metrics.MetricsExample.main(null);
+                break;
+            case 10:
+                com.example.cache.TinyLfuCacheExample.main(null);
+                break;
+            case 11:
+                com.example.performance.PriorityExecutorExample.main(null);
+                break;
             default:
                 System.out.println(RED + "Invalid choice." + RESET);
         }
@@ -218,6 +230,7 @@ public class Main {
         printMenuItem(5, "Thread-Local Storage");
         printMenuItem(6, "Immutable Objects");
         printMenuItem(7, "Thread Confinement");
+        printMenuItem(8, "Immutable Snapshots with Structural Sharing");
         printMenuItem(0, "Back to Main Menu");
 
         System.out.print("\n" + YELLOW + "Enter your choice: " + RESET);
@@ -254,6 +267,9 @@ public class Main {
             case 7:
                 com.example.datasharing.ThreadConfinementExample.main(null);
                 break;
+            case 8:
+                com.example.datasharing.ImmutableSnapshotExample.main(null);
+                break;
             default:
                 System.out.println(RED + "Invalid choice." + RESET);
         }
@@ -269,6 +285,10 @@ public class Main {
         printMenuItem(6, "Starvation Prevention");
         printMenuItem(7, "Memory Consistency Error");
         printMenuItem(8, "Thread-Safe Design Patterns");
+        printMenuItem(9, "Account Ledger (CAS Balances, Striped Transfers)");
+        printMenuItem(10, "Single-Writer Keyed Executor");
+        printMenuItem(11, "Deadlock Detection (Watchdog, Lock-Order Graph)");
+        printMenuItem(12, "Backoff Strategies for Retry Loops");
         printMenuItem(0, "Back to Main Menu");
 
         System.out.print("\n" + YELLOW + "Enter your choice: " + RESET);
@@ -308,6 +328,18 @@ public class Main {
             case 8:
                 com.example.challenges.ThreadSafePatternExample.main(null);
                 break;
+            case 9:
+                com.example.ledger.LedgerExample.main(null);
+                break;
+            case 10:
+                com.example.challenges.KeyedExecutorExample.main(null);
+                break;
+            case 11:
+                com.example.challenges.DeadlockDetectionExample.main(null);
+                break;
+            case 12:
+                com.example.challenges.BackoffExample.main(null);
+                break;
             default:
                 System.out.println(RED + "Invalid choice." + RESET);
         }
@@ -319,6 +351,14 @@ public class Main {
         printMenuItem(2, "ReentrantLock with Timeout");
         printMenuItem(3, "ReadWriteLock");
         printMenuItem(4, "StampedLock");
+        printMenuItem(5, "Optimistic Read Cache (StampedLock)");
+        printMenuItem(6, "Lock-Striped ReadWriteLock Map");
+        printMenuItem(7, "Reader-Biased ReadWriteLock");
+        printMenuItem(8, "Instrumented Lock (Contention Profiling)");
+        printMenuItem(9, "MultiLock (Ordered N-Way Locking)");
+        printMenuItem(10, "MCS and CLH Queue Locks");
+        printMenuItem(11, "Flat Combining");
+        printMenuItem(12, "SeqLock Quote Snapshots");
         printMenuItem(0, "Back to Main Menu");
 
         System.out.print("\n" + YELLOW + "Enter your choice: " + RESET);
@@ -346,6 +386,30 @@ public class Main {
             case 4:
                 com.example.locking.StampedLockExample.main(null);
                 break;
+            case 5:
+                com.example.locking.OptimisticReadCacheExample.main(null);
+                break;
+            case 6:
+                com.example.locking.StripedReadWriteMapExample.main(null);
+                break;
+            case 7:
+                com.example.locking.ReaderBiasedLockExample.main(null);
+                break;
+            case 8:
+                com.example.locking.InstrumentedLockExample.main(null);
+                break;
+            case 9:
+                com.example.locking.MultiLockExample.main(null);
+                break;
+            case 10:
+                com.example.locking.QueueLockExample.main(null);
+                break;
+            case 11:
+                com.example.locking.FlatCombiningExample.main(null);
+                break;
+            case 12:
+                com.example.locking.SeqLockExample.main(null);
+                break;
             default:
                 System.out.println(RED + "Invalid choice." + RESET);
         }
@@ -399,6 +463,15 @@ public class Main {
         printMenuItem(2, "Compare-And-Swap (CAS) Operations");
         printMenuItem(3, "ABA Problem and Solutions");
         printMenuItem(4, "Lock-Free Data Structures");
+        printMenuItem(5, "Hazard Pointers and Epoch-Based Reclamation");
+        printMenuItem(6, "Tagged-Pointer CAS with Node Pools");
+        printMenuItem(7, "Lock-Free Primitive Counter Map");
+        printMenuItem(8, "Primitive Skip List for Time-Series Indexing");
+        printMenuItem(9, "Persistent Collections with Structural Sharing");
+        printMenuItem(10, "False Sharing and Padded Atomic Arrays");
+        printMenuItem(11, "Embedded Atomic Fields with VarHandles");
+        printMenuItem(12, "Lock-Free Object Pool");
+        printMenuItem(13, "Bloom Filter and Count-Min Sketch");
         printMenuItem(0, "Back to Main Menu");
 
         System.out.print("\n" + YELLOW + "Enter your choice: " + RESET);
@@ -426,6 +499,33 @@ public class Main {
             case 4:
                 com.example.lockfree.LockFreeDataStructuresExample.main(null);
                 break;
+            case 5:
+                com.example.lockfree.MemoryReclamationExample.main(null);
+                break;
+            case 6:
+                com.example.lockfree.TaggedPointerExample.main(null);
+                break;
+            case 7:
+                com.example.lockfree.PrimitiveCounterMapExample.main(null);
+                break;
+            case 8:
+                com.example.lockfree.TimeSeriesIndexExample.main(null);
+                break;
+            case 9:
+                com.example.lockfree.PersistentCollectionsExample.main(null);
+                break;
+            case 10:
+                com.example.lockfree.FalseSharingExample.main(null);
+                break;
+            case 11:
+                com.example.lockfree.EmbeddedAtomicFieldsExample.main(null);
+                break;
+            case 12:
+                com.example.lockfree.ObjectPoolExample.main(null);
+                break;
+            case 13:
+                com.example.lockfree.ProbabilisticStructuresExample.main(null);
+                break;
             default:
                 System.out.println(RED + "Invalid choice." + RESET);
         }
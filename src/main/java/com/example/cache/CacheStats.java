@@ -0,0 +1,22 @@
+package com.example.cache;
+
+// Point-in-time statistics of a ConcurrentTinyLfuCache
+public record CacheStats(long hits, long misses, long loads, long loadFailures, long coalescedLoads,
+                         long evictions, long expirations) {
+
+    public long requests() {
+        return hits + misses;
+    }
+
+    public double hitRate() {
+        long requests = requests();
+        return requests == 0 ? 1.0 : (double) hits / requests;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("hits=%d misses=%d hitRate=%.2f%% loads=%d (failed %d, coalesced %d) " +
+                        "evictions=%d expirations=%d",
+                hits, misses, 100 * hitRate(), loads, loadFailures, coalescedLoads, evictions, expirations);
+    }
+}
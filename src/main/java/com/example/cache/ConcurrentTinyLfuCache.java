@@ -0,0 +1,454 @@
+package com.example.cache;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+// Bounded concurrent cache with the W-TinyLFU eviction policy (Einziger, Friedman and
+// Manes), split into independent segments selected by key hash.
+//
+// Each segment keeps its entries in a ConcurrentHashMap, so lookups never lock. The
+// policy state is guarded by the segment lock:
+// - a small LRU admission window (1% of the capacity) absorbs bursts of new keys
+// - the main area is a segmented LRU: probation for entries seen once, protected
+//   (80%) for entries hit again while on probation
+// - when the window overflows, its oldest entry competes with the oldest probation entry
+//   and the one with the lower estimated frequency (FrequencySketch) is evicted, so
+//   one-off keys and scans cannot flush popular entries the way they do in plain LRU
+// Reads cannot update LRU order without a lock, so a hit is written to a small lossy
+// per-segment buffer and replayed when a reader wins tryLock() or a writer takes the
+// lock. Losing a few access records only makes the policy slightly less precise.
+//
+// Entries can expire a fixed time after they were written; expired entries are treated
+// as absent and removed lazily or by cleanUp(). getAsync() loads missing values on an
+// executor and coalesces concurrent requests for the same key into one load.
+// The size bound is per segment, so the total may exceed maximumSize by up to one
+// entry per segment.
+public class ConcurrentTinyLfuCache<K, V> {
+    private static final int MIN_SEGMENT_CAPACITY = 64;
+    private static final int READ_BUFFER_SIZE = 64;
+    private static final int DRAIN_SAMPLE_MASK = 15;
+
+    private static final int WINDOW = 0;
+    private static final int PROBATION = 1;
+    private static final int PROTECTED = 2;
+    private static final int DEAD = 3;
+
+    private final Segment[] segments;
+    private final int segmentMask;
+    private final long expireAfterWriteNanos;
+    private final Executor loaderExecutor;
+    private final ConcurrentHashMap<K, CompletableFuture<V>> loadsInFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder loadFailures = new LongAdder();
+    private final LongAdder coalescedLoads = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    private static final class Node<K, V> {
+        final K key;
+        final int hash;
+        volatile V value;
+        volatile long writeTime;
+
+        // Guarded by the segment lock
+        Node<K, V> prev;
+        Node<K, V> next;
+        int queue;
+
+        Node(K key, int hash, V value, long writeTime) {
+            this.key = key;
+            this.hash = hash;
+            this.value = value;
+            this.writeTime = writeTime;
+        }
+    }
+
+    // Doubly linked list from least to most recently used, with a sentinel node
+    private static final class AccessOrder<K, V> {
+        private final Node<K, V> head = new Node<>(null, 0, null, 0);
+        int size;
+
+        AccessOrder() {
+            head.prev = head;
+            head.next = head;
+        }
+
+        Node<K, V> peekFirst() {
+            return head.next == head ? null : head.next;
+        }
+
+        void addLast(Node<K, V> node) {
+            node.prev = head.prev;
+            node.next = head;
+            head.prev.next = node;
+            head.prev = node;
+            size++;
+        }
+
+        void remove(Node<K, V> node) {
+            node.prev.next = node.next;
+            node.next.prev = node.prev;
+            node.prev = null;
+            node.next = null;
+            size--;
+        }
+
+        void moveToLast(Node<K, V> node) {
+            remove(node);
+            addLast(node);
+        }
+    }
+
+    private final class Segment {
+        final ReentrantLock lock = new ReentrantLock();
+        final ConcurrentHashMap<K, Node<K, V>> map;
+        final AtomicReferenceArray<Node<K, V>> readBuffer = new AtomicReferenceArray<>(READ_BUFFER_SIZE);
+        final FrequencySketch sketch;
+        final AccessOrder<K, V> window = new AccessOrder<>();
+        final AccessOrder<K, V> probation = new AccessOrder<>();
+        final AccessOrder<K, V> protectedQueue = new AccessOrder<>();
+        final int windowCapacity;
+        final int mainCapacity;
+        final int protectedCapacity;
+
+        Segment(int capacity) {
+            map = new ConcurrentHashMap<>(Math.min(capacity, 1 << 16));
+            sketch = new FrequencySketch(capacity);
+            windowCapacity = Math.max(1, capacity / 100);
+            mainCapacity = Math.max(1, capacity - windowCapacity);
+            protectedCapacity = mainCapacity * 8 / 10;
+        }
+
+        // Lock-free apart from an occasional tryLock() to replay buffered reads
+        void recordRead(Node<K, V> node) {
+            int random = ThreadLocalRandom.current().nextInt();
+            readBuffer.lazySet(random & (READ_BUFFER_SIZE - 1), node);
+            if (((random >>> 16) & DRAIN_SAMPLE_MASK) == 0 && lock.tryLock()) {
+                try {
+                    drainReadBuffer();
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+
+        void put(K key, int hash, V value, long now) {
+            lock.lock();
+            try {
+                drainReadBuffer();
+                Node<K, V> node = new Node<>(key, hash, value, now);
+                Node<K, V> existing = map.putIfAbsent(key, node);
+                if (existing != null) {
+                    existing.value = value;
+                    existing.writeTime = now;
+                    onAccess(existing);
+                    return;
+                }
+                node.queue = WINDOW;
+                window.addLast(node);
+                sketch.increment(hash);
+                evict();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void invalidate(K key) {
+            lock.lock();
+            try {
+                Node<K, V> node = map.get(key);
+                if (node != null) {
+                    removeNode(node);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        // Removes an expired entry found by a reader, unless the segment is busy
+        void expire(Node<K, V> node, long now) {
+            if (lock.tryLock()) {
+                try {
+                    if (node.queue != DEAD && isExpired(node, now)) {
+                        removeNode(node);
+                        expirations.increment();
+                    }
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+
+        void cleanUp(long now) {
+            lock.lock();
+            try {
+                drainReadBuffer();
+                if (expireAfterWriteNanos > 0) {
+                    for (Node<K, V> node : map.values()) {
+                        if (isExpired(node, now)) {
+                            removeNode(node);
+                            expirations.increment();
+                        }
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void drainReadBuffer() {
+            for (int i = 0; i < READ_BUFFER_SIZE; i++) {
+                // Plain read first: most slots are empty and need no atomic write
+                Node<K, V> node = readBuffer.get(i);
+                if (node != null && readBuffer.compareAndSet(i, node, null) && node.queue != DEAD) {
+                    onAccess(node);
+                }
+            }
+        }
+
+        private void onAccess(Node<K, V> node) {
+            sketch.increment(node.hash);
+            switch (node.queue) {
+                case WINDOW:
+                    window.moveToLast(node);
+                    break;
+                case PROBATION:
+                    // A second hit promotes to protected, which may demote its oldest entry
+                    probation.remove(node);
+                    node.queue = PROTECTED;
+                    protectedQueue.addLast(node);
+                    if (protectedQueue.size > protectedCapacity) {
+                        Node<K, V> demoted = protectedQueue.peekFirst();
+                        protectedQueue.remove(demoted);
+                        demoted.queue = PROBATION;
+                        probation.addLast(demoted);
+                    }
+                    break;
+                case PROTECTED:
+                    protectedQueue.moveToLast(node);
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        private void evict() {
+            while (window.size > windowCapacity) {
+                Node<K, V> candidate = window.peekFirst();
+                window.remove(candidate);
+                candidate.queue = PROBATION;
+                probation.addLast(candidate);
+                if (probation.size + protectedQueue.size <= mainCapacity) {
+                    continue;
+                }
+
+                Node<K, V> victim = probation.peekFirst();
+                if (victim == candidate) {
+                    victim = protectedQueue.peekFirst();
+                }
+                // TinyLFU admission: keep whichever entry has been used more recently often
+                if (victim != null && sketch.frequency(candidate.hash) > sketch.frequency(victim.hash)) {
+                    removeNode(victim);
+                } else {
+                    removeNode(candidate);
+                }
+                evictions.increment();
+            }
+        }
+
+        private void removeNode(Node<K, V> node) {
+            switch (node.queue) {
+                case WINDOW:
+                    window.remove(node);
+                    break;
+                case PROBATION:
+                    probation.remove(node);
+                    break;
+                case PROTECTED:
+                    protectedQueue.remove(node);
+                    break;
+                default:
+                    return;
+            }
+            node.queue = DEAD;
+            map.remove(node.key, node);
+        }
+    }
+
+    public ConcurrentTinyLfuCache(long maximumSize) {
+        this(maximumSize, Duration.ZERO, ForkJoinPool.commonPool());
+    }
+
+    // A zero expireAfterWrite disables expiry
+    @SuppressWarnings("unchecked")
+    public ConcurrentTinyLfuCache(long maximumSize, Duration expireAfterWrite, Executor loaderExecutor) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("maximumSize must be positive");
+        }
+        if (expireAfterWrite.isNegative()) {
+            throw new IllegalArgumentException("expireAfterWrite must not be negative");
+        }
+        this.expireAfterWriteNanos = expireAfterWrite.toNanos();
+        this.loaderExecutor = Objects.requireNonNull(loaderExecutor, "loaderExecutor");
+
+        // About two segments per core, as long as each segment stays large enough to
+        // make meaningful eviction decisions
+        int segmentCount = 1;
+        int target = 2 * Runtime.getRuntime().availableProcessors();
+        while (segmentCount < target && maximumSize / (segmentCount * 2L) >= MIN_SEGMENT_CAPACITY) {
+            segmentCount <<= 1;
+        }
+        int segmentCapacity = (int) Math.min(Integer.MAX_VALUE, (maximumSize + segmentCount - 1) / segmentCount);
+        this.segments = (Segment[]) new ConcurrentTinyLfuCache<?, ?>.Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment(segmentCapacity);
+        }
+        this.segmentMask = segmentCount - 1;
+    }
+
+    // Returns the cached value, or null if it is absent or expired
+    public V getIfPresent(K key) {
+        int hash = spread(key.hashCode());
+        Segment segment = segmentFor(hash);
+        Node<K, V> node = segment.map.get(key);
+        if (node == null) {
+            misses.increment();
+            return null;
+        }
+        if (expireAfterWriteNanos > 0) {
+            long now = System.nanoTime();
+            if (isExpired(node, now)) {
+                misses.increment();
+                segment.expire(node, now);
+                return null;
+            }
+        }
+        segment.recordRead(node);
+        hits.increment();
+        return node.value;
+    }
+
+    public void put(K key, V value) {
+        Objects.requireNonNull(value, "value");
+        int hash = spread(key.hashCode());
+        segmentFor(hash).put(key, hash, value, System.nanoTime());
+    }
+
+    public void invalidate(K key) {
+        segmentFor(spread(key.hashCode())).invalidate(key);
+    }
+
+    // Returns the cached value or loads it asynchronously. Concurrent callers that miss
+    // on the same key share one load; a failed load is not cached.
+    public CompletableFuture<V> getAsync(K key, Function<? super K, ? extends V> loader) {
+        V cached = getIfPresent(key);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        CompletableFuture<V> created = new CompletableFuture<>();
+        CompletableFuture<V> existing = loadsInFlight.putIfAbsent(key, created);
+        if (existing != null) {
+            coalescedLoads.increment();
+            return existing;
+        }
+
+        // A load that finished between our miss and putIfAbsent has already cached its value
+        V justLoaded = peek(key);
+        if (justLoaded != null) {
+            loadsInFlight.remove(key, created);
+            created.complete(justLoaded);
+            return created;
+        }
+
+        try {
+            loaderExecutor.execute(() -> load(key, loader, created));
+        } catch (RejectedExecutionException e) {
+            loadsInFlight.remove(key, created);
+            loadFailures.increment();
+            created.completeExceptionally(e);
+        }
+        return created;
+    }
+
+    // Blocking variant of getAsync(); load failures are rethrown as CompletionException
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        return getAsync(key, loader).join();
+    }
+
+    // Approximate number of entries, including expired ones not yet removed
+    public long estimatedSize() {
+        long size = 0;
+        for (Segment segment : segments) {
+            size += segment.map.size();
+        }
+        return size;
+    }
+
+    // Replays buffered reads and removes all expired entries
+    public void cleanUp() {
+        long now = System.nanoTime();
+        for (Segment segment : segments) {
+            segment.cleanUp(now);
+        }
+    }
+
+    public CacheStats stats() {
+        return new CacheStats(hits.sum(), misses.sum(), loads.sum(), loadFailures.sum(), coalescedLoads.sum(),
+                evictions.sum(), expirations.sum());
+    }
+
+    public int segmentCount() {
+        return segments.length;
+    }
+
+    private void load(K key, Function<? super K, ? extends V> loader, CompletableFuture<V> future) {
+        try {
+            V value = Objects.requireNonNull(loader.apply(key), "loader returned null");
+            // Cache first, then retire the in-flight future, so later callers find one or the other
+            put(key, value);
+            loads.increment();
+            loadsInFlight.remove(key, future);
+            future.complete(value);
+        } catch (Throwable t) {
+            loadFailures.increment();
+            loadsInFlight.remove(key, future);
+            future.completeExceptionally(t);
+        }
+    }
+
+    // Lookup without statistics or access recording
+    private V peek(K key) {
+        Node<K, V> node = segmentFor(spread(key.hashCode())).map.get(key);
+        if (node == null || (expireAfterWriteNanos > 0 && isExpired(node, System.nanoTime()))) {
+            return null;
+        }
+        return node.value;
+    }
+
+    private boolean isExpired(Node<K, V> node, long now) {
+        return expireAfterWriteNanos > 0 && now - node.writeTime >= expireAfterWriteNanos;
+    }
+
+    private Segment segmentFor(int hash) {
+        return segments[(hash >>> 16) & segmentMask];
+    }
+
+    private static int spread(int h) {
+        h *= 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.cache;
+
+// Approximate access frequency for TinyLFU admission: a count-min sketch with four
+// 4-bit counters per key, packed 16 to a long. Counters saturate at 15, and after
+// sampleSize increments every counter is halved, so the sketch forgets old popularity
+// and tracks the recent access distribution.
+// Not thread-safe: each cache segment owns one and uses it under the segment lock.
+final class FrequencySketch {
+    private static final long[] SEEDS = {
+            0xC3A5C85C97CB3127L, 0xB492B66FBE98F273L, 0x9AE16A3B2F90404FL, 0xCBF29CE484222325L};
+    private static final long RESET_MASK = 0x7777777777777777L;
+
+    private final long[] table;
+    private final int tableMask;
+    private final int sampleSize;
+    private int additions;
+
+    FrequencySketch(long maximumSize) {
+        int size = 1;
+        while (size < Math.max(1, maximumSize)) {
+            size <<= 1;
+        }
+        table = new long[size];
+        tableMask = size - 1;
+        sampleSize = (int) Math.min(10L * size, Integer.MAX_VALUE);
+    }
+
+    // Estimated number of recent accesses, 0-15
+    int frequency(int hash) {
+        int frequency = Integer.MAX_VALUE;
+        for (int i = 0; i < SEEDS.length; i++) {
+            int index = indexOf(hash, i);
+            int shift = counterShift(hash, i);
+            frequency = Math.min(frequency, (int) ((table[index] >>> shift) & 0xFL));
+        }
+        return frequency;
+    }
+
+    void increment(int hash) {
+        boolean added = false;
+        for (int i = 0; i < SEEDS.length; i++) {
+            int index = indexOf(hash, i);
+            int shift = counterShift(hash, i);
+            if (((table[index] >>> shift) & 0xFL) != 0xFL) {
+                table[index] += 1L << shift;
+                added = true;
+            }
+        }
+        if (added && ++additions == sampleSize) {
+            reset();
+        }
+    }
+
+    // Halves every counter; the shift moves each 4-bit counter's top bit into its neighbour,
+    // which the mask clears
+    private void reset() {
+        for (int i = 0; i < table.length; i++) {
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+        additions /= 2;
+    }
+
+    private int indexOf(int hash, int row) {
+        long h = (hash + SEEDS[row]) * SEEDS[row];
+        h += h >>> 32;
+        return (int) h & tableMask;
+    }
+
+    // Each row uses a different one of the 16 counters within the selected long
+    private static int counterShift(int hash, int row) {
+        int counter = (((hash >>> (row << 3)) & 3) << 2) + row;
+        return counter << 2;
+    }
+}
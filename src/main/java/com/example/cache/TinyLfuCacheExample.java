@@ -0,0 +1,279 @@
+package com.example.cache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+public class TinyLfuCacheExample {
+    private static final int KEY_SPACE = 1_000_000;
+    private static final int CACHE_SIZE = 10_000;
+    private static final int NUM_THREADS = 4;
+    private static final int LOOKUPS_PER_THREAD = 1_000_000;
+
+    // Common view of the caches under test: return the cached value or load and cache it
+    interface LoadingCache {
+        String get(Integer key, Function<Integer, String> loader);
+
+        long size();
+    }
+
+    // The ReadWriteLockExample cache: unbounded HashMap behind one ReentrantReadWriteLock
+    static class ReadWriteLockCache implements LoadingCache {
+        private final Map<Integer, String> map = new HashMap<>();
+        private final ReadWriteLock rwLock = new ReentrantReadWriteLock();
+
+        @Override
+        public String get(Integer key, Function<Integer, String> loader) {
+            rwLock.readLock().lock();
+            try {
+                String value = map.get(key);
+                if (value != null) {
+                    return value;
+                }
+            } finally {
+                rwLock.readLock().unlock();
+            }
+            String value = loader.apply(key);
+            rwLock.writeLock().lock();
+            try {
+                map.put(key, value);
+            } finally {
+                rwLock.writeLock().unlock();
+            }
+            return value;
+        }
+
+        @Override
+        public long size() {
+            rwLock.readLock().lock();
+            try {
+                return map.size();
+            } finally {
+                rwLock.readLock().unlock();
+            }
+        }
+    }
+
+    // Bounded LRU: an access-ordered LinkedHashMap under one lock, since every hit reorders it
+    static class SynchronizedLruCache implements LoadingCache {
+        private final Map<Integer, String> map;
+
+        SynchronizedLruCache(int maximumSize) {
+            map = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Integer, String> eldest) {
+                    return size() > maximumSize;
+                }
+            };
+        }
+
+        @Override
+        public String get(Integer key, Function<Integer, String> loader) {
+            synchronized (map) {
+                String value = map.get(key);
+                if (value != null) {
+                    return value;
+                }
+            }
+            String value = loader.apply(key);
+            synchronized (map) {
+                map.put(key, value);
+            }
+            return value;
+        }
+
+        @Override
+        public long size() {
+            synchronized (map) {
+                return map.size();
+            }
+        }
+    }
+
+    static class TinyLfuLoadingCache implements LoadingCache {
+        final ConcurrentTinyLfuCache<Integer, String> cache = new ConcurrentTinyLfuCache<>(CACHE_SIZE);
+
+        @Override
+        public String get(Integer key, Function<Integer, String> loader) {
+            String value = cache.getIfPresent(key);
+            if (value == null) {
+                value = loader.apply(key);
+                cache.put(key, value);
+            }
+            return value;
+        }
+
+        @Override
+        public long size() {
+            return cache.estimatedSize();
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        System.out.println("W-TinyLFU Cache Example");
+        System.out.println("=======================");
+        System.out.println("This example replaces a global-lock HashMap cache with a bounded, segmented");
+        System.out.println("cache that admits entries by frequency, expires them, and coalesces loads.\n");
+
+        System.out.println("Part 1: Hit rate with a " + CACHE_SIZE + "-entry bound on a skewed workload");
+        hitRates();
+
+        Thread.sleep(1000);
+
+        System.out.println("\nPart 2: Expiry and coalesced asynchronous loading");
+        expiryAndCoalescing();
+
+        Thread.sleep(1000);
+
+        System.out.println("\nPart 3: Throughput of read-heavy lookups");
+        throughput();
+
+        System.out.println("\nExplanation:");
+        System.out.println("A HashMap behind one ReentrantReadWriteLock grows without bound and funnels");
+        System.out.println("every lookup through the same lock word.");
+        System.out.println("- Segments split the key space; lookups read a ConcurrentHashMap without locking");
+        System.out.println("- Hits are buffered and replayed under tryLock, so LRU order costs no blocking");
+        System.out.println("- TinyLFU admits a new entry only if it is used more often than the one it evicts");
+        System.out.println("- That keeps popular keys through scans of one-off keys, unlike plain LRU");
+        System.out.println("- Entries expire a fixed time after the write and are removed lazily");
+        System.out.println("- Concurrent misses on one key share a single load instead of stampeding the backend");
+    }
+
+    // Part 1: Same request streams against LRU and W-TinyLFU, with and without scans
+    private static void hitRates() throws InterruptedException {
+        System.out.printf("%-28s %16s %16s%n", "Workload", "LRU", "W-TinyLFU");
+        for (int scanPercent : new int[] {0, 30}) {
+            SynchronizedLruCache lru = new SynchronizedLruCache(CACHE_SIZE);
+            TinyLfuLoadingCache tinyLfu = new TinyLfuLoadingCache();
+            double lruHitRate = hitRate(lru, scanPercent);
+            double tinyLfuHitRate = hitRate(tinyLfu, scanPercent);
+            String workload = scanPercent == 0 ? "Skewed keys" : "Skewed keys + " + scanPercent + "% scans";
+            System.out.printf("%-28s %15.2f%% %15.2f%%%n", workload, 100 * lruHitRate, 100 * tinyLfuHitRate);
+        }
+    }
+
+    private static double hitRate(LoadingCache cache, int scanPercent) throws InterruptedException {
+        LongAdder loads = new LongAdder();
+        AtomicLong scanKey = new AtomicLong(KEY_SPACE);
+        run(cache, loads, scanPercent, scanKey);
+        return 1.0 - (double) loads.sum() / ((long) NUM_THREADS * LOOKUPS_PER_THREAD);
+    }
+
+    // Part 2: One slow backend load shared by many callers, then reloaded after expiry
+    private static void expiryAndCoalescing() throws InterruptedException {
+        ExecutorService loaderPool = Executors.newFixedThreadPool(2);
+        ConcurrentTinyLfuCache<String, String> cache =
+                new ConcurrentTinyLfuCache<>(1_000, Duration.ofMillis(500), loaderPool);
+        AtomicInteger backendCalls = new AtomicInteger();
+        Function<String, String> slowBackend = key -> {
+            backendCalls.incrementAndGet();
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "profile-of-" + key + "@" + System.currentTimeMillis() % 100_000;
+        };
+
+        List<CompletableFuture<String>> requests = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            requests.add(cache.getAsync("user-42", slowBackend));
+        }
+        CompletableFuture.allOf(requests.toArray(new CompletableFuture<?>[0])).join();
+        System.out.println("50 concurrent requests -> backend calls: " + backendCalls.get() +
+                          ", value: " + requests.get(0).join());
+        System.out.println("Cached lookup: " + cache.get("user-42", slowBackend) +
+                          ", backend calls: " + backendCalls.get());
+
+        Thread.sleep(600);
+        System.out.println("After 600ms (expiry is 500ms): " + cache.get("user-42", slowBackend) +
+                          ", backend calls: " + backendCalls.get());
+
+        CompletableFuture<String> failed = cache.getAsync("broken", key -> {
+            throw new IllegalStateException("backend unavailable");
+        });
+        try {
+            failed.join();
+        } catch (RuntimeException e) {
+            System.out.println("Failed load is reported and not cached: " + e.getCause().getMessage());
+        }
+        System.out.println("Stats: " + cache.stats());
+        loaderPool.shutdown();
+    }
+
+    // Part 3: Lookups with a cheap loader, so the cache structure dominates the cost
+    private static void throughput() throws InterruptedException {
+        System.out.println(NUM_THREADS + " threads, available processors: " +
+                          Runtime.getRuntime().availableProcessors());
+        System.out.printf("%-34s %16s %10s %10s%n", "Cache", "Lookups/s", "Hit rate", "Entries");
+        for (int round = 0; round < 2; round++) {
+            LoadingCache[] caches = {new ReadWriteLockCache(), new SynchronizedLruCache(CACHE_SIZE),
+                    new TinyLfuLoadingCache()};
+            String[] names = {"ReentrantReadWriteLock + HashMap", "synchronized LRU (LinkedHashMap)",
+                    "ConcurrentTinyLfuCache"};
+            for (int c = 0; c < caches.length; c++) {
+                LongAdder loads = new LongAdder();
+                long nanos = run(caches[c], loads, 0, new AtomicLong());
+                long lookups = (long) NUM_THREADS * LOOKUPS_PER_THREAD;
+                if (round == 1) {
+                    System.out.printf("%-34s %,16d %9.2f%% %10d%n", names[c], lookups * 1_000_000_000L / nanos,
+                            100.0 - 100.0 * loads.sum() / lookups, caches[c].size());
+                }
+            }
+        }
+        System.out.println("(The unbounded cache reaches its hit rate by keeping every key it has seen)");
+    }
+
+    private static long run(LoadingCache cache, LongAdder loads, int scanPercent, AtomicLong scanKey)
+            throws InterruptedException {
+        Function<Integer, String> loader = key -> {
+            loads.increment();
+            return "value-" + key;
+        };
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] workers = new Thread[NUM_THREADS];
+        for (int t = 0; t < NUM_THREADS; t++) {
+            workers[t] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < LOOKUPS_PER_THREAD; i++) {
+                    int key;
+                    if (scanPercent > 0 && random.nextInt(100) < scanPercent) {
+                        // Scans touch keys outside the popular range exactly once
+                        key = (int) scanKey.getAndIncrement();
+                    } else {
+                        // Log-uniform keys: key k has probability roughly proportional to 1/k
+                        key = (int) Math.exp(random.nextDouble() * Math.log(KEY_SPACE));
+                    }
+                    cache.get(key, loader);
+                }
+            });
+            workers[t].start();
+        }
+        long startTime = System.nanoTime();
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        return System.nanoTime() - startTime;
+    }
+}
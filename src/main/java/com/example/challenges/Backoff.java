@@ -0,0 +1,137 @@
+package com.example.challenges;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+
+// What a retry loop does between a failed attempt and the next one, for tryLock loops
+// and CAS loops alike:
+//
+//     int attempt = 0;
+//     while (!lock.tryLock()) {
+//         backoff.pause(attempt++);
+//     }
+//     backoff.succeeded(attempt);
+//
+// Threads that retry immediately, or all wait the same time, keep colliding in the same
+// order: that is livelock. Random waits break the symmetry and growing waits spread the
+// retries out until there are few enough of them to succeed.
+//
+// Implementations are thread-safe and shared by all threads of a loop; the attempt
+// number carries the per-call state. pause() uses LockSupport.parkNanos, which returns
+// early when the thread is interrupted, so loops that must stop on interrupt check for it.
+public interface Backoff {
+    // Waits before retry number attempt + 1; attempt is 0 after the first failure
+    void pause(int attempt);
+
+    // Reports that an operation succeeded after the given number of failed attempts
+    default void succeeded(int failedAttempts) {
+    }
+
+    // Runs attempt until it returns true and returns the number of failed attempts
+    default int retry(BooleanSupplier attempt) {
+        int failed = 0;
+        while (!attempt.getAsBoolean()) {
+            pause(failed++);
+        }
+        succeeded(failed);
+        return failed;
+    }
+
+    // Retry at once; the baseline every other strategy is measured against
+    static Backoff none() {
+        return attempt -> Thread.onSpinWait();
+    }
+
+    // Give up the CPU to other runnable threads, as a "polite" worker does
+    static Backoff yielding() {
+        return attempt -> Thread.yield();
+    }
+
+    // Random wait between 0 and min(maxNanos, minNanos * 2^attempt) ("full jitter")
+    static Backoff exponentialJitter(long minNanos, long maxNanos) {
+        if (minNanos <= 0 || maxNanos < minNanos) {
+            throw new IllegalArgumentException("need 0 < minNanos <= maxNanos");
+        }
+        return attempt -> {
+            int shift = Math.min(attempt, Long.numberOfLeadingZeros(minNanos) - 1); // No overflow
+            long ceiling = Math.min(maxNanos, minNanos << shift);
+            LockSupport.parkNanos(ThreadLocalRandom.current().nextLong(ceiling + 1));
+        };
+    }
+
+    // Busy-waits for the first spinAttempts failures, each spin twice as long as the last,
+    // then parks for growing random times. Spinning avoids the microseconds a park and
+    // unpark cost when the holder is about to finish, and only pays off with spare cores.
+    static Backoff spinThenPark(int spinAttempts, long maxParkNanos) {
+        if (spinAttempts < 0 || spinAttempts > 20 || maxParkNanos <= 0) {
+            throw new IllegalArgumentException("need 0 <= spinAttempts <= 20 and maxParkNanos > 0");
+        }
+        Backoff park = exponentialJitter(Math.min(1_000, maxParkNanos), maxParkNanos);
+        return attempt -> {
+            if (attempt < spinAttempts) {
+                for (int i = 1 << attempt; i > 0; i--) {
+                    Thread.onSpinWait();
+                }
+            } else {
+                park.pause(attempt - spinAttempts);
+            }
+        };
+    }
+
+    // Waits in proportion to how contended the loop currently is, see ProportionalBackoff
+    static Backoff proportional(long maxNanos) {
+        return new ProportionalBackoff(maxNanos);
+    }
+
+    // Keeps a shared estimate of the recent failure rate, as an exponentially weighted
+    // moving average over attempts of all threads, and waits a random time of up to
+    // maxNanos times that rate. Unlike exponential backoff, the first retry after a
+    // failure already waits long when the loop is busy, and a quiet loop stops waiting
+    // as soon as attempts start succeeding again, instead of every thread relearning it.
+    //
+    // Updates to the estimate are racy read-then-write; a lost update only makes the
+    // average slightly less accurate. Successes without failures skip the write while
+    // the estimate is zero, so an uncontended loop does not share a written cache line.
+    final class ProportionalBackoff implements Backoff {
+        private static final int ONE = 1 << 16; // Fixed-point 1.0
+        private static final int WEIGHT_SHIFT = 4; // Each outcome moves the average by 1/16
+
+        private final long maxNanos;
+        private final AtomicInteger failureRate = new AtomicInteger();
+
+        ProportionalBackoff(long maxNanos) {
+            if (maxNanos <= 0) {
+                throw new IllegalArgumentException("maxNanos must be positive");
+            }
+            this.maxNanos = maxNanos;
+        }
+
+        // Current failure rate estimate between 0 and 1
+        public double contention() {
+            return (double) failureRate.get() / ONE;
+        }
+
+        @Override
+        public void pause(int attempt) {
+            int rate = failureRate.get();
+            rate += (ONE - rate) >> WEIGHT_SHIFT;
+            failureRate.lazySet(rate);
+            long ceiling = maxNanos * rate / ONE;
+            if (ceiling > 0) {
+                LockSupport.parkNanos(ThreadLocalRandom.current().nextLong(ceiling + 1));
+            } else {
+                Thread.onSpinWait();
+            }
+        }
+
+        @Override
+        public void succeeded(int failedAttempts) {
+            int rate = failureRate.get();
+            if (rate != 0) {
+                failureRate.lazySet(rate - (rate >> WEIGHT_SHIFT) - (rate < 1 << WEIGHT_SHIFT ? 1 : 0));
+            }
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.example.challenges;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class BackoffExample {
+    private static final int NUM_THREADS = 8;
+    private static final long MEASURE_MILLIS = 500;
+
+    public static void main(String[] args) throws InterruptedException {
+        System.out.println("Backoff Example");
+        System.out.println("===============");
+        System.out.println("This example plugs different Backoff strategies into the same retry loops");
+        System.out.println("and counts completed operations, wasted attempts and the worst retry streak.\n");
+
+        Map<String, Backoff> strategies = new LinkedHashMap<>();
+        strategies.put("none (retry at once)", Backoff.none());
+        strategies.put("yielding", Backoff.yielding());
+        strategies.put("exponential with jitter", Backoff.exponentialJitter(1_000, 1_000_000));
+        strategies.put("spin then park", Backoff.spinThenPark(6, 1_000_000));
+        strategies.put("proportional", Backoff.proportional(200_000));
+
+        System.out.println("Available processors: " + Runtime.getRuntime().availableProcessors());
+
+        System.out.println("\nPart 1: tryLock on two locks in opposite orders, release both on failure");
+        System.out.println("(the retry loop of DeadlockPreventionExample, which livelocks without backoff)\n");
+        printHeader();
+        runTwice(strategies, BackoffExample::twoLockWorkload);
+
+        Thread.sleep(1000);
+
+        System.out.println("\nPart 2: CAS loop with a read-compute-CAS window on one AtomicReference\n");
+        printHeader();
+        runTwice(strategies, BackoffExample::casWorkload);
+
+        System.out.println("\nExplanation:");
+        System.out.println("Threads that retry at once, or yield and come back together, keep colliding in");
+        System.out.println("the same pattern; LivelockExample is the extreme case where nobody ever proceeds.");
+        System.out.println("- Exponential backoff with jitter randomizes the retry times and spreads them");
+        System.out.println("  further apart after every failure, so colliding threads fall out of step");
+        System.out.println("- Spin-then-park retries cheaply for the first few failures, when the holder is");
+        System.out.println("  likely about to finish, and only then pays for parking");
+        System.out.println("- Proportional backoff shares one failure-rate estimate, so every thread waits");
+        System.out.println("  longer as soon as the loop gets busy and stops waiting once it calms down");
+        System.out.println("- 'Worst streak' is the most failures one operation suffered in a row: long streaks");
+        System.out.println("  are the livelock, even when the total throughput looks fine");
+        System.out.println("- On one core, a thread that retries at once burns its time slice while the");
+        System.out.println("  preempted lock holder cannot run; any strategy that gives up the CPU fixes that");
+        System.out.println("- CAS collisions need threads running at the same time, so Part 2 only shows");
+        System.out.println("  differences between the strategies on a multi-core machine");
+    }
+
+    // A workload runs one operation and returns the number of failed attempts it took
+    interface Workload {
+        Operation create(Backoff backoff);
+    }
+
+    interface Operation {
+        int run(int thread);
+    }
+
+    private static void printHeader() {
+        System.out.printf("%-26s %14s %16s %14s%n", "Strategy", "Ops/s", "Failures per op", "Worst streak");
+    }
+
+    // The first round warms up every strategy's code path and is not printed
+    private static void runTwice(Map<String, Backoff> strategies, Workload workload) throws InterruptedException {
+        for (int round = 0; round < 2; round++) {
+            for (Map.Entry<String, Backoff> strategy : strategies.entrySet()) {
+                Result result = measure(workload.create(strategy.getValue()));
+                if (round == 1) {
+                    System.out.printf("%-26s %,14d %16.3f %,14d%n", strategy.getKey(), result.opsPerSecond,
+                            result.failuresPerOp, result.worstStreak);
+                }
+            }
+        }
+    }
+
+    // Part 1: Even threads take A then B, odd threads B then A, both only with tryLock
+    private static Operation twoLockWorkload(Backoff backoff) {
+        Lock a = new ReentrantLock();
+        Lock b = new ReentrantLock();
+        long[] shared = new long[1];
+        return thread -> {
+            Lock first = thread % 2 == 0 ? a : b;
+            Lock second = thread % 2 == 0 ? b : a;
+            return backoff.retry(() -> {
+                if (!first.tryLock()) {
+                    return false;
+                }
+                try {
+                    simulateWork(); // Holding one lock widens the window for the inversion
+                    if (!second.tryLock()) {
+                        return false;
+                    }
+                    try {
+                        shared[0]++;
+                        simulateWork();
+                        return true;
+                    } finally {
+                        second.unlock();
+                    }
+                } finally {
+                    first.unlock();
+                }
+            });
+        };
+    }
+
+    // Part 2: The update is computed from the value read, so a concurrent CAS wastes the work
+    private static Operation casWorkload(Backoff backoff) {
+        AtomicReference<long[]> state = new AtomicReference<>(new long[] {0, 0});
+        return thread -> backoff.retry(() -> {
+            long[] current = state.get();
+            long[] next = {current[0] + 1, current[1] + mix(current[0])};
+            return state.compareAndSet(current, next);
+        });
+    }
+
+    private static long mix(long x) {
+        for (int i = 0; i < 50; i++) {
+            x = x * 6364136223846793005L + 1442695040888963407L;
+        }
+        return x >>> 60;
+    }
+
+    private static void simulateWork() {
+        long x = 0;
+        for (int i = 0; i < 100; i++) {
+            x += i * 31L;
+        }
+        if (x == 42) {
+            System.out.println(x); // Never true; keeps the loop from being optimized away
+        }
+    }
+
+    private record Result(long opsPerSecond, double failuresPerOp, long worstStreak) {
+    }
+
+    private static Result measure(Operation operation) throws InterruptedException {
+        LongAdder ops = new LongAdder();
+        LongAdder failures = new LongAdder();
+        AtomicLong worstStreak = new AtomicLong();
+        AtomicBoolean running = new AtomicBoolean(true);
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] workers = new Thread[NUM_THREADS];
+        for (int t = 0; t < NUM_THREADS; t++) {
+            final int thread = t;
+            workers[t] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                long count = 0;
+                long failed = 0;
+                long worst = 0;
+                while (running.get()) {
+                    int attempts = operation.run(thread);
+                    failed += attempts;
+                    worst = Math.max(worst, attempts);
+                    count++;
+                }
+                ops.add(count);
+                failures.add(failed);
+                worstStreak.accumulateAndGet(worst, Math::max);
+            });
+            workers[t].start();
+        }
+        start.countDown();
+        Thread.sleep(MEASURE_MILLIS);
+        running.set(false);
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        long total = ops.sum();
+        return new Result(total * 1000 / MEASURE_MILLIS, total == 0 ? 0 : (double) failures.sum() / total,
+                worstStreak.get());
+    }
+}
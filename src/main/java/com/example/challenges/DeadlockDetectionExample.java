@@ -0,0 +1,201 @@
+package com.example.challenges;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class DeadlockDetectionExample {
+    private static final int NUM_THREADS = 4;
+    private static final int NUM_LOCKS = 8;
+    private static final long MEASURE_MILLIS = 500;
+
+    public static void main(String[] args) throws InterruptedException {
+        System.out.println("Deadlock Detection Example");
+        System.out.println("==========================");
+        System.out.println("This example reports lock-order inversions before they deadlock and finds");
+        System.out.println("deadlocks that do happen, with the stacks of the threads involved.\n");
+
+        System.out.println("Part 1: An inversion reported although the threads never collide");
+        inversionWithoutDeadlock();
+
+        Thread.sleep(1000);
+
+        System.out.println("\nPart 2: The same inversion, timed so that it deadlocks");
+        realDeadlock();
+
+        Thread.sleep(1000);
+
+        System.out.println("\nPart 3: Overhead of tracking and of a watchdog check");
+        overhead();
+
+        System.out.println("\nExplanation:");
+        System.out.println("DeadlockExample only notices its deadlock because it knows which threads to check.");
+        System.out.println("- TrackedLock records every 'acquired B while holding A' as an edge A -> B");
+        System.out.println("- A new edge that closes a cycle is an inversion: two threads doing it at the");
+        System.out.println("  same time would deadlock, so it is reported with both stacks right away");
+        System.out.println("- Known edges cost one map lookup per held lock; only new edges take a stack");
+        System.out.println("  trace and a cycle search, and the graph has a fixed maximum size");
+        System.out.println("- DeadlockWatchdog calls ThreadMXBean.findDeadlockedThreads() periodically and");
+        System.out.println("  reports each deadlock once, for monitors and ReentrantLocks alike");
+        System.out.println("- The watchdog cannot undo a deadlock; lockInterruptibly lets a handler recover");
+        System.out.println("  by interrupting one of the threads, as Part 2 does");
+    }
+
+    // Part 1: A -> B in one thread, later B -> A in another
+    private static void inversionWithoutDeadlock() throws InterruptedException {
+        LockOrderGraph graph = new LockOrderGraph(inversion -> System.out.println(inversion));
+        TrackedLock accounts = graph.newLock("accounts");
+        TrackedLock audit = graph.newLock("audit");
+
+        Thread transfer = new Thread(() -> nested(accounts, audit), "transfer");
+        transfer.start();
+        transfer.join();
+        System.out.println("transfer finished, inversions so far: " + graph.inversionCount());
+
+        Thread report = new Thread(() -> nested(audit, accounts), "report");
+        report.start();
+        report.join();
+        System.out.println("report finished, inversions so far: " + graph.inversionCount());
+    }
+
+    private static void nested(Lock outer, Lock inner) {
+        outer.lock();
+        try {
+            inner.lock();
+            try {
+                // Work with both resources
+            } finally {
+                inner.unlock();
+            }
+        } finally {
+            outer.unlock();
+        }
+    }
+
+    // Part 2: Both threads take their first lock, then wait for the other's
+    private static void realDeadlock() throws InterruptedException {
+        LockOrderGraph graph = new LockOrderGraph(inversion ->
+                System.out.println("[" + Thread.currentThread().getName() + "] " + inversion));
+        TrackedLock a = graph.newLock("A");
+        TrackedLock b = graph.newLock("B");
+        CountDownLatch bothHoldOne = new CountDownLatch(2);
+
+        Thread thread1 = new Thread(() -> lockBoth(a, b, bothHoldOne), "Thread-1");
+        Thread thread2 = new Thread(() -> lockBoth(b, a, bothHoldOne), "Thread-2");
+        try (DeadlockWatchdog watchdog = new DeadlockWatchdog(200, TimeUnit.MILLISECONDS,
+                System.out::println).start()) {
+            thread1.start();
+            thread2.start();
+            while (watchdog.deadlockCount() == 0 && thread1.isAlive()) {
+                Thread.sleep(50);
+            }
+            System.out.println("Watchdog saw " + watchdog.deadlockCount() + " deadlock; interrupting Thread-2");
+        }
+        thread2.interrupt();
+        thread1.join();
+        thread2.join();
+        System.out.println("Both threads finished: " + !(thread1.isAlive() || thread2.isAlive()));
+    }
+
+    private static void lockBoth(Lock first, Lock second, CountDownLatch bothHoldOne) {
+        String name = Thread.currentThread().getName();
+        try {
+            first.lockInterruptibly();
+            try {
+                bothHoldOne.countDown();
+                bothHoldOne.await();
+                second.lockInterruptibly();
+                try {
+                    System.out.println(name + ": got both locks");
+                } finally {
+                    second.unlock();
+                }
+            } finally {
+                first.unlock();
+            }
+        } catch (InterruptedException e) {
+            System.out.println(name + ": interrupted, released its lock");
+        }
+    }
+
+    // Part 3: Threads take two or three locks in a fixed hierarchy, so no inversions occur
+    private static void overhead() throws InterruptedException {
+        System.out.println("Available processors: " + Runtime.getRuntime().availableProcessors() + "\n");
+        LockOrderGraph graph = new LockOrderGraph(inversion -> System.out.println(inversion));
+        Lock[] plain = new Lock[NUM_LOCKS];
+        Lock[] tracked = new Lock[NUM_LOCKS];
+        for (int i = 0; i < NUM_LOCKS; i++) {
+            plain[i] = new ReentrantLock();
+            tracked[i] = graph.newLock("lock-" + i);
+        }
+        run(plain); // Warm up
+        run(tracked);
+        System.out.printf("%-24s %,14d op/s%n", "ReentrantLock", run(plain));
+        System.out.printf("%-24s %,14d op/s%n", "TrackedLock", run(tracked));
+        System.out.println("Edges recorded: " + graph.edgeCount() + ", inversions: " + graph.inversionCount());
+
+        DeadlockWatchdog watchdog = new DeadlockWatchdog(1, TimeUnit.SECONDS, System.out::println);
+        int checks = 200;
+        long start = System.nanoTime();
+        for (int i = 0; i < checks; i++) {
+            watchdog.checkNow();
+        }
+        long micros = (System.nanoTime() - start) / checks / 1_000;
+        System.out.println("One watchdog check with " + ManagementFactory.getThreadMXBean().getThreadCount() +
+                          " live threads: ~" + micros + "us");
+    }
+
+    private static long run(Lock[] locks) throws InterruptedException {
+        LongAdder ops = new LongAdder();
+        AtomicBoolean running = new AtomicBoolean(true);
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] workers = new Thread[NUM_THREADS];
+        for (int t = 0; t < NUM_THREADS; t++) {
+            workers[t] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                long count = 0;
+                while (running.get()) {
+                    // Always in increasing index order
+                    int first = random.nextInt(NUM_LOCKS - 2);
+                    int second = first + 1 + random.nextInt(NUM_LOCKS - first - 2);
+                    int third = second + 1;
+                    locks[first].lock();
+                    try {
+                        locks[second].lock();
+                        try {
+                            if ((count & 1) == 0) {
+                                locks[third].lock();
+                                locks[third].unlock();
+                            }
+                        } finally {
+                            locks[second].unlock();
+                        }
+                    } finally {
+                        locks[first].unlock();
+                    }
+                    count++;
+                }
+                ops.add(count);
+            });
+            workers[t].start();
+        }
+        start.countDown();
+        Thread.sleep(MEASURE_MILLIS);
+        running.set(false);
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        return ops.sum() * 1000 / MEASURE_MILLIS;
+    }
+}
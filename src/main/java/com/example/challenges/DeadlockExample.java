@@ -1,5 +1,7 @@
 package com.example.challenges;
 
+import java.util.concurrent.TimeUnit;
+
 public class DeadlockExample {
     private static final Object RESOURCE_A = new Object();
     private static final Object RESOURCE_B = new Object();
@@ -56,15 +58,19 @@ public class DeadlockExample {
             System.out.println("Thread 2: Released resource B");
         }, "Thread-2");
         
+        // The watchdog asks the JVM for deadlocked threads and prints their stacks
+        DeadlockWatchdog watchdog = new DeadlockWatchdog(500, TimeUnit.MILLISECONDS,
+                report -> System.out.println("\n" + report)).start();
+        
         thread1.start();
         thread2.start();
         
-        // To detect the deadlock, we can check if threads are still alive after some time
         try {
             Thread.sleep(2000);
+            watchdog.close();
             
-            if (thread1.isAlive() && thread2.isAlive()) {
-                System.out.println("\nDEADLOCK DETECTED!");
+            if (watchdog.deadlockCount() > 0) {
+                System.out.println("DEADLOCK DETECTED!");
                 System.out.println("Thread 1 state: " + thread1.getState());
                 System.out.println("Thread 2 state: " + thread2.getState());
                 
@@ -74,6 +80,8 @@ public class DeadlockExample {
                 System.out.println("while Thread 2 holds resource B and waits for resource A.");
                 System.out.println("This situation is called a circular wait, and it's one of the");
                 System.out.println("four conditions necessary for a deadlock to occur.");
+                System.out.println("DeadlockWatchdog found it with ThreadMXBean.findDeadlockedThreads();");
+                System.out.println("DeadlockDetectionExample shows how to catch the inversion before it deadlocks.");
             }
         } catch (InterruptedException e) {
             e.printStackTrace();
@@ -1,5 +1,7 @@
 package com.example.challenges;
 
+import com.example.locking.MultiLock;
+
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.concurrent.TimeUnit;
@@ -12,6 +14,9 @@ public class DeadlockPreventionExample {
     // For lock timeout approach
     private static final Lock LOCK_A = new ReentrantLock();
     private static final Lock LOCK_B = new ReentrantLock();
+    // Random waits of up to 1ms, 2ms, 4ms, ... 100ms between retries
+    private static final Backoff RETRY_BACKOFF =
+            Backoff.exponentialJitter(TimeUnit.MILLISECONDS.toNanos(1), TimeUnit.MILLISECONDS.toNanos(100));
     
     public static void main(String[] args) {
         System.out.println("Deadlock Prevention Example");
@@ -85,6 +90,7 @@ public class DeadlockPreventionExample {
         Thread thread1 = new Thread(() -> {
             try {
                 boolean gotBothLocks = false;
+                int attempt = 0;
                 
                 while (!gotBothLocks) {
                     // Try to acquire first lock with timeout
@@ -120,9 +126,9 @@ public class DeadlockPreventionExample {
                         System.out.println("Thread 1: Couldn't get lock A, retrying");
                     }
                     
-                    // Add a small random delay before retrying to reduce contention
+                    // Random, growing delay before retrying so the threads fall out of step
                     if (!gotBothLocks) {
-                        Thread.sleep((long) (Math.random() * 100));
+                        RETRY_BACKOFF.pause(attempt++);
                     }
                 }
                 
@@ -138,6 +144,7 @@ public class DeadlockPreventionExample {
         Thread thread2 = new Thread(() -> {
             try {
                 boolean gotBothLocks = false;
+                int attempt = 0;
                 
                 while (!gotBothLocks) {
                     // Thread 2 tries to acquire locks in opposite order to demonstrate prevention
@@ -171,7 +178,7 @@ public class DeadlockPreventionExample {
                     }
                     
                     if (!gotBothLocks) {
-                        Thread.sleep((long) (Math.random() * 100));
+                        RETRY_BACKOFF.pause(attempt++);
                     }
                 }
                 
@@ -196,28 +203,18 @@ public class DeadlockPreventionExample {
     
     // Method 3: Global lock ordering based on object identity
     private static void demonstrateGlobalOrdering() {
-        // Helper method to ensure consistent lock ordering by identity hash code
+        // Helper to acquire several locks in one consistent global order; it sorts them by
+        // identity hash code and falls back to a tie-break lock when two hash codes collide
         class ResourceOrderer {
-            public void acquireLocksInOrder(Object resource1, Object resource2, Runnable criticalSection) {
-                Object firstLock, secondLock;
-                
-                // Order locks based on their hash codes
-                if (System.identityHashCode(resource1) < System.identityHashCode(resource2)) {
-                    firstLock = resource1;
-                    secondLock = resource2;
-                } else {
-                    firstLock = resource2;
-                    secondLock = resource1;
-                }
-                
-                // Acquire locks in the determined order
-                synchronized (firstLock) {
-                    System.out.println(Thread.currentThread().getName() + ": Acquired first lock");
-                    synchronized (secondLock) {
-                        System.out.println(Thread.currentThread().getName() + ": Acquired second lock");
-                        // Execute the critical section
-                        criticalSection.run();
-                    }
+            public void acquireLocksInOrder(Lock resource1, Lock resource2, Runnable criticalSection) {
+                MultiLock locks = new MultiLock(resource1, resource2);
+                locks.lock();
+                try {
+                    System.out.println(Thread.currentThread().getName() + ": Acquired both locks");
+                    // Execute the critical section
+                    criticalSection.run();
+                } finally {
+                    locks.unlock();
                 }
             }
         }
@@ -230,7 +227,7 @@ public class DeadlockPreventionExample {
         Thread thread1 = new Thread(() -> {
             System.out.println("Thread 1: Using resource orderer to prevent deadlock");
             // Thread 1 wants to lock A then B
-            orderer.acquireLocksInOrder(RESOURCE_A, RESOURCE_B, () -> {
+            orderer.acquireLocksInOrder(LOCK_A, LOCK_B, () -> {
                 System.out.println("Thread 1: Working with both resources");
                 try {
                     Thread.sleep(100);
@@ -244,7 +241,7 @@ public class DeadlockPreventionExample {
         Thread thread2 = new Thread(() -> {
             System.out.println("Thread 2: Using resource orderer to prevent deadlock");
             // Thread 2 wants to lock B then A (opposite order)
-            orderer.acquireLocksInOrder(RESOURCE_B, RESOURCE_A, () -> {
+            orderer.acquireLocksInOrder(LOCK_B, LOCK_A, () -> {
                 System.out.println("Thread 2: Working with both resources");
                 try {
                     Thread.sleep(100);
@@ -270,6 +267,7 @@ public class DeadlockPreventionExample {
         System.out.println("1. Lock ordering: Always acquire locks in the same order in all threads");
         System.out.println("2. Lock timeout: Use timed lock acquisition to avoid indefinite waiting");
         System.out.println("3. Global ordering: Use a system like resource hash codes to determine lock order");
+        System.out.println("   (MultiLock does this for any number of locks; see MultiLockExample)");
         System.out.println("All these strategies help break at least one of the four conditions necessary for deadlock.");
     }
 } 
\ No newline at end of file
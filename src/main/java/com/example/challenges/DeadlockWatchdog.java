@@ -0,0 +1,163 @@
+package com.example.challenges;
+
+import java.lang.management.LockInfo;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MonitorInfo;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+// Background thread that asks the JVM every period whether any threads are deadlocked,
+// via ThreadMXBean.findDeadlockedThreads(), and reports each deadlock once with the
+// stack of every thread involved and the locks they hold and wait for. It covers both
+// synchronized monitors and ReentrantLocks, and names TrackedLocks by their own names
+// instead of their internal synchronizers. Virtual threads are not covered, because
+// ThreadMXBean does not report them.
+//
+// A check pauses the JVM briefly to inspect all threads, so its cost grows with the
+// number of threads; the period bounds how often that happens. Deadlocked threads
+// never recover on their own, so a period of seconds loses nothing but reaction time.
+public class DeadlockWatchdog implements AutoCloseable {
+    private static final int MAX_FRAMES = 32;
+
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    private final long periodMillis;
+    private final Consumer<String> reporter;
+    private final Set<Set<Long>> reported = new HashSet<>();
+    private final LongAdder deadlocks = new LongAdder();
+    private volatile Thread thread;
+    private volatile boolean running = true;
+
+    public DeadlockWatchdog(long period, TimeUnit unit, Consumer<String> reporter) {
+        this.periodMillis = unit.toMillis(period);
+        this.reporter = reporter;
+    }
+
+    public synchronized DeadlockWatchdog start() {
+        if (thread != null) {
+            throw new IllegalStateException("watchdog already started");
+        }
+        Thread watcher = new Thread(this::run, "deadlock-watchdog");
+        watcher.setDaemon(true);
+        thread = watcher;
+        watcher.start();
+        return this;
+    }
+
+    // Deadlocks found so far, each counted once however long it lasts
+    public long deadlockCount() {
+        return deadlocks.sum();
+    }
+
+    // Runs one check on the calling thread; returns true if it found a new deadlock
+    public synchronized boolean checkNow() {
+        long[] ids = threads.findDeadlockedThreads();
+        if (ids == null) {
+            return false;
+        }
+        Set<Long> key = new HashSet<>();
+        for (long id : ids) {
+            key.add(id);
+        }
+        if (!reported.add(key)) {
+            return false;
+        }
+        deadlocks.increment();
+        Map<Long, String> trackedNames = TrackedLock.waitingLockNames();
+        ThreadInfo[] infos = threads.getThreadInfo(ids, threads.isObjectMonitorUsageSupported(),
+                threads.isSynchronizerUsageSupported());
+        reporter.accept(format(infos, trackedNames));
+        return true;
+    }
+
+    // Stops the watchdog thread and waits for it; an interrupt does not cut the wait
+    // short but is restored afterwards
+    @Override
+    public void close() {
+        running = false;
+        Thread watcher = thread;
+        if (watcher == null) {
+            return;
+        }
+        watcher.interrupt();
+        boolean interrupted = false;
+        while (true) {
+            try {
+                watcher.join();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                checkNow();
+                Thread.sleep(periodMillis);
+            } catch (InterruptedException e) {
+                return;
+            } catch (RuntimeException e) {
+                reporter.accept("Deadlock check failed: " + e);
+            }
+        }
+    }
+
+    // trackedNames maps a blocked thread's id to the TrackedLock it waits for. Every lock in
+    // a deadlock is waited for by some thread in it, so this names held locks as well.
+    private static String format(ThreadInfo[] infos, Map<Long, String> trackedNames) {
+        Map<Integer, String> lockNames = new HashMap<>();
+        for (ThreadInfo info : infos) {
+            if (info != null && info.getLockInfo() != null && trackedNames.containsKey(info.getThreadId())) {
+                lockNames.put(info.getLockInfo().getIdentityHashCode(), trackedNames.get(info.getThreadId()));
+            }
+        }
+        StringBuilder sb = new StringBuilder();
+        sb.append("DEADLOCK between ").append(infos.length).append(" threads").append(System.lineSeparator());
+        for (ThreadInfo info : infos) {
+            if (info == null) {
+                continue; // The thread ended between the two calls
+            }
+            sb.append("  \"").append(info.getThreadName()).append("\" ").append(info.getThreadState())
+              .append(" waiting for ").append(describe(info.getLockInfo(), lockNames))
+              .append(" held by \"").append(info.getLockOwnerName()).append("\"").append(System.lineSeparator());
+            StackTraceElement[] stack = info.getStackTrace();
+            for (int i = 0; i < Math.min(stack.length, MAX_FRAMES); i++) {
+                sb.append("      at ").append(stack[i]).append(System.lineSeparator());
+                for (MonitorInfo monitor : info.getLockedMonitors()) {
+                    if (monitor.getLockedStackDepth() == i) {
+                        sb.append("      - locked ").append(monitor).append(System.lineSeparator());
+                    }
+                }
+            }
+            LockInfo[] synchronizers = info.getLockedSynchronizers();
+            if (synchronizers.length > 0) {
+                String[] held = new String[synchronizers.length];
+                for (int i = 0; i < held.length; i++) {
+                    held[i] = describe(synchronizers[i], lockNames);
+                }
+                sb.append("    holds ").append(Arrays.toString(held)).append(System.lineSeparator());
+            }
+        }
+        return sb.toString();
+    }
+
+    private static String describe(LockInfo lock, Map<Integer, String> lockNames) {
+        if (lock == null) {
+            return "nothing";
+        }
+        String name = lockNames.get(lock.getIdentityHashCode());
+        return name != null ? "TrackedLock \"" + name + "\"" : lock.toString();
+    }
+}
@@ -0,0 +1,280 @@
+package com.example.challenges;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+// Single-writer alternative to guarding shared state with locks: every key is owned by
+// one shard, and each shard is one thread that runs the tasks submitted for its keys,
+// one at a time and in submission order. State that only a shard's tasks touch, such as
+// the balances of the accounts hashed to it, therefore needs no locks, atomics or
+// volatile fields, and a hot key costs a queue hand-off instead of a convoy of threads
+// parking on its monitor.
+//
+// Each shard has a multi-producer, single-consumer mailbox: a linked list where
+// producers swap themselves in as the tail with one compareAndSet and the shard
+// thread pops from the head with plain reads and writes (Vyukov's MPSC queue). An
+// idle shard parks; a producer only pays for unpark() if the shard announced that it
+// was going to sleep. On shutdown the shard swaps a CLOSED marker in as the tail, so a
+// producer either links its task before the marker, and the shard runs it, or finds the
+// marker and is rejected; no task can end up behind a shard that has exited.
+//
+// Tasks on one shard must not block for long, since they hold up every other key of the
+// shard. A task that throws is counted and the shard moves on to the next task.
+public class KeyedExecutor implements AutoCloseable {
+    private static final int SPINS_BEFORE_PARK = 128;
+    private static final int DEPTH_SAMPLE_INTERVAL = 256;
+    private static final Node CLOSED = new Node(null);
+
+    private final Shard[] shards;
+    private volatile boolean shutdown;
+
+    public KeyedExecutor(String name, int shardCount) {
+        this(name, shardCount, false);
+    }
+
+    // Virtual shard threads cost almost nothing while idle, so thousands of shards are cheap
+    public KeyedExecutor(String name, int shardCount, boolean virtualThreads) {
+        if (shardCount <= 0) {
+            throw new IllegalArgumentException("shardCount must be positive");
+        }
+        shards = new Shard[shardCount];
+        Thread.Builder builder = virtualThreads ? Thread.ofVirtual() : Thread.ofPlatform().daemon(true);
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new Shard();
+            shards[i].thread = builder.name(name + "-shard-" + i).unstarted(shards[i]);
+        }
+        for (Shard shard : shards) {
+            shard.thread.start();
+        }
+    }
+
+    public int shardCount() {
+        return shards.length;
+    }
+
+    // The shard that runs all tasks for key; stable for the lifetime of the executor
+    public int shardOf(Object key) {
+        int h = key.hashCode();
+        h ^= h >>> 16;
+        h *= 0x45D9F3B;
+        h ^= h >>> 16;
+        return Math.floorMod(h, shards.length);
+    }
+
+    public void execute(Object key, Runnable task) {
+        if (!shards[shardOf(key)].offer(task)) {
+            throw new RejectedExecutionException("executor is shut down");
+        }
+    }
+
+    public <T> CompletableFuture<T> submit(Object key, Supplier<T> task) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        execute(key, () -> {
+            try {
+                future.complete(task.get());
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            }
+        });
+        return future;
+    }
+
+    // Tasks waiting in the shard's mailbox right now
+    public long queueDepth(int shard) {
+        return shards[shard].depth();
+    }
+
+    public long[] queueDepths() {
+        long[] depths = new long[shards.length];
+        for (int i = 0; i < shards.length; i++) {
+            depths[i] = shards[i].depth();
+        }
+        return depths;
+    }
+
+    // Deepest mailbox the shard has seen, sampled when it wakes up and every 256 tasks
+    public long maxQueueDepth(int shard) {
+        return shards[shard].maxDepth;
+    }
+
+    public long completedTaskCount(int shard) {
+        return shards[shard].dequeued.get();
+    }
+
+    public long failedTaskCount() {
+        long failed = 0;
+        for (Shard shard : shards) {
+            failed += shard.failed.sum();
+        }
+        return failed;
+    }
+
+    // Stops accepting tasks, runs everything already submitted and waits for the shards.
+    // A task whose execute() races with close() is either run before close() returns or
+    // rejected with RejectedExecutionException. Like ExecutorService.close(), an interrupt
+    // does not cut the wait short; the interrupt status is restored once every shard has
+    // finished. Throws IllegalStateException from a task, since its shard would wait for
+    // itself.
+    @Override
+    public void close() {
+        for (Shard shard : shards) {
+            if (shard.thread == Thread.currentThread()) {
+                throw new IllegalStateException("close() called from a task on " + shard.thread.getName());
+            }
+        }
+        shutdown = true;
+        for (Shard shard : shards) {
+            LockSupport.unpark(shard.thread);
+        }
+        boolean interrupted = false;
+        for (Shard shard : shards) {
+            while (true) {
+                try {
+                    shard.thread.join();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class Node {
+        volatile Node next;
+        Runnable task;
+
+        Node(Runnable task) {
+            this.task = task;
+        }
+    }
+
+    private final class Shard implements Runnable {
+        // Producers swap in new tails; only the shard thread reads and advances head
+        private final AtomicReference<Node> tail;
+        private Node head;
+        private final LongAdder enqueued = new LongAdder();
+        private final AtomicLong dequeued = new AtomicLong();
+        private final LongAdder failed = new LongAdder();
+        private volatile boolean sleeping;
+        private volatile long maxDepth;
+        Thread thread;
+
+        Shard() {
+            head = new Node(null);
+            tail = new AtomicReference<>(head);
+        }
+
+        // Returns false once the shard has closed its mailbox. Vyukov's queue uses getAndSet
+        // here; a CAS costs a retry under contention, but never replaces the CLOSED marker.
+        boolean offer(Runnable task) {
+            Node node = new Node(task);
+            Node previous;
+            do {
+                previous = tail.get();
+                if (previous == CLOSED) {
+                    return false;
+                }
+            } while (!tail.compareAndSet(previous, node));
+            enqueued.increment();
+            previous.next = node;
+            if (sleeping) {
+                LockSupport.unpark(thread);
+            }
+            return true;
+        }
+
+        long depth() {
+            return Math.max(0, enqueued.sum() - dequeued.get());
+        }
+
+        @Override
+        public void run() {
+            int idleSpins = 0;
+            int untilSample = 0;
+            while (true) {
+                Runnable task = poll();
+                if (task != null) {
+                    if (idleSpins > 0 || --untilSample <= 0) {
+                        idleSpins = 0;
+                        untilSample = DEPTH_SAMPLE_INTERVAL;
+                        sampleDepth();
+                    }
+                    runTask(task);
+                } else if (isEmpty()) {
+                    if (shutdown) {
+                        drainAndClose();
+                        return;
+                    }
+                    idleSpins++;
+                    if (idleSpins < SPINS_BEFORE_PARK) {
+                        Thread.onSpinWait();
+                    } else {
+                        // Announce the sleep, then re-check: a producer that enqueued before
+                        // seeing sleeping == true is caught by isEmpty()
+                        sleeping = true;
+                        if (isEmpty() && !shutdown) {
+                            LockSupport.park(this);
+                        }
+                        sleeping = false;
+                    }
+                } else {
+                    Thread.onSpinWait(); // A producer swapped the tail but has not linked it yet
+                }
+            }
+        }
+
+        // Closes the mailbox and runs the tasks linked before it was closed, including any
+        // whose producer swapped the tail but has not linked its node yet
+        private void drainAndClose() {
+            Node last = tail.getAndSet(CLOSED);
+            while (head != last) {
+                Runnable task = poll();
+                if (task != null) {
+                    runTask(task);
+                } else {
+                    Thread.onSpinWait();
+                }
+            }
+        }
+
+        private Runnable poll() {
+            Node next = head.next;
+            if (next == null) {
+                return null;
+            }
+            head = next;
+            Runnable task = next.task;
+            next.task = null;
+            return task;
+        }
+
+        private void sampleDepth() {
+            long depth = depth();
+            if (depth > maxDepth) {
+                maxDepth = depth;
+            }
+        }
+
+        private boolean isEmpty() {
+            return tail.get() == head;
+        }
+
+        private void runTask(Runnable task) {
+            try {
+                task.run();
+            } catch (Throwable t) {
+                failed.increment();
+            } finally {
+                dequeued.lazySet(dequeued.get() + 1);
+            }
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package com.example.challenges;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class KeyedExecutorExample {
+    private static final int NUM_PRODUCERS = 8;
+    private static final int NUM_SHARDS = 4;
+    private static final int HOT_ACCOUNTS = 16;
+    private static final int OPS_PER_PRODUCER = 250_000;
+
+    // The monitor pattern of ThreadSafePatternExample.BankAccount, without its simulated
+    // 50ms of processing, so the benchmark measures the coordination and not the sleep
+    static class SynchronizedAccount {
+        private long balance;
+
+        synchronized void deposit(long amount) {
+            balance += amount;
+        }
+
+        synchronized boolean withdraw(long amount) {
+            if (balance < amount) {
+                return false;
+            }
+            balance -= amount;
+            return true;
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        System.out.println("Keyed Executor Example");
+        System.out.println("======================");
+        System.out.println("This example gives every key a single owning thread with its own mailbox,");
+        System.out.println("so per-key state is updated in order without any locks.\n");
+
+        System.out.println("Part 1: Per-key ordering with state confined to the shards");
+        orderingCheck();
+
+        Thread.sleep(1000);
+
+        System.out.println("\nPart 2: Per-shard queue depth when one key is hot");
+        queueDepths();
+
+        Thread.sleep(1000);
+
+        System.out.println("\nPart 3: " + HOT_ACCOUNTS + " hot accounts, " + NUM_PRODUCERS +
+                          " threads: synchronized accounts vs shard-owned accounts");
+        benchmark();
+
+        System.out.println("\nExplanation:");
+        System.out.println("Locks let any thread update any account, so threads sharing a hot account queue");
+        System.out.println("up on its monitor and the state bounces between their caches.");
+        System.out.println("- Each key hashes to one shard thread, which alone reads and writes its state");
+        System.out.println("- Tasks for a key run one at a time in submission order, so no locks are needed");
+        System.out.println("- Producers hand off a task with one compareAndSet on the shard's mailbox tail");
+        System.out.println("- Queue depth per shard shows hot keys and overloaded shards before latency does");
+        System.out.println("- The cost is a hand-off per operation and results that arrive asynchronously");
+        System.out.println("- With tiny operations on few cores the monitor still wins; sharding pays off once");
+        System.out.println("  many cores fight over the same hot accounts");
+        System.out.println("- A slow task delays every key on its shard, so shard tasks must not block");
+    }
+
+    // Part 1: Producers send numbered events per key; each shard checks they arrive in order
+    private static void orderingCheck() throws InterruptedException {
+        KeyedExecutor executor = new KeyedExecutor("ordering", NUM_SHARDS);
+        // One plain HashMap per shard, only ever touched by that shard's thread
+        List<Map<String, Long>> lastSeen = new ArrayList<>(NUM_SHARDS);
+        for (int i = 0; i < NUM_SHARDS; i++) {
+            lastSeen.add(new HashMap<>());
+        }
+        AtomicLong outOfOrder = new AtomicLong();
+        AtomicLong processed = new AtomicLong();
+
+        Thread[] producers = new Thread[NUM_PRODUCERS];
+        for (int p = 0; p < NUM_PRODUCERS; p++) {
+            final int producer = p;
+            producers[p] = new Thread(() -> {
+                for (long seq = 1; seq <= 10_000; seq++) {
+                    for (int k = 0; k < 8; k++) {
+                        String key = "producer-" + producer + "/key-" + k;
+                        long sequence = seq;
+                        int shard = executor.shardOf(key);
+                        executor.execute(key, () -> {
+                            Long previous = lastSeen.get(shard).put(key, sequence);
+                            if (previous != null && previous != sequence - 1) {
+                                outOfOrder.incrementAndGet();
+                            }
+                            processed.incrementAndGet();
+                        });
+                    }
+                }
+            });
+            producers[p].start();
+        }
+        for (Thread producer : producers) {
+            producer.join();
+        }
+        executor.close();
+
+        System.out.printf("Events processed: %,d, out of order: %d, failed tasks: %d%n",
+                processed.get(), outOfOrder.get(), executor.failedTaskCount());
+        for (int i = 0; i < NUM_SHARDS; i++) {
+            System.out.printf("Shard %d ran %,d tasks for %d keys%n",
+                    i, executor.completedTaskCount(i), lastSeen.get(i).size());
+        }
+    }
+
+    // Part 2: A burst on one key backs up only the shard that owns it
+    private static void queueDepths() throws InterruptedException {
+        KeyedExecutor executor = new KeyedExecutor("depth", NUM_SHARDS);
+        String hotKey = "hot-customer";
+        Thread producer = new Thread(() -> {
+            for (int i = 0; i < 200_000; i++) {
+                executor.execute(hotKey, KeyedExecutorExample::simulateWork);
+                if (i % 10 == 0) {
+                    executor.execute("customer-" + i, KeyedExecutorExample::simulateWork);
+                }
+            }
+        });
+        producer.start();
+        for (int sample = 0; sample < 5; sample++) {
+            Thread.sleep(50);
+            System.out.println("Queue depths: " + Arrays.toString(executor.queueDepths()));
+        }
+        producer.join();
+        executor.close();
+
+        System.out.println("Hot key is owned by shard " + executor.shardOf(hotKey));
+        for (int i = 0; i < NUM_SHARDS; i++) {
+            System.out.printf("Shard %d: max depth %,d, tasks %,d%n",
+                    i, executor.maxQueueDepth(i), executor.completedTaskCount(i));
+        }
+    }
+
+    private static void simulateWork() {
+        long x = 0;
+        for (int i = 0; i < 200; i++) {
+            x += i * 31L;
+        }
+        if (x == 42) {
+            System.out.println(x); // Never true; keeps the loop from being optimized away
+        }
+    }
+
+    // Part 3: Same random deposits and withdrawals against both designs
+    private static void benchmark() throws InterruptedException {
+        System.out.println("Available processors: " + Runtime.getRuntime().availableProcessors() + "\n");
+        for (int round = 0; round < 2; round++) {
+            long synchronizedOps = runSynchronized();
+            long platformOps = runSharded(false);
+            long virtualOps = runSharded(true);
+            if (round == 1) {
+                System.out.printf("%-36s %,14d op/s%n", "synchronized BankAccount-style", synchronizedOps);
+                System.out.printf("%-36s %,14d op/s%n", "KeyedExecutor, platform shards", platformOps);
+                System.out.printf("%-36s %,14d op/s%n", "KeyedExecutor, virtual shards", virtualOps);
+            }
+        }
+        System.out.println("(KeyedExecutor times include draining the mailboxes after the producers finish)");
+    }
+
+    private static long runSynchronized() throws InterruptedException {
+        SynchronizedAccount[] accounts = new SynchronizedAccount[HOT_ACCOUNTS];
+        for (int i = 0; i < HOT_ACCOUNTS; i++) {
+            accounts[i] = new SynchronizedAccount();
+            accounts[i].deposit(1_000_00);
+        }
+        long nanos = runProducers((account, amount, deposit) -> {
+            if (deposit) {
+                accounts[account].deposit(amount);
+            } else {
+                accounts[account].withdraw(amount);
+            }
+        });
+        return opsPerSecond(nanos);
+    }
+
+    private static long runSharded(boolean virtualThreads) throws InterruptedException {
+        KeyedExecutor executor = new KeyedExecutor("accounts", NUM_SHARDS, virtualThreads);
+        // Plain array: every element is only written by the shard that owns that account
+        long[] balances = new long[HOT_ACCOUNTS];
+        Arrays.fill(balances, 1_000_00);
+        long start = System.nanoTime();
+        runProducers((account, amount, deposit) -> executor.execute(account, () -> {
+            if (deposit) {
+                balances[account] += amount;
+            } else if (balances[account] >= amount) {
+                balances[account] -= amount;
+            }
+        }));
+        executor.close(); // Wait until the shards have applied everything
+        long nanos = System.nanoTime() - start;
+        return opsPerSecond(nanos);
+    }
+
+    interface Operation {
+        void apply(int account, long amount, boolean deposit);
+    }
+
+    // Every producer replays the same seeded sequence, so all runs see identical operations
+    private static long runProducers(Operation operation) throws InterruptedException {
+        CountDownLatch startSignal = new CountDownLatch(1);
+        Thread[] producers = new Thread[NUM_PRODUCERS];
+        for (int p = 0; p < NUM_PRODUCERS; p++) {
+            final long seed = p;
+            producers[p] = new Thread(() -> {
+                try {
+                    startSignal.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                SplittableRandom random = new SplittableRandom(seed);
+                for (int i = 0; i < OPS_PER_PRODUCER; i++) {
+                    operation.apply(random.nextInt(HOT_ACCOUNTS), random.nextLong(1, 100_00), random.nextBoolean());
+                }
+            });
+            producers[p].start();
+        }
+        long start = System.nanoTime();
+        startSignal.countDown();
+        for (Thread producer : producers) {
+            producer.join();
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static long opsPerSecond(long nanos) {
+        return (long) NUM_PRODUCERS * OPS_PER_PRODUCER * 1_000_000_000L / nanos;
+    }
+}
@@ -70,6 +70,8 @@ public class LivelockExample {
         System.out.println("each other's actions in a way that prevents either from completing.");
         System.out.println("Unlike deadlocks, the threads are not waiting for resources,");
         System.out.println("but are stuck in a cycle of responding to each other.");
+        System.out.println("Retry loops livelock the same way when threads retry in lockstep;");
+        System.out.println("BackoffExample shows how randomized backoff breaks the cycle.");
         
         // Attempt to break the livelock by terminating the program
         System.exit(0);
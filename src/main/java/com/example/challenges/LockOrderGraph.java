@@ -0,0 +1,182 @@
+package com.example.challenges;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+// Records the order in which threads nest TrackedLocks and reports lock-order inversions
+// before they turn into deadlocks. Every time a thread acquires lock B while holding lock
+// A, the edge A -> B is added to a graph. If a new edge closes a cycle, some thread has
+// taken those locks in an order that contradicts another thread's, and two threads doing
+// so at the same time would deadlock. The inversion is reported as soon as the second
+// order is first seen, whether or not the threads actually collided that time.
+//
+// The overhead is bounded: a thread only looks up the locks it already holds in the
+// concurrent map of known predecessors of the lock it acquires. Only an edge seen for
+// the first time pays for a stack trace and a cycle search, and the graph stops growing
+// at MAX_EDGES, so a program with a fixed lock hierarchy quickly stops doing anything
+// but those lookups.
+//
+// tryLock() never waits, so it cannot be part of a deadlock and adds no edges; timed
+// tryLock waits end on their own and add no edges either.
+public class LockOrderGraph {
+    private static final int MAX_EDGES = 4096;
+    private static final int MAX_FRAMES = 16;
+    private static final StackWalker WALKER = StackWalker.getInstance();
+
+    private final Consumer<Inversion> listener;
+    private final AtomicInteger nextId = new AtomicInteger();
+    private final ThreadLocal<List<TrackedLock>> held = ThreadLocal.withInitial(ArrayList::new);
+    // Edges are stored with their target, in TrackedLock.predecessors; adjacency lists
+    // for the cycle search are guarded by this
+    private final Map<Integer, List<Edge>> successors = new HashMap<>();
+    private final AtomicInteger edgeCount = new AtomicInteger();
+    private final LongAdder inversions = new LongAdder();
+    private final LongAdder droppedEdges = new LongAdder();
+
+    // One lock nested inside another, with the stack that first did so
+    public record Edge(TrackedLock from, TrackedLock to, String thread, List<StackTraceElement> stack) {
+    }
+
+    // A cycle of edges; the last edge is the one that closed it
+    public record Inversion(List<Edge> cycle) {
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            sb.append("Lock-order inversion: ")
+              .append(cycle.stream().map(edge -> edge.from().name()).collect(Collectors.joining(" -> ")))
+              .append(" -> ").append(cycle.get(0).from().name()).append(System.lineSeparator());
+            for (Edge edge : cycle) {
+                sb.append("  ").append(edge.thread()).append(" acquired ").append(edge.to().name())
+                  .append(" while holding ").append(edge.from().name()).append(" at").append(System.lineSeparator());
+                for (StackTraceElement frame : edge.stack()) {
+                    sb.append("      at ").append(frame).append(System.lineSeparator());
+                }
+            }
+            return sb.toString();
+        }
+    }
+
+    public LockOrderGraph(Consumer<Inversion> listener) {
+        this.listener = listener;
+    }
+
+    public TrackedLock newLock(String name) {
+        return new TrackedLock(name, this);
+    }
+
+    public TrackedLock newLock(String name, boolean fair) {
+        return new TrackedLock(name, fair, this);
+    }
+
+    public long inversionCount() {
+        return inversions.sum();
+    }
+
+    public int edgeCount() {
+        return edgeCount.get();
+    }
+
+    // New orderings that were not recorded because the graph was full
+    public long droppedEdgeCount() {
+        return droppedEdges.sum();
+    }
+
+    int nextId() {
+        return nextId.getAndIncrement();
+    }
+
+    // Called before a blocking acquisition of a lock the thread does not hold yet, so an
+    // inversion is reported even if this very acquisition is about to deadlock
+    void beforeAcquire(TrackedLock lock) {
+        List<TrackedLock> locks = held.get();
+        for (int i = 0; i < locks.size(); i++) {
+            TrackedLock outer = locks.get(i);
+            if (!lock.predecessors.containsKey(outer)) {
+                addEdge(outer, lock);
+            }
+        }
+    }
+
+    void acquired(TrackedLock lock) {
+        held.get().add(lock);
+    }
+
+    // Locks are not always released in reverse order, so search from the most recent one
+    void released(TrackedLock lock) {
+        List<TrackedLock> locks = held.get();
+        for (int i = locks.size() - 1; i >= 0; i--) {
+            if (locks.get(i) == lock) {
+                locks.remove(i);
+                return;
+            }
+        }
+    }
+
+    private void addEdge(TrackedLock from, TrackedLock to) {
+        if (edgeCount.get() >= MAX_EDGES) {
+            droppedEdges.increment();
+            return;
+        }
+        List<StackTraceElement> stack = WALKER.walk(frames -> frames
+                .filter(frame -> !frame.getClassName().startsWith(LockOrderGraph.class.getName()) &&
+                                 !frame.getClassName().equals(TrackedLock.class.getName()))
+                .limit(MAX_FRAMES)
+                .map(StackWalker.StackFrame::toStackTraceElement)
+                .toList());
+        Edge edge = new Edge(from, to, Thread.currentThread().getName(), stack);
+        List<Edge> cycle;
+        synchronized (this) {
+            if (to.predecessors.putIfAbsent(from, edge) != null) {
+                return; // Another thread recorded the same ordering first
+            }
+            edgeCount.incrementAndGet();
+            List<Edge> path = findPath(to.id(), from.id());
+            successors.computeIfAbsent(from.id(), id -> new ArrayList<>()).add(edge);
+            if (path == null) {
+                return;
+            }
+            cycle = new ArrayList<>(path);
+            cycle.add(edge);
+        }
+        inversions.increment();
+        listener.accept(new Inversion(cycle));
+    }
+
+    // Breadth-first search for the shortest chain of recorded edges from -> ... -> to
+    private List<Edge> findPath(int from, int to) {
+        Map<Integer, Edge> reachedBy = new HashMap<>();
+        Set<Integer> visited = new HashSet<>();
+        Deque<Integer> queue = new ArrayDeque<>();
+        queue.add(from);
+        visited.add(from);
+        while (!queue.isEmpty()) {
+            int current = queue.poll();
+            if (current == to) {
+                List<Edge> path = new ArrayList<>();
+                for (int node = to; node != from; ) {
+                    Edge edge = reachedBy.get(node);
+                    path.add(0, edge);
+                    node = edge.from().id();
+                }
+                return path;
+            }
+            for (Edge edge : successors.getOrDefault(current, List.of())) {
+                if (visited.add(edge.to().id())) {
+                    reachedBy.put(edge.to().id(), edge);
+                    queue.add(edge.to().id());
+                }
+            }
+        }
+        return null;
+    }
+}
@@ -73,5 +73,7 @@ public class StarvationExample {
         System.out.println("keeps getting CPU time and access to the shared resource,");
         System.out.println("while low-priority threads have to wait much longer to get access.");
         System.out.println("This can lead to poor performance for low-priority operations.");
+        System.out.println("Thread priorities are only hints (Linux ignores them for normal threads);");
+        System.out.println("PriorityExecutorExample prioritizes the work itself, with aging against starvation.");
     }
 } 
\ No newline at end of file
@@ -22,16 +22,18 @@ public class ThreadSafePatternExample {
         System.out.println("1. Monitor Pattern: Encapsulate data with synchronized access methods");
         System.out.println("2. Immutable Objects: Objects that cannot be modified after creation");
         System.out.println("3. Thread-Local Storage: Give each thread its own private copy of data");
+        System.out.println("The monitor serializes all traffic on an account; LedgerExample shows CAS-based");
+        System.out.println("balances in long cents that scale to millions of busy accounts.");
     }
     
     // Monitor Pattern Example
     private static void monitorPatternExample() throws InterruptedException {
-        BankAccount account = new BankAccount(1000);
+        BankAccount account = new BankAccount(1000_00);
         
         Thread depositThread = new Thread(() -> {
             for (int i = 0; i < 5; i++) {
-                account.deposit(100);
-                System.out.println("Deposited 100, new balance: " + account.getBalance());
+                account.deposit(100_00);
+                System.out.println("Deposited $100, new balance: " + formatCents(account.getBalance()));
                 try {
                     Thread.sleep(100);
                 } catch (InterruptedException e) {
@@ -43,8 +45,8 @@ public class ThreadSafePatternExample {
         Thread withdrawThread = new Thread(() -> {
             for (int i = 0; i < 5; i++) {
                 try {
-                    account.withdraw(50);
-                    System.out.println("Withdrew 50, new balance: " + account.getBalance());
+                    account.withdraw(50_00);
+                    System.out.println("Withdrew $50, new balance: " + formatCents(account.getBalance()));
                 } catch (InsufficientFundsException e) {
                     System.out.println("Could not withdraw: " + e.getMessage());
                 }
@@ -62,7 +64,11 @@ public class ThreadSafePatternExample {
         depositThread.join();
         withdrawThread.join();
         
-        System.out.println("Final balance: " + account.getBalance());
+        System.out.println("Final balance: " + formatCents(account.getBalance()));
+    }
+    
+    private static String formatCents(long cents) {
+        return String.format("$%d.%02d", cents / 100, Math.abs(cents % 100));
     }
     
     // Immutable Object Pattern Example
@@ -103,23 +109,25 @@ public class ThreadSafePatternExample {
     }
     
     // Monitor Pattern implementation - Thread-safe bank account
+    // Balances are whole cents: a double cannot represent most cent amounts exactly.
+    // For many accounts under load, see com.example.ledger.AccountLedger.
     static class BankAccount {
-        private double balance;
+        private long balance;
         
-        public BankAccount(double initialBalance) {
-            this.balance = initialBalance;
+        public BankAccount(long initialBalanceCents) {
+            this.balance = initialBalanceCents;
         }
         
         // Synchronized accessor methods form a monitor
-        public synchronized double getBalance() {
+        public synchronized long getBalance() {
             return balance;
         }
         
-        public synchronized void deposit(double amount) {
+        public synchronized void deposit(long amount) {
             if (amount < 0) {
                 throw new IllegalArgumentException("Cannot deposit negative amount");
             }
-            double newBalance = balance + amount;
+            long newBalance = balance + amount;
             // Simulate some processing time
             try {
                 Thread.sleep(50);
@@ -129,14 +137,14 @@ public class ThreadSafePatternExample {
             balance = newBalance;
         }
         
-        public synchronized void withdraw(double amount) throws InsufficientFundsException {
+        public synchronized void withdraw(long amount) throws InsufficientFundsException {
             if (amount < 0) {
                 throw new IllegalArgumentException("Cannot withdraw negative amount");
             }
             if (balance < amount) {
                 throw new InsufficientFundsException("Insufficient funds for withdrawal");
             }
-            double newBalance = balance - amount;
+            long newBalance = balance - amount;
             // Simulate some processing time
             try {
                 Thread.sleep(50);
@@ -0,0 +1,145 @@
+package com.example.challenges;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+// ReentrantLock that tells its LockOrderGraph which locks a thread already holds when it
+// acquires this one. It is still a ReentrantLock, so ThreadMXBean sees it as an ownable
+// synchronizer and DeadlockWatchdog can report deadlocks on it as well.
+public class TrackedLock extends ReentrantLock {
+    private static final long serialVersionUID = 1L;
+
+    // The TrackedLock each blocked thread is waiting for. ThreadMXBean only reports the
+    // ReentrantLock's internal synchronizer, so this is how DeadlockWatchdog names locks.
+    private static final ConcurrentHashMap<Thread, TrackedLock> WAITING = new ConcurrentHashMap<>();
+
+    private final String name;
+    // A deserialized copy is a plain lock with a name; it is not part of any graph
+    private final transient LockOrderGraph graph;
+    private final int id;
+    // Locks that some thread held while acquiring this one, maintained by the graph
+    final transient ConcurrentHashMap<TrackedLock, LockOrderGraph.Edge> predecessors = new ConcurrentHashMap<>();
+
+    public TrackedLock(String name, LockOrderGraph graph) {
+        this(name, false, graph);
+    }
+
+    public TrackedLock(String name, boolean fair, LockOrderGraph graph) {
+        super(fair);
+        this.name = name;
+        this.graph = graph;
+        this.id = graph.nextId();
+    }
+
+    public String name() {
+        return name;
+    }
+
+    int id() {
+        return id;
+    }
+
+    @Override
+    public void lock() {
+        if (isHeldByCurrentThread()) {
+            super.lock(); // Reentrant acquisitions add no ordering
+            return;
+        }
+        graph.beforeAcquire(this);
+        if (!tryLockInOrder()) {
+            Thread current = Thread.currentThread();
+            WAITING.put(current, this);
+            try {
+                super.lock();
+            } finally {
+                WAITING.remove(current);
+            }
+        }
+        graph.acquired(this);
+    }
+
+    @Override
+    public void lockInterruptibly() throws InterruptedException {
+        if (isHeldByCurrentThread()) {
+            super.lockInterruptibly();
+            return;
+        }
+        graph.beforeAcquire(this);
+        if (!tryLockInOrder()) {
+            Thread current = Thread.currentThread();
+            WAITING.put(current, this);
+            try {
+                super.lockInterruptibly();
+            } finally {
+                WAITING.remove(current);
+            }
+        }
+        graph.acquired(this);
+    }
+
+    @Override
+    public boolean tryLock() {
+        boolean outermost = !isHeldByCurrentThread();
+        if (!super.tryLock()) {
+            return false;
+        }
+        if (outermost) {
+            graph.acquired(this);
+        }
+        return true;
+    }
+
+    @Override
+    public boolean tryLock(long timeout, TimeUnit unit) throws InterruptedException {
+        boolean outermost = !isHeldByCurrentThread();
+        if (!(outermost && tryLockInOrder())) {
+            Thread current = Thread.currentThread();
+            WAITING.put(current, this);
+            try {
+                if (!super.tryLock(timeout, unit)) {
+                    return false;
+                }
+            } finally {
+                WAITING.remove(current);
+            }
+        }
+        if (outermost) {
+            graph.acquired(this);
+        }
+        return true;
+    }
+
+    @Override
+    public void unlock() {
+        boolean outermost = getHoldCount() == 1;
+        super.unlock();
+        if (outermost) {
+            graph.released(this);
+        }
+    }
+
+    // Takes the lock if that needs no waiting, so only blocking acquisitions pay for the
+    // WAITING entry. ReentrantLock.tryLock() barges even on a fair lock, so a fair lock is
+    // only taken when it is free and nobody is queued for it.
+    private boolean tryLockInOrder() {
+        if (!isFair()) {
+            return super.tryLock();
+        }
+        return !isLocked() && !hasQueuedThreads() && super.tryLock();
+    }
+
+    // Names of the TrackedLocks that threads are blocked on right now, by thread id
+    static Map<Long, String> waitingLockNames() {
+        Map<Long, String> names = new HashMap<>();
+        WAITING.forEach((thread, lock) -> names.put(thread.threadId(), lock.name));
+        return names;
+    }
+
+    @Override
+    public String toString() {
+        return name + " " + super.toString();
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.datasharing;
+
+import com.example.lockfree.PersistentHashMap;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+
+// Immutable object in the style of ImmutablePersonExample, for objects with many entries
+// that change often. ImmutablePersonExample copies its attributes into a new HashMap in
+// the constructor, so every changed attribute means a new object plus a copy of all n
+// entries. Here the entries live in a PersistentHashMap: with() copies only the path to
+// the changed entry, O(log n), and shares the rest with the previous version.
+//
+// All fields are final and the map cannot be changed, so instances are safe to share
+// between threads without synchronization; publish new versions with SnapshotPublisher.
+public final class ImmutableConfig {
+    private final String name;
+    private final long version;
+    private final PersistentHashMap<String, String> settings;
+
+    private ImmutableConfig(String name, long version, PersistentHashMap<String, String> settings) {
+        this.name = name;
+        this.version = version;
+        this.settings = settings;
+    }
+
+    public static ImmutableConfig of(String name, Map<String, String> settings) {
+        PersistentHashMap<String, String> copy = PersistentHashMap.empty();
+        for (Map.Entry<String, String> entry : settings.entrySet()) {
+            copy = copy.with(entry.getKey(), entry.getValue());
+        }
+        return new ImmutableConfig(Objects.requireNonNull(name, "name"), 0, copy);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    // Incremented by every change, so readers can tell versions apart cheaply
+    public long getVersion() {
+        return version;
+    }
+
+    public String get(String key) {
+        return settings.get(key);
+    }
+
+    public String getOrDefault(String key, String defaultValue) {
+        return settings.getOrDefault(key, defaultValue);
+    }
+
+    public int size() {
+        return settings.size();
+    }
+
+    public void forEach(BiConsumer<String, String> action) {
+        settings.forEach(action);
+    }
+
+    // Returns a new version with key set to value; this version is left unchanged
+    public ImmutableConfig with(String key, String value) {
+        Objects.requireNonNull(value, "value");
+        PersistentHashMap<String, String> changed = settings.with(key, value);
+        return changed == settings ? this : new ImmutableConfig(name, version + 1, changed);
+    }
+
+    public ImmutableConfig without(String key) {
+        PersistentHashMap<String, String> changed = settings.without(key);
+        return changed == settings ? this : new ImmutableConfig(name, version + 1, changed);
+    }
+
+    @Override
+    public String toString() {
+        return name + " v" + version + " " + settings;
+    }
+}
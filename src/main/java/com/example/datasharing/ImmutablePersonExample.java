@@ -93,5 +93,7 @@ public final class ImmutablePersonExample {
         System.out.println("2. Don't provide setters or methods that modify state");
         System.out.println("3. Make defensive copies of mutable objects in constructors and getters");
         System.out.println("4. Make the class final to prevent subclassing");
+        System.out.println("For large objects that change often, see ImmutableSnapshotExample, which avoids");
+        System.out.println("copying every entry on each change.");
     }
 } 
\ No newline at end of file
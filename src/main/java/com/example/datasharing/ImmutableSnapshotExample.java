@@ -0,0 +1,205 @@
+package com.example.datasharing;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+public class ImmutableSnapshotExample {
+    private static final int NUM_WRITERS = 2;
+    private static final int NUM_READERS = 2;
+    private static final long MEASURE_MILLIS = 500;
+
+    // The ImmutablePersonExample approach: a defensive HashMap copy in the constructor, so
+    // changing one entry copies all of them
+    static final class CopiedConfig {
+        private final Map<String, String> settings;
+
+        CopiedConfig(Map<String, String> settings) {
+            this.settings = Collections.unmodifiableMap(new HashMap<>(settings));
+        }
+
+        String get(String key) {
+            return settings.get(key);
+        }
+
+        CopiedConfig with(String key, String value) {
+            Map<String, String> changed = new HashMap<>(settings);
+            changed.put(key, value);
+            return new CopiedConfig(changed);
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        System.out.println("Immutable Snapshot Example");
+        System.out.println("==========================");
+        System.out.println("This example publishes versions of an immutable configuration through an");
+        System.out.println("AtomicReference, with each version sharing unchanged entries with the last.\n");
+
+        System.out.println("Part 1: Readers see whole versions, even for changes to several entries");
+        consistentVersions();
+
+        Thread.sleep(1000);
+
+        System.out.println("\nPart 2: " + NUM_WRITERS + " writers and " + NUM_READERS +
+                          " readers, structural sharing vs full copy-on-write");
+        System.out.println("Available processors: " + Runtime.getRuntime().availableProcessors());
+        for (int size : new int[] {100, 10_000}) {
+            System.out.println("\nConfiguration with " + size + " entries:");
+            System.out.printf("%-26s %12s %12s %14s %12s%n",
+                    "Variant", "Updates/s", "Reads/s", "Bytes/update", "CAS retries");
+            for (int round = 0; round < 2; round++) {
+                compare(size, round == 1); // First round is warm-up
+            }
+        }
+
+        System.out.println("\nExplanation:");
+        System.out.println("An immutable object is safe to share, but each change needs a new object, and");
+        System.out.println("copying every entry into it dominates once the object is large.");
+        System.out.println("- ImmutableConfig keeps its entries in a PersistentHashMap, so with() copies only");
+        System.out.println("  the path to the changed entry and shares everything else: O(log n), not O(n)");
+        System.out.println("- SnapshotPublisher CASes each new version into an AtomicReference; readers just");
+        System.out.println("  call get() and keep a version that never changes under them");
+        System.out.println("- Several entries changed in one update() appear together or not at all");
+        System.out.println("- A cheap change also means a short window for other writers to get in between,");
+        System.out.println("  so fewer changes are computed and then thrown away on a failed CAS");
+        System.out.println("- Reads cost about the same either way; for small objects a plain copy is fine");
+    }
+
+    // Part 1: A writer moves the database to a new host and port together
+    private static void consistentVersions() throws InterruptedException {
+        Map<String, String> initial = new HashMap<>();
+        initial.put("db.host", "db-0");
+        initial.put("db.port", "5400");
+        initial.put("pool.size", "10");
+        SnapshotPublisher<ImmutableConfig> config = new SnapshotPublisher<>(ImmutableConfig.of("app", initial));
+        ImmutableConfig first = config.get();
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        LongAdder reads = new LongAdder();
+        LongAdder mismatches = new LongAdder();
+        Thread[] readers = new Thread[NUM_READERS];
+        for (int r = 0; r < NUM_READERS; r++) {
+            readers[r] = new Thread(() -> {
+                while (running.get()) {
+                    ImmutableConfig current = config.get(); // One version for both lookups
+                    String host = current.get("db.host");
+                    String port = current.get("db.port");
+                    if (Integer.parseInt(port) - 5400 != Integer.parseInt(host.substring(3))) {
+                        mismatches.increment();
+                    }
+                    reads.increment();
+                }
+            });
+            readers[r].start();
+        }
+        for (int i = 1; i <= 10_000; i++) {
+            String host = "db-" + i;
+            String port = String.valueOf(5400 + i);
+            config.update(current -> current.with("db.host", host).with("db.port", port));
+        }
+        running.set(false);
+        for (Thread reader : readers) {
+            reader.join();
+        }
+
+        System.out.println("First version still reads: " + first);
+        System.out.println("Latest version:            " + config.get());
+        System.out.println("Reads: " + reads.sum() + ", host and port from different updates: " + mismatches.sum());
+    }
+
+    interface ConfigOperations<T> {
+        T with(T config, String key, String value);
+
+        String get(T config, String key);
+    }
+
+    private static void compare(int size, boolean print) throws InterruptedException {
+        Map<String, String> settings = new HashMap<>();
+        String[] keys = new String[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = "setting." + i;
+            settings.put(keys[i], "value-" + i);
+        }
+        run(print, "Copied HashMap (O(n))", keys, new CopiedConfig(settings), new ConfigOperations<>() {
+            public CopiedConfig with(CopiedConfig config, String key, String value) {
+                return config.with(key, value);
+            }
+
+            public String get(CopiedConfig config, String key) {
+                return config.get(key);
+            }
+        });
+        run(print, "ImmutableConfig (O(log n))", keys, ImmutableConfig.of("app", settings), new ConfigOperations<>() {
+            public ImmutableConfig with(ImmutableConfig config, String key, String value) {
+                return config.with(key, value);
+            }
+
+            public String get(ImmutableConfig config, String key) {
+                return config.get(key);
+            }
+        });
+    }
+
+    private static <T> void run(boolean print, String name, String[] keys, T initial, ConfigOperations<T> operations)
+            throws InterruptedException {
+        SnapshotPublisher<T> publisher = new SnapshotPublisher<>(initial);
+        LongAdder reads = new LongAdder();
+        LongAdder allocatedBytes = new LongAdder();
+        AtomicBoolean running = new AtomicBoolean(true);
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] threads = new Thread[NUM_WRITERS + NUM_READERS];
+        for (int t = 0; t < threads.length; t++) {
+            boolean writer = t < NUM_WRITERS;
+            String valuePrefix = "w" + t + "-";
+            threads[t] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                long bytesBefore = threadAllocatedBytes();
+                long count = 0;
+                while (running.get()) {
+                    String key = keys[random.nextInt(keys.length)];
+                    if (writer) {
+                        String value = valuePrefix + count;
+                        publisher.update(current -> operations.with(current, key, value));
+                    } else {
+                        operations.get(publisher.get(), key);
+                    }
+                    count++;
+                }
+                if (writer) {
+                    allocatedBytes.add(threadAllocatedBytes() - bytesBefore);
+                } else {
+                    reads.add(count);
+                }
+            });
+            threads[t].start();
+        }
+        start.countDown();
+        Thread.sleep(MEASURE_MILLIS);
+        running.set(false);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        long updates = publisher.updateCount();
+        if (print) {
+            System.out.printf("%-26s %,12d %,12d %,14d %,12d%n", name, updates * 1000 / MEASURE_MILLIS,
+                    reads.sum() * 1000 / MEASURE_MILLIS, updates == 0 ? 0 : allocatedBytes.sum() / updates,
+                    publisher.retryCount());
+        }
+    }
+
+    private static long threadAllocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+                .getCurrentThreadAllocatedBytes();
+    }
+}
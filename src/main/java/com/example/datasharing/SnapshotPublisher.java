@@ -0,0 +1,76 @@
+package com.example.datasharing;
+
+import com.example.challenges.Backoff;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.UnaryOperator;
+
+// Publishes successive versions of an immutable object, such as ImmutableConfig, to any
+// number of readers. Readers call get() and keep using the version they got for as long
+// as they like; it never changes under them. Writers derive a new version from the
+// current one and CAS it in, retrying with the latest version if another writer won.
+//
+// The change function may run several times under contention, so it must be free of
+// side effects. The cheaper it is, the less likely another writer gets in between,
+// which is why structural sharing (ImmutableConfig.with) matters here as much as the
+// copying cost itself. A Backoff spreads out writers that keep colliding.
+public class SnapshotPublisher<T> {
+    private final AtomicReference<T> current;
+    private final Backoff backoff;
+    private final LongAdder updates = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+
+    public SnapshotPublisher(T initial) {
+        this(initial, Backoff.none());
+    }
+
+    public SnapshotPublisher(T initial, Backoff backoff) {
+        this.current = new AtomicReference<>(Objects.requireNonNull(initial, "initial"));
+        this.backoff = backoff;
+    }
+
+    public T get() {
+        return current.get();
+    }
+
+    // Applies change to the latest version until the CAS succeeds and returns the
+    // published version. Returning the same instance publishes nothing.
+    public T update(UnaryOperator<T> change) {
+        int attempt = 0;
+        while (true) {
+            T before = current.get();
+            T after = Objects.requireNonNull(change.apply(before), "change returned null");
+            if (after == before) {
+                return before;
+            }
+            if (current.compareAndSet(before, after)) {
+                backoff.succeeded(attempt);
+                updates.increment();
+                return after;
+            }
+            retries.increment();
+            backoff.pause(attempt++);
+        }
+    }
+
+    // For callers that derived next from a version they read earlier and want to
+    // publish it only if nothing has changed since
+    public boolean compareAndSet(T expected, T next) {
+        if (current.compareAndSet(expected, Objects.requireNonNull(next, "next"))) {
+            updates.increment();
+            return true;
+        }
+        return false;
+    }
+
+    public long updateCount() {
+        return updates.sum();
+    }
+
+    // Number of times a change was computed and then lost the CAS to another writer
+    public long retryCount() {
+        return retries.sum();
+    }
+}
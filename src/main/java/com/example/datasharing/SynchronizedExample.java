@@ -77,6 +77,8 @@ public class SynchronizedExample {
         
         System.out.println("Unsynchronized counter: " + unsyncExample.getValue() + 
                           " (expected: 20000, but likely less due to race conditions)");
+        System.out.println("\nEvery synchronized increment hands the monitor to the next thread;");
+        System.out.println("FlatCombiningExample batches many threads' operations into one hand-off.");
     }
     
     // A class with non-synchronized methods for comparison
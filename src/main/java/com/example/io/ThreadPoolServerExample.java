@@ -10,10 +10,14 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
+import com.example.lockfree.ObjectPool;
+
 public class ThreadPoolServerExample {
     private static final int PORT = 8080;
     private static final int POOL_SIZE = 5;  // Fixed thread pool size
     private static final AtomicInteger connectionCount = new AtomicInteger(0);
+    // One echo buffer per busy worker, reused across connections
+    private static final ObjectPool<byte[]> bufferPool = new ObjectPool<>(() -> new byte[1024], POOL_SIZE);
     private static volatile boolean serverRunning = true;
     
     public static void main(String[] args) {
@@ -137,14 +141,18 @@ public class ThreadPoolServerExample {
             System.out.println("Thread " + Thread.currentThread().getName() + 
                               " started handling client " + clientId);
             
-            byte[] buffer = new byte[1024];
-            int bytesRead;
-            
-            // Process client data - this is a blocking operation
-            while ((bytesRead = input.read(buffer)) != -1) {
-                // Echo data back to client
-                output.write(buffer, 0, bytesRead);
-                output.flush();
+            byte[] buffer = bufferPool.acquire();
+            try {
+                int bytesRead;
+                
+                // Process client data - this is a blocking operation
+                while ((bytesRead = input.read(buffer)) != -1) {
+                    // Echo data back to client
+                    output.write(buffer, 0, bytesRead);
+                    output.flush();
+                }
+            } finally {
+                bufferPool.release(buffer);
             }
             
             System.out.println("Thread " + Thread.currentThread().getName() + 
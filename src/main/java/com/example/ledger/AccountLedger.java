@@ -0,0 +1,259 @@
+package com.example.ledger;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Balances of a fixed number of accounts, identified by index, in whole cents. A long
+// never rounds, unlike the double balance of ThreadSafePatternExample.BankAccount, and
+// one AtomicLongArray holds millions of accounts in 8 bytes each instead of one monitor
+// object per account.
+//
+// Deposits and withdrawals are a CAS on the account's slot: two threads using the same
+// hot account retry instead of parking, and a withdrawal that would take the balance
+// below the overdraft limit is rejected without ever taking a lock.
+//
+// Transfers touch several accounts and must be all-or-nothing, so they lock the stripes
+// of every account involved, always in ascending stripe order to rule out deadlock.
+// Transfers on disjoint stripes run in parallel. Debits are still applied with CAS,
+// because lock-free withdrawals may run concurrently; a debit that fails rolls back the
+// debits already applied. Credits are applied last, so other transfers never see money
+// that is later taken back. A credit must therefore not fail, and the only way it could
+// is overflow: balances are capped at MAX_BALANCE, half the long range. A transfer that
+// would take an account past the cap, or move more than the cap, is rejected before any
+// debit. A deposit racing with the transfer stops at the cap too, so the credit on top
+// of it stays below Long.MAX_VALUE. Withdrawals and overdraft limits are capped the same
+// way, so no debit can wrap around below -MAX_BALANCE either.
+//
+// Neighbouring account ids share a cache line, so ids of accounts that are hot at the
+// same time should be spread out, e.g. by assigning them from a hash.
+public class AccountLedger {
+    public static final long MAX_BALANCE = Long.MAX_VALUE / 2;
+
+    private final AtomicLongArray balances;
+    private final long overdraftLimit;
+    private final ReentrantLock[] stripes;
+    private final int stripeMask;
+    private final LongAdder rejectedWithdrawals = new LongAdder();
+    private final LongAdder rejectedTransfers = new LongAdder();
+
+    // One leg of a batch: move amountCents from one account to another
+    public record Transfer(int from, int to, long amountCents) {
+        public Transfer {
+            if (amountCents < 0) {
+                throw new IllegalArgumentException("Cannot transfer negative amount");
+            }
+        }
+    }
+
+    public AccountLedger(int accounts) {
+        this(accounts, 0, 1024);
+    }
+
+    // overdraftLimitCents is how far below zero a balance may go, 0 for no overdraft
+    public AccountLedger(int accounts, long overdraftLimitCents, int lockStripes) {
+        if (accounts <= 0 || lockStripes <= 0) {
+            throw new IllegalArgumentException("accounts and lockStripes must be positive");
+        }
+        if (overdraftLimitCents < 0 || overdraftLimitCents > MAX_BALANCE) {
+            throw new IllegalArgumentException("overdraftLimitCents must be between 0 and MAX_BALANCE");
+        }
+        this.balances = new AtomicLongArray(accounts);
+        this.overdraftLimit = overdraftLimitCents;
+        int count = 1;
+        while (count < lockStripes) {
+            count <<= 1;
+        }
+        this.stripes = new ReentrantLock[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.stripeMask = count - 1;
+    }
+
+    public int accountCount() {
+        return balances.length();
+    }
+
+    public long balance(int account) {
+        return balances.get(account);
+    }
+
+    // Throws ArithmeticException, leaving the balance unchanged, if it would exceed MAX_BALANCE
+    public void deposit(int account, long amountCents) {
+        if (amountCents < 0) {
+            throw new IllegalArgumentException("Cannot deposit negative amount");
+        }
+        long current = balances.get(account);
+        while (true) {
+            if (current > MAX_BALANCE - amountCents) {
+                throw new ArithmeticException("balance of account " + account + " would exceed MAX_BALANCE");
+            }
+            long witness = balances.compareAndExchange(account, current, current + amountCents);
+            if (witness == current) {
+                return;
+            }
+            current = witness;
+        }
+    }
+
+    // Returns false, leaving the balance unchanged, if the overdraft limit would be exceeded
+    // or the amount is above MAX_BALANCE
+    public boolean withdraw(int account, long amountCents) {
+        if (amountCents < 0) {
+            throw new IllegalArgumentException("Cannot withdraw negative amount");
+        }
+        if (amountCents > MAX_BALANCE || !debit(account, amountCents)) {
+            rejectedWithdrawals.increment();
+            return false;
+        }
+        return true;
+    }
+
+    public boolean transfer(int from, int to, long amountCents) {
+        return transferAll(new Transfer(from, to, amountCents));
+    }
+
+    // Applies every leg or none. Legs are netted per account first, so a chain such as
+    // A->B, B->C only needs B to cover its net change, not each leg on its own.
+    public boolean transferAll(Transfer... transfers) {
+        int[] accounts = new int[transfers.length * 2];
+        long[] deltas = new long[transfers.length * 2];
+        int count = 0;
+        for (Transfer transfer : transfers) {
+            // Check up front, so no leg fails halfway through for a bad account id
+            Objects.checkIndex(transfer.from(), balances.length());
+            Objects.checkIndex(transfer.to(), balances.length());
+            count = addDelta(accounts, deltas, count, transfer.from(), -transfer.amountCents());
+            count = addDelta(accounts, deltas, count, transfer.to(), transfer.amountCents());
+        }
+
+        int[] lockOrder = lockOrder(accounts, count);
+        for (int stripe : lockOrder) {
+            stripes[stripe].lock();
+        }
+        try {
+            if (!withinCap(accounts, deltas, count)) {
+                rejectedTransfers.increment();
+                return false;
+            }
+            int debited = 0;
+            for (; debited < count; debited++) {
+                if (deltas[debited] < 0 && !debit(accounts[debited], -deltas[debited])) {
+                    break;
+                }
+            }
+            if (debited < count) {
+                for (int i = 0; i < debited; i++) {
+                    if (deltas[i] < 0) {
+                        credit(accounts[i], -deltas[i]); // Roll back
+                    }
+                }
+                rejectedTransfers.increment();
+                return false;
+            }
+            for (int i = 0; i < count; i++) {
+                if (deltas[i] > 0) {
+                    credit(accounts[i], deltas[i]);
+                }
+            }
+            return true;
+        } finally {
+            for (int i = lockOrder.length - 1; i >= 0; i--) {
+                stripes[lockOrder[i]].unlock();
+            }
+        }
+    }
+
+    // Sum of all balances; exact only while no operation is in progress
+    public long totalBalance() {
+        long total = 0;
+        for (int i = 0; i < balances.length(); i++) {
+            total += balances.get(i);
+        }
+        return total;
+    }
+
+    public long rejectedWithdrawalCount() {
+        return rejectedWithdrawals.sum();
+    }
+
+    public long rejectedTransferCount() {
+        return rejectedTransfers.sum();
+    }
+
+    // amountCents is at most MAX_BALANCE and the balance at least -overdraftLimit, so
+    // neither the check nor the subtraction can overflow
+    private boolean debit(int account, long amountCents) {
+        long current = balances.get(account);
+        while (true) {
+            if (current < amountCents - overdraftLimit) {
+                return false;
+            }
+            long witness = balances.compareAndExchange(account, current, current - amountCents);
+            if (witness == current) {
+                return true;
+            }
+            current = witness;
+        }
+    }
+
+    // Only used by transfers after withinCap(), for credits and to roll back debits. The
+    // amount is at most MAX_BALANCE, and so is the balance unless nothing but the debit
+    // being rolled back has changed it, so the sum fits in a long.
+    private void credit(int account, long amountCents) {
+        balances.getAndAdd(account, amountCents);
+    }
+
+    // Called with the stripes locked, so no other transfer changes these balances; only
+    // deposits can still raise them, and never above MAX_BALANCE. A netted debit may be as
+    // low as Long.MIN_VALUE, so the range is checked explicitly rather than with Math.abs.
+    // The overdraft check here only rejects early; debit() repeats it under the CAS,
+    // because a concurrent withdrawal may still lower the balance.
+    private boolean withinCap(int[] accounts, long[] deltas, int count) {
+        for (int i = 0; i < count; i++) {
+            long delta = deltas[i];
+            if (delta > MAX_BALANCE || delta < -MAX_BALANCE) {
+                return false;
+            }
+            long current = balances.get(accounts[i]);
+            if (delta > 0 && current > MAX_BALANCE - delta) {
+                return false;
+            }
+            if (delta < 0 && current < -delta - overdraftLimit) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int addDelta(int[] accounts, long[] deltas, int count, int account, long delta) {
+        for (int i = 0; i < count; i++) {
+            if (accounts[i] == account) {
+                deltas[i] = Math.addExact(deltas[i], delta);
+                return count;
+            }
+        }
+        accounts[count] = account;
+        deltas[count] = delta;
+        return count + 1;
+    }
+
+    // Distinct stripes of the given accounts in ascending order
+    private int[] lockOrder(int[] accounts, int count) {
+        int[] order = new int[count];
+        for (int i = 0; i < count; i++) {
+            order[i] = accounts[i] & stripeMask;
+        }
+        Arrays.sort(order);
+        int distinct = 0;
+        for (int i = 0; i < count; i++) {
+            if (i == 0 || order[i] != order[i - 1]) {
+                order[distinct++] = order[i];
+            }
+        }
+        return Arrays.copyOf(order, distinct);
+    }
+}
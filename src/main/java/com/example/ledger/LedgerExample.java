@@ -0,0 +1,337 @@
+package com.example.ledger;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+
+public class LedgerExample {
+    private static final int NUM_ACCOUNTS = 2_000_000;
+    private static final int NUM_THREADS = 4;
+    private static final long MEASURE_MILLIS = 500;
+    private static final long INITIAL_BALANCE = 100_00;
+
+    // Common view of the two implementations under test
+    interface Accounts {
+        void deposit(int account, long amountCents);
+
+        boolean withdraw(int account, long amountCents);
+
+        boolean transfer(int from, int to, long amountCents);
+    }
+
+    // The ThreadSafePatternExample.BankAccount approach: one monitor object per account,
+    // transfers lock both accounts in id order
+    static class SynchronizedAccounts implements Accounts {
+        private final Account[] accounts;
+
+        static final class Account {
+            private long balance;
+
+            synchronized void deposit(long amountCents) {
+                balance += amountCents;
+            }
+
+            synchronized boolean withdraw(long amountCents) {
+                if (balance < amountCents) {
+                    return false;
+                }
+                balance -= amountCents;
+                return true;
+            }
+        }
+
+        SynchronizedAccounts(int count, long initialBalance) {
+            accounts = new Account[count];
+            for (int i = 0; i < count; i++) {
+                accounts[i] = new Account();
+                accounts[i].balance = initialBalance;
+            }
+        }
+
+        @Override
+        public void deposit(int account, long amountCents) {
+            accounts[account].deposit(amountCents);
+        }
+
+        @Override
+        public boolean withdraw(int account, long amountCents) {
+            return accounts[account].withdraw(amountCents);
+        }
+
+        @Override
+        public boolean transfer(int from, int to, long amountCents) {
+            if (from == to) {
+                return true;
+            }
+            Account first = accounts[Math.min(from, to)];
+            Account second = accounts[Math.max(from, to)];
+            synchronized (first) {
+                synchronized (second) {
+                    if (!accounts[from].withdraw(amountCents)) {
+                        return false;
+                    }
+                    accounts[to].deposit(amountCents);
+                    return true;
+                }
+            }
+        }
+    }
+
+    static class LedgerAccounts implements Accounts {
+        private final AccountLedger ledger;
+
+        LedgerAccounts(int count, long initialBalance) {
+            ledger = new AccountLedger(count);
+            for (int i = 0; i < count; i++) {
+                ledger.deposit(i, initialBalance);
+            }
+        }
+
+        @Override
+        public void deposit(int account, long amountCents) {
+            ledger.deposit(account, amountCents);
+        }
+
+        @Override
+        public boolean withdraw(int account, long amountCents) {
+            return ledger.withdraw(account, amountCents);
+        }
+
+        @Override
+        public boolean transfer(int from, int to, long amountCents) {
+            return ledger.transfer(from, to, amountCents);
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        System.out.println("Account Ledger Example");
+        System.out.println("======================");
+        System.out.println("This example replaces synchronized double-balance accounts with a long-cents");
+        System.out.println("ledger: CAS deposits and withdrawals, striped-lock all-or-nothing transfers.\n");
+
+        System.out.println("Part 1: Why balances are kept in long cents");
+        centsVersusDouble();
+
+        Thread.sleep(1000);
+
+        System.out.println("\nPart 2: Overdraft limits and all-or-nothing batch transfers");
+        overdraftAndBatches();
+
+        Thread.sleep(1000);
+
+        System.out.println("\nPart 3: Money is conserved under concurrent deposits, withdrawals and transfers");
+        conservationCheck();
+
+        Thread.sleep(1000);
+
+        System.out.println("\nPart 4: Throughput with " + String.format("%,d", NUM_ACCOUNTS) + " accounts");
+        throughput();
+
+        System.out.println("\nExplanation:");
+        System.out.println("A synchronized double balance rounds cents away and parks every thread that");
+        System.out.println("touches a busy account.");
+        System.out.println("- Balances are long cents, so sums are exact; overflow throws instead of wrapping");
+        System.out.println("- Deposits and withdrawals are one CAS; contended threads retry instead of parking");
+        System.out.println("- Overdraft checks happen inside the CAS loop, so no lock is needed to reject them");
+        System.out.println("- Transfers lock the stripes of their accounts in ascending order, so they cannot");
+        System.out.println("  deadlock and transfers on unrelated stripes do not wait for each other");
+        System.out.println("- A Zipfian hot set concentrates traffic on a few accounts, where parking hurts most");
+        System.out.println("- One long per account instead of an object with a monitor also saves memory");
+    }
+
+    // Part 1: Add 10 cents a million times as double dollars and as long cents
+    private static void centsVersusDouble() {
+        double dollars = 0;
+        long cents = 0;
+        for (int i = 0; i < 1_000_000; i++) {
+            dollars += 0.10;
+            cents += 10;
+        }
+        System.out.println("double balance after 1,000,000 deposits of $0.10: " + dollars);
+        System.out.println("long cents balance after the same deposits:       " + formatCents(cents));
+    }
+
+    // Part 2: Three accounts with a $50 overdraft limit
+    private static void overdraftAndBatches() {
+        AccountLedger ledger = new AccountLedger(3, 50_00, 16);
+        int alice = 0;
+        int bob = 1;
+        int carol = 2;
+        ledger.deposit(alice, 100_00);
+        ledger.deposit(bob, 20_00);
+
+        System.out.println("Withdraw $140 from Alice ($100 + $50 overdraft): " + ledger.withdraw(alice, 140_00) +
+                          ", balance " + formatCents(ledger.balance(alice)));
+        System.out.println("Withdraw $20 more from Alice: " + ledger.withdraw(alice, 20_00) +
+                          ", balance " + formatCents(ledger.balance(alice)));
+
+        boolean chain = ledger.transferAll(
+                new AccountLedger.Transfer(bob, carol, 60_00),
+                new AccountLedger.Transfer(carol, alice, 30_00));
+        System.out.println("Batch Bob->Carol $60, Carol->Alice $30: " + chain +
+                          " (Bob may go to -$40 within the limit)");
+        System.out.println("Balances: Alice " + formatCents(ledger.balance(alice)) +
+                          ", Bob " + formatCents(ledger.balance(bob)) +
+                          ", Carol " + formatCents(ledger.balance(carol)));
+
+        boolean tooMuch = ledger.transferAll(
+                new AccountLedger.Transfer(carol, bob, 10_00),
+                new AccountLedger.Transfer(alice, bob, 100_00));
+        System.out.println("Batch Carol->Bob $10, Alice->Bob $100: " + tooMuch +
+                          " (Alice would exceed the overdraft, so neither leg is applied)");
+        System.out.println("Balances: Alice " + formatCents(ledger.balance(alice)) +
+                          ", Bob " + formatCents(ledger.balance(bob)) +
+                          ", Carol " + formatCents(ledger.balance(carol)));
+
+        extremeAmounts();
+    }
+
+    // Amounts near the long range, which would wrap around if any check overflowed
+    private static void extremeAmounts() {
+        AccountLedger ledger = new AccountLedger(4, 1_00, 16);
+        ledger.withdraw(0, 1); // Account 0 at -1 cent, within the $1 overdraft
+        long total = ledger.totalBalance();
+
+        boolean hugeWithdraw = ledger.withdraw(1, Long.MAX_VALUE);
+        System.out.println("Withdraw Long.MAX_VALUE cents from an empty account: " + hugeWithdraw);
+
+        boolean netted = ledger.transferAll(
+                new AccountLedger.Transfer(0, 1, AccountLedger.MAX_BALANCE),
+                new AccountLedger.Transfer(0, 2, AccountLedger.MAX_BALANCE),
+                new AccountLedger.Transfer(0, 3, 2));
+        System.out.println("Batch of 2 x MAX_BALANCE + 2 cents from an account at -1 cent: " + netted +
+                          " (the legs net to Long.MIN_VALUE)");
+        System.out.println("Total before: " + total + " cents, after: " + ledger.totalBalance() +
+                          " cents, account 0: " + ledger.balance(0) + " cents");
+    }
+
+    // Part 3: Random operations on few accounts, then compare the total with the bookkeeping
+    private static void conservationCheck() throws InterruptedException {
+        int accounts = 1_000;
+        long overdraft = 10_00;
+        AccountLedger ledger = new AccountLedger(accounts, overdraft, 64);
+        for (int i = 0; i < accounts; i++) {
+            ledger.deposit(i, INITIAL_BALANCE);
+        }
+        long initialTotal = ledger.totalBalance();
+        LongAdder deposited = new LongAdder();
+        LongAdder withdrawn = new LongAdder();
+
+        Thread[] workers = new Thread[8];
+        for (int t = 0; t < workers.length; t++) {
+            workers[t] = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < 200_000; i++) {
+                    int account = random.nextInt(accounts);
+                    long amount = random.nextLong(1, 50_00);
+                    int op = random.nextInt(10);
+                    if (op < 3) {
+                        ledger.deposit(account, amount);
+                        deposited.add(amount);
+                    } else if (op < 6) {
+                        if (ledger.withdraw(account, amount)) {
+                            withdrawn.add(amount);
+                        }
+                    } else if (op < 9) {
+                        ledger.transfer(account, random.nextInt(accounts), amount);
+                    } else {
+                        ledger.transferAll(
+                                new AccountLedger.Transfer(account, random.nextInt(accounts), amount),
+                                new AccountLedger.Transfer(random.nextInt(accounts), account, amount / 2));
+                    }
+                }
+            });
+            workers[t].start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        long expected = initialTotal + deposited.sum() - withdrawn.sum();
+        long lowest = Long.MAX_VALUE;
+        for (int i = 0; i < accounts; i++) {
+            lowest = Math.min(lowest, ledger.balance(i));
+        }
+        System.out.println("Expected total: " + formatCents(expected) +
+                          ", ledger total: " + formatCents(ledger.totalBalance()));
+        System.out.println("Lowest balance: " + formatCents(lowest) + " (overdraft limit " + formatCents(-overdraft) + ")");
+        System.out.println("Rejected withdrawals: " + ledger.rejectedWithdrawalCount() +
+                          ", rejected transfers: " + ledger.rejectedTransferCount());
+    }
+
+    // Part 4: 40% deposits, 40% withdrawals, 20% transfers over uniform and Zipfian accounts
+    private static void throughput() throws InterruptedException {
+        System.out.println(NUM_THREADS + " threads, available processors: " +
+                          Runtime.getRuntime().availableProcessors());
+        ZipfianGenerator zipfian = new ZipfianGenerator(NUM_ACCOUNTS, 0.99);
+        IntSupplier uniform = () -> ThreadLocalRandom.current().nextInt(NUM_ACCOUNTS);
+        IntSupplier hotSet = zipfian::nextScrambled;
+
+        long start = System.nanoTime();
+        Accounts synchronizedAccounts = new SynchronizedAccounts(NUM_ACCOUNTS, INITIAL_BALANCE);
+        long synchronizedSetupMillis = (System.nanoTime() - start) / 1_000_000;
+        start = System.nanoTime();
+        Accounts ledgerAccounts = new LedgerAccounts(NUM_ACCOUNTS, INITIAL_BALANCE);
+        long ledgerSetupMillis = (System.nanoTime() - start) / 1_000_000;
+        System.out.println("Setup: synchronized objects " + synchronizedSetupMillis + "ms, ledger " +
+                          ledgerSetupMillis + "ms\n");
+
+        run(synchronizedAccounts, hotSet); // Warm up
+        run(ledgerAccounts, hotSet);
+
+        System.out.printf("%-22s %22s %22s%n", "Account selection", "synchronized accounts", "AccountLedger");
+        System.out.printf("%-22s %,17d op/s %,17d op/s%n", "Uniform",
+                run(synchronizedAccounts, uniform), run(ledgerAccounts, uniform));
+        System.out.printf("%-22s %,17d op/s %,17d op/s%n", "Zipfian (theta 0.99)",
+                run(synchronizedAccounts, hotSet), run(ledgerAccounts, hotSet));
+    }
+
+    private static long run(Accounts accounts, IntSupplier accountChooser) throws InterruptedException {
+        LongAdder ops = new LongAdder();
+        AtomicBoolean running = new AtomicBoolean(true);
+        CountDownLatch startSignal = new CountDownLatch(1);
+        Thread[] workers = new Thread[NUM_THREADS];
+        for (int t = 0; t < NUM_THREADS; t++) {
+            workers[t] = new Thread(() -> {
+                try {
+                    startSignal.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                long count = 0;
+                while (running.get()) {
+                    int account = accountChooser.getAsInt();
+                    long amount = random.nextLong(1, 20_00);
+                    int op = random.nextInt(10);
+                    if (op < 4) {
+                        accounts.deposit(account, amount);
+                    } else if (op < 8) {
+                        accounts.withdraw(account, amount);
+                    } else {
+                        accounts.transfer(account, accountChooser.getAsInt(), amount);
+                    }
+                    count++;
+                }
+                ops.add(count);
+            });
+            workers[t].start();
+        }
+        startSignal.countDown();
+        Thread.sleep(MEASURE_MILLIS);
+        running.set(false);
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        return ops.sum() * 1000 / MEASURE_MILLIS;
+    }
+
+    private static String formatCents(long cents) {
+        String sign = cents < 0 ? "-" : "";
+        long abs = Math.abs(cents);
+        return String.format("%s$%,d.%02d", sign, abs / 100, abs % 100);
+    }
+}
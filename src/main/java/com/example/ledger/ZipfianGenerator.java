@@ -0,0 +1,59 @@
+package com.example.ledger;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+// Zipf-distributed ranks in [0, items), as in the YCSB benchmark (Gray et al., "Quickly
+// Generating Billion-Record Synthetic Databases"): rank 0 is the most popular, and rank k
+// is drawn with probability proportional to 1 / (k + 1)^theta. With theta = 0.99 a few
+// thousand of a million accounts receive most of the traffic, like real payment flows.
+//
+// nextScrambled() hashes the rank, so the hot accounts are spread over the id space
+// instead of sitting next to each other in memory. Setup is O(items); drawing is O(1)
+// and thread-safe, using ThreadLocalRandom.
+public class ZipfianGenerator {
+    private final int items;
+    private final double theta;
+    private final double alpha;
+    private final double zetaN;
+    private final double eta;
+
+    public ZipfianGenerator(int items, double theta) {
+        if (items <= 0 || theta <= 0 || theta >= 1) {
+            throw new IllegalArgumentException("items must be positive and theta in (0, 1)");
+        }
+        this.items = items;
+        this.theta = theta;
+        this.alpha = 1.0 / (1.0 - theta);
+        this.zetaN = zeta(items, theta);
+        double zeta2 = zeta(2, theta);
+        this.eta = (1 - Math.pow(2.0 / items, 1 - theta)) / (1 - zeta2 / zetaN);
+    }
+
+    public int next() {
+        double u = ThreadLocalRandom.current().nextDouble();
+        double uz = u * zetaN;
+        if (uz < 1.0) {
+            return 0;
+        }
+        if (uz < 1.0 + Math.pow(0.5, theta)) {
+            return 1;
+        }
+        int rank = (int) (items * Math.pow(eta * u - eta + 1, alpha));
+        return Math.min(rank, items - 1);
+    }
+
+    // Same distribution, but the popular ranks are mapped to scattered ids
+    public int nextScrambled() {
+        long h = next() * 0x9E3779B97F4A7C15L;
+        h ^= h >>> 29;
+        return (int) Math.floorMod(h, (long) items);
+    }
+
+    private static double zeta(int n, double theta) {
+        double sum = 0;
+        for (int i = 1; i <= n; i++) {
+            sum += 1.0 / Math.pow(i, theta);
+        }
+        return sum;
+    }
+}
@@ -231,6 +231,8 @@ public class ABAProblemExample {
         System.out.println("   - Use a pair of values (reference and counter) in a single atomic operation");
         System.out.println("   - Some architectures support atomic operations on wider values");
         System.out.println("   - Java's internal implementation uses this on some platforms");
+        System.out.println("   - For array-backed node pools, an index and a version fit into one AtomicLong");
+        System.out.println("   - (See TaggedIndexStack and TaggedPointerExample)");
         
         // 4. Hazard pointers
         System.out.println("\n4. Hazard pointers:");
@@ -238,6 +240,8 @@ public class ABAProblemExample {
         System.out.println("   - Other threads check this registry before reclaiming memory");
         System.out.println("   - Prevents ABA by ensuring references in use aren't recycled");
         System.out.println("   - More complex implementation but useful for memory management");
+        System.out.println("   - Epoch-based reclamation is a cheaper variant for node-recycling structures");
+        System.out.println("   - (See HazardPointers, EpochReclaimer and MemoryReclamationExample)");
         
         // 5. Garbage collection
         System.out.println("\n5. Garbage collection:");
@@ -1,5 +1,8 @@
 package com.example.lockfree;
 
+import com.example.metrics.Counter;
+import com.example.metrics.MetricsRegistry;
+
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
@@ -47,6 +50,7 @@ public class AtomicVariablesExample {
         System.out.println("- Support atomic read-modify-write operations (increment, update, etc.)");
         System.out.println("- Guarantee visibility of changes across threads (memory ordering)");
         System.out.println("- Common classes: AtomicInteger, AtomicLong, AtomicBoolean, AtomicReference, etc.");
+        System.out.println("- Adjacent AtomicIntegerArray slots share a cache line; see FalseSharingExample");
     }
     
     // Part 1: Compare regular counter with atomic counter
@@ -59,6 +63,7 @@ public class AtomicVariablesExample {
         // Reset counters
         unsafeCounter = 0;
         atomicCounter.set(0);
+        Counter stripedCounter = new MetricsRegistry().counter("increments");
         
         for (int i = 0; i < numThreads; i++) {
             executor.submit(() -> {
@@ -68,6 +73,9 @@ public class AtomicVariablesExample {
                     
                     // Atomic increment - thread-safe
                     atomicCounter.incrementAndGet();
+                    
+                    // Striped increment - thread-safe, and threads do not contend on one value
+                    stripedCounter.increment();
                 }
             });
         }
@@ -82,6 +90,8 @@ public class AtomicVariablesExample {
                           " (likely less than expected due to race conditions)");
         System.out.println("Atomic counter: " + atomicCounter.get() + 
                           " (correct because operations are atomic)");
+        System.out.println("Striped counter: " + stripedCounter.get() + 
+                          " (correct, and scales better under contention; see MetricsExample)");
     }
     
     // Part 2: Demonstrate various atomic operations
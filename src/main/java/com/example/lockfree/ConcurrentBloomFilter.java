@@ -0,0 +1,115 @@
+package com.example.lockfree;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Lock-free Bloom filter over long keys. The bit set is an AtomicLongArray and a bit is
+// set by CASing its 64-bit word; since bits are only ever set, a failed CAS just retries
+// with the fresh word and can never undo another thread's bit. Readers use plain
+// volatile reads, so mightContain() never blocks or retries.
+// The k bit positions come from one 64-bit hash split into two halves (Kirsch and
+// Mitzenmacher double hashing), so inserting costs one hash and k word updates.
+// A Bloom filter has no false negatives; false positives occur at roughly the
+// configured rate once expectedInsertions keys have been added, and more often beyond.
+public class ConcurrentBloomFilter {
+    private final AtomicLongArray words;
+    private final long numBits;
+    private final int numHashes;
+
+    public ConcurrentBloomFilter(long expectedInsertions, double falsePositiveRate) {
+        if (expectedInsertions <= 0) {
+            throw new IllegalArgumentException("expectedInsertions must be positive");
+        }
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("falsePositiveRate must be between 0 and 1");
+        }
+        // m = -n ln p / (ln 2)^2 and k = m/n ln 2 minimize the false positive rate
+        long bits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        long numWords = (bits + 63) >>> 6;
+        if (numWords > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Filter would need more than 2^31 words");
+        }
+        this.words = new AtomicLongArray((int) numWords);
+        this.numBits = numWords << 6;
+        this.numHashes = Math.max(1, (int) Math.round((double) numBits / expectedInsertions * Math.log(2)));
+    }
+
+    // Adds the key; returns true if at least one bit changed, i.e. the key was definitely new
+    public boolean put(long key) {
+        long hash = mix(key);
+        long h1 = hash;
+        long h2 = hash >>> 32 | 1L;
+        boolean changed = false;
+        for (int i = 0; i < numHashes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, numBits);
+            changed |= setBit(bit);
+        }
+        return changed;
+    }
+
+    // false means the key was never added; true means it probably was
+    public boolean mightContain(long key) {
+        long hash = mix(key);
+        long h1 = hash;
+        long h2 = hash >>> 32 | 1L;
+        for (int i = 0; i < numHashes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, numBits);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long bitSize() {
+        return numBits;
+    }
+
+    public int hashCount() {
+        return numHashes;
+    }
+
+    // Fraction of bits set; a filter well above 0.5 is over capacity
+    public double fillRatio() {
+        long set = 0;
+        for (int i = 0; i < words.length(); i++) {
+            set += Long.bitCount(words.get(i));
+        }
+        return (double) set / numBits;
+    }
+
+    // False positive rate implied by the current fill ratio
+    public double expectedFalsePositiveRate() {
+        return Math.pow(fillRatio(), numHashes);
+    }
+
+    // Estimated number of distinct keys added, from the number of set bits (Swamidass and Baldi)
+    public long approximateCount() {
+        double fill = fillRatio();
+        if (fill >= 1.0) {
+            return Long.MAX_VALUE;
+        }
+        return Math.round(-(double) numBits / numHashes * Math.log(1 - fill));
+    }
+
+    private boolean setBit(long bit) {
+        int index = (int) (bit >>> 6);
+        long mask = 1L << bit;
+        long word = words.get(index);
+        while ((word & mask) == 0) {
+            // Re-read on failure: the word only ever gains bits
+            long witness = words.compareAndExchange(index, word, word | mask);
+            if (witness == word) {
+                return true;
+            }
+            word = witness;
+        }
+        return false;
+    }
+
+    static long mix(long key) {
+        // Stafford variant 13 of the MurmurHash3 finalizer
+        key = (key ^ (key >>> 30)) * 0xBF58476D1CE4E5B9L;
+        key = (key ^ (key >>> 27)) * 0x94D049BB133111EBL;
+        return key ^ (key >>> 31);
+    }
+}
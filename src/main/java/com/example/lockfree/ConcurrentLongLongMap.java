@@ -0,0 +1,246 @@
+package com.example.lockfree;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Lock-free open-addressing map from long keys to long counters. Keys and values live in
+// two AtomicLongArrays (linear probing), so there are no entry objects and no boxing.
+// A key slot is claimed with a CAS from EMPTY_KEY and is never cleared; values are only
+// changed with additive CAS updates, and an absent key reads as 0.
+//
+// Resizing is cooperative: the thread that crosses the load threshold allocates the next
+// table, and every thread that runs into it helps copying chunks of slots. A migrated
+// slot has its value CASed to MOVED, which sends late updates on to the next table.
+// Because updates are additive they can land in the next table before or after the
+// copied value without losing anything.
+public class ConcurrentLongLongMap {
+    private static final long EMPTY_KEY = 0L;
+    private static final long MOVED = Long.MIN_VALUE;
+    private static final int MIGRATION_CHUNK = 1024;
+    private static final int MIN_CAPACITY = 16;
+
+    private final AtomicReference<Table> table;
+
+    // Key 0 marks empty slots, so it is kept outside the table
+    private final AtomicLong zeroKeyValue = new AtomicLong();
+    private final AtomicBoolean zeroKeyPresent = new AtomicBoolean();
+
+    @FunctionalInterface
+    public interface LongLongConsumer {
+        void accept(long key, long value);
+    }
+
+    public ConcurrentLongLongMap() {
+        this(0);
+    }
+
+    public ConcurrentLongLongMap(int expectedSize) {
+        int capacity = MIN_CAPACITY;
+        while (capacity * 3L / 4 < expectedSize) {
+            capacity <<= 1;
+        }
+        table = new AtomicReference<>(new Table(capacity));
+    }
+
+    public long get(long key) {
+        if (key == EMPTY_KEY) {
+            return zeroKeyValue.get();
+        }
+        Table t = table.get();
+        retry:
+        while (true) {
+            int mask = t.mask;
+            int i = hash(key) & mask;
+            for (int probes = 0; probes <= mask; probes++, i = (i + 1) & mask) {
+                long k = t.keys.get(i);
+                if (k == key) {
+                    long value = t.values.get(i);
+                    if (value == MOVED) {
+                        t = awaitMigration(t);
+                        continue retry;
+                    }
+                    return value;
+                }
+                if (k == EMPTY_KEY) {
+                    // New keys go straight to the next table while a migration is running
+                    if (t.next.get() != null) {
+                        t = awaitMigration(t);
+                        continue retry;
+                    }
+                    return 0L;
+                }
+            }
+            if (t.next.get() == null) {
+                return 0L;
+            }
+            t = awaitMigration(t);
+        }
+    }
+
+    public long incrementAndGet(long key) {
+        return addAndGet(key, 1L);
+    }
+
+    // Atomically adds delta to the counter of key, inserting the key if needed
+    public long addAndGet(long key, long delta) {
+        if (key == EMPTY_KEY) {
+            if (!zeroKeyPresent.get()) {
+                zeroKeyPresent.set(true);
+            }
+            return zeroKeyValue.addAndGet(delta);
+        }
+        return add(table.get(), key, delta);
+    }
+
+    // Number of distinct keys; waits for a running migration to finish
+    public int size() {
+        Table t = currentTable();
+        return t.claimed.get() + (zeroKeyPresent.get() ? 1 : 0);
+    }
+
+    // Number of slots in the current table, useful for estimating the footprint
+    public int capacity() {
+        return currentTable().mask + 1;
+    }
+
+    // Weakly consistent iteration over the current table
+    public void forEach(LongLongConsumer action) {
+        if (zeroKeyPresent.get()) {
+            action.accept(EMPTY_KEY, zeroKeyValue.get());
+        }
+        Table t = currentTable();
+        for (int i = 0; i <= t.mask; i++) {
+            long k = t.keys.get(i);
+            long value = t.values.get(i);
+            if (k != EMPTY_KEY && value != MOVED) {
+                action.accept(k, value);
+            }
+        }
+    }
+
+    private long add(Table t, long key, long delta) {
+        retry:
+        while (true) {
+            int mask = t.mask;
+            int i = hash(key) & mask;
+            for (int probes = 0; probes <= mask; probes++, i = (i + 1) & mask) {
+                long k = t.keys.get(i);
+                if (k == EMPTY_KEY) {
+                    if (t.next.get() != null) {
+                        t = helpMigrate(t);
+                        continue retry;
+                    }
+                    if (t.keys.compareAndSet(i, EMPTY_KEY, key)) {
+                        if (t.claimed.incrementAndGet() > t.threshold) {
+                            startResize(t);
+                        }
+                        k = key;
+                    } else {
+                        k = t.keys.get(i);
+                    }
+                }
+                if (k == key) {
+                    while (true) {
+                        long value = t.values.get(i);
+                        if (value == MOVED) {
+                            t = helpMigrate(t);
+                            continue retry;
+                        }
+                        long updated = value + delta;
+                        if (updated == MOVED) {
+                            throw new ArithmeticException("counter overflow for key " + key);
+                        }
+                        if (t.values.compareAndSet(i, value, updated)) {
+                            return updated;
+                        }
+                    }
+                }
+            }
+            // Every slot was probed: the table is full, so move on to a bigger one
+            startResize(t);
+            t = helpMigrate(t);
+        }
+    }
+
+    private void startResize(Table t) {
+        if (t.next.get() == null && t.resizing.compareAndSet(false, true)) {
+            t.next.set(new Table((t.mask + 1) << 1));
+        }
+    }
+
+    // Copies chunks of t into its successor until no unclaimed chunk is left
+    private Table helpMigrate(Table t) {
+        Table next;
+        while ((next = t.next.get()) == null) {
+            // Another thread won startResize and is still allocating the table
+            Thread.yield();
+        }
+        int capacity = t.mask + 1;
+        int start;
+        // Checking first keeps late helpers from pushing transferIndex towards overflow
+        while (t.transferIndex.get() < capacity
+                && (start = t.transferIndex.getAndAdd(MIGRATION_CHUNK)) < capacity) {
+            int end = Math.min(start + MIGRATION_CHUNK, capacity);
+            for (int i = start; i < end; i++) {
+                long value;
+                do {
+                    value = t.values.get(i);
+                } while (!t.values.compareAndSet(i, value, MOVED));
+                long k = t.keys.get(i);
+                if (k != EMPTY_KEY) {
+                    add(next, k, value);
+                }
+            }
+            if (t.migratedSlots.addAndGet(end - start) == capacity) {
+                table.compareAndSet(t, next);
+            }
+        }
+        return next;
+    }
+
+    // Used by readers, which need every old value to have arrived in the next table
+    private Table awaitMigration(Table t) {
+        Table next = helpMigrate(t);
+        while (t.migratedSlots.get() < t.mask + 1) {
+            Thread.yield();
+        }
+        return next;
+    }
+
+    private Table currentTable() {
+        Table t = table.get();
+        while (t.next.get() != null) {
+            t = awaitMigration(t);
+        }
+        return t;
+    }
+
+    private static int hash(long key) {
+        // Stafford variant 13 of the MurmurHash3 finalizer
+        key = (key ^ (key >>> 30)) * 0xBF58476D1CE4E5B9L;
+        key = (key ^ (key >>> 27)) * 0x94D049BB133111EBL;
+        return (int) (key ^ (key >>> 31));
+    }
+
+    private static final class Table {
+        final AtomicLongArray keys;
+        final AtomicLongArray values;
+        final int mask;
+        final int threshold;
+        final AtomicInteger claimed = new AtomicInteger();
+        final AtomicBoolean resizing = new AtomicBoolean();
+        final AtomicReference<Table> next = new AtomicReference<>();
+        final AtomicInteger transferIndex = new AtomicInteger();
+        final AtomicInteger migratedSlots = new AtomicInteger();
+
+        Table(int capacity) {
+            keys = new AtomicLongArray(capacity);
+            values = new AtomicLongArray(capacity);
+            mask = capacity - 1;
+            threshold = capacity / 4 * 3;
+        }
+    }
+}
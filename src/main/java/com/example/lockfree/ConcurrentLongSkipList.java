@@ -0,0 +1,257 @@
+package com.example.lockfree;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.atomic.LongAdder;
+
+// Lock-free skip list keyed by primitive longs, meant for time-series indexes.
+// Nodes are linked with a CAS on each level, bottom level first, so a node is part of the
+// list as soon as level 0 is linked. Nodes are never unlinked: remove() only clears the
+// value, and a later put() of the same key revives the node. Because every node stays
+// reachable, any node with a smaller key is a valid starting point for a search, which
+// lets putAllSorted() continue from the previous insert position instead of the head.
+public class ConcurrentLongSkipList<V> {
+    private static final int MAX_LEVEL = 32;
+
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<Node, Object> VALUE =
+            AtomicReferenceFieldUpdater.newUpdater(Node.class, Object.class, "value");
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<Node, Node> NEXT =
+            AtomicReferenceFieldUpdater.newUpdater(Node.class, Node.class, "next");
+
+    private final Node<V> head = new Node<>(Long.MIN_VALUE, null, MAX_LEVEL);
+    private final AtomicInteger topLevel = new AtomicInteger(1);
+    private final LongAdder size = new LongAdder();
+
+    public V get(long key) {
+        Node<V> node = findNode(key);
+        return node != null ? node.value : null;
+    }
+
+    public boolean containsKey(long key) {
+        return get(key) != null;
+    }
+
+    // Inserts or replaces the value of key; returns the previous value or null
+    public V put(long key, V value) {
+        Node<V>[] preds = newNodeArray();
+        Node<V>[] succs = newNodeArray();
+        return insert(key, value, preds, succs, false);
+    }
+
+    // Logically removes key; the node stays linked and is reused by a later put
+    @SuppressWarnings("unchecked")
+    public V remove(long key) {
+        Node<V> node = findNode(key);
+        if (node == null) {
+            return null;
+        }
+        V previous = (V) VALUE.getAndSet(node, null);
+        if (previous != null) {
+            size.decrement();
+        }
+        return previous;
+    }
+
+    // Inserts keys[from..to) which must be in ascending order. Each insert starts from the
+    // predecessors of the previous key, so a batch costs close to one search plus links.
+    public void putAllSorted(long[] keys, V[] values, int from, int to) {
+        Node<V>[] preds = newNodeArray();
+        Node<V>[] succs = newNodeArray();
+        for (int i = from; i < to; i++) {
+            if (i > from && keys[i] < keys[i - 1]) {
+                throw new IllegalArgumentException("keys must be sorted: " + keys[i - 1] + " > " + keys[i]);
+            }
+            insert(keys[i], values[i], preds, succs, i > from);
+        }
+    }
+
+    public long size() {
+        return size.sum();
+    }
+
+    // Cursors are reusable: seek() again instead of creating a new one per query
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    public final class Cursor {
+        private Node<V> next;
+        private long toExclusive;
+        private long key;
+        private V value;
+
+        // Positions the cursor before the first key >= fromInclusive
+        public Cursor seek(long fromInclusive, long toExclusive) {
+            this.toExclusive = toExclusive;
+            this.next = findPredecessor(fromInclusive).next;
+            this.value = null;
+            return this;
+        }
+
+        // Advances to the next live entry in range; returns false when the range is exhausted
+        public boolean next() {
+            Node<V> node = next;
+            while (node != null && node.key < toExclusive) {
+                V v = node.value;
+                Node<V> following = node.next;
+                if (v != null) {
+                    key = node.key;
+                    value = v;
+                    next = following;
+                    return true;
+                }
+                node = following;
+            }
+            next = null;
+            value = null;
+            return false;
+        }
+
+        public long key() {
+            return key;
+        }
+
+        public V value() {
+            return value;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private V insert(long key, V value, Node<V>[] preds, Node<V>[] succs, boolean useHint) {
+        if (value == null) {
+            throw new NullPointerException("value");
+        }
+        int level = randomLevel();
+        Node<V> node = null;
+        while (true) {
+            Node<V> found = find(key, preds, succs, level, useHint);
+            useHint = true;
+            if (found != null) {
+                V previous = (V) VALUE.getAndSet(found, value);
+                if (previous == null) {
+                    size.increment();
+                }
+                return previous;
+            }
+
+            if (node == null) {
+                node = new Node<>(key, value, level);
+            }
+            for (int i = 0; i < level; i++) {
+                node.setNext(i, succs[i]);
+            }
+            // Linking level 0 is the linearization point of the insert
+            if (!preds[0].casNext(0, succs[0], node)) {
+                continue;
+            }
+            size.increment();
+
+            for (int i = 1; i < level; i++) {
+                while (!preds[i].casNext(i, succs[i], node)) {
+                    // Someone linked a node between preds[i] and succs[i]; search again
+                    find(key, preds, succs, level, true);
+                    node.setNext(i, succs[i]);
+                }
+            }
+            raiseTopLevel(level);
+            return null;
+        }
+    }
+
+    // Fills preds/succs for the levels in use, and at least minLevels of them, and returns
+    // the node holding key, if any. A node is linked before topLevel is raised to its
+    // height, so the levels up to minLevels are searched as well as those in use.
+    // With useHint, preds from the previous call are reused when they precede key.
+    private Node<V> find(long key, Node<V>[] preds, Node<V>[] succs, int minLevels, boolean useHint) {
+        Node<V> pred = head;
+        for (int i = Math.max(minLevels, topLevel.get()) - 1; i >= 0; i--) {
+            if (useHint && preds[i] != null && preds[i] != head && preds[i].key < key
+                    && (pred == head || preds[i].key > pred.key)) {
+                pred = preds[i];
+            }
+            Node<V> curr = pred.next(i);
+            while (curr != null && curr.key < key) {
+                pred = curr;
+                curr = pred.next(i);
+            }
+            preds[i] = pred;
+            succs[i] = curr;
+        }
+        Node<V> candidate = succs[0];
+        return candidate != null && candidate.key == key ? candidate : null;
+    }
+
+    private Node<V> findPredecessor(long key) {
+        Node<V> pred = head;
+        for (int i = topLevel.get() - 1; i >= 0; i--) {
+            Node<V> curr = pred.next(i);
+            while (curr != null && curr.key < key) {
+                pred = curr;
+                curr = pred.next(i);
+            }
+        }
+        return pred;
+    }
+
+    private Node<V> findNode(long key) {
+        Node<V> candidate = findPredecessor(key).next;
+        return candidate != null && candidate.key == key ? candidate : null;
+    }
+
+    private void raiseTopLevel(int level) {
+        int current;
+        while (level > (current = topLevel.get())) {
+            if (topLevel.compareAndSet(current, level)) {
+                return;
+            }
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <V> Node<V>[] newNodeArray() {
+        return new Node[MAX_LEVEL];
+    }
+
+    private static int randomLevel() {
+        // Geometric distribution with p = 1/2, capped at MAX_LEVEL
+        int bits = ThreadLocalRandom.current().nextInt() | (1 << (MAX_LEVEL - 1));
+        return Integer.numberOfTrailingZeros(bits) + 1;
+    }
+
+    // Level 0 is a plain field so that range scans follow one pointer per node;
+    // only nodes taller than one level carry an array for the index levels
+    private static final class Node<V> {
+        final long key;
+        volatile V value;
+        volatile Node<V> next;
+        final AtomicReferenceArray<Node<V>> upper;
+
+        Node(long key, V value, int level) {
+            this.key = key;
+            this.value = value;
+            this.upper = level > 1 ? new AtomicReferenceArray<>(level - 1) : null;
+        }
+
+        Node<V> next(int level) {
+            return level == 0 ? next : upper.get(level - 1);
+        }
+
+        void setNext(int level, Node<V> node) {
+            if (level == 0) {
+                next = node;
+            } else {
+                upper.set(level - 1, node);
+            }
+        }
+
+        boolean casNext(int level, Node<V> expected, Node<V> node) {
+            return level == 0
+                    ? NEXT.compareAndSet(this, expected, node)
+                    : upper.compareAndSet(level - 1, expected, node);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.lockfree;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// Lock-free count-min sketch (Cormode and Muthukrishnan) for approximate per-key counts
+// in a fixed amount of memory. Each of the depth rows maps a key to one of width
+// counters; estimate() returns the minimum over the rows, which never underestimates and
+// overestimates by at most epsilon * totalCount with probability confidence.
+//
+// Heavy hitters send every thread to the same counters, which would turn each row into
+// a contended AtomicLong. The counters are therefore striped like LongAdder cells: each
+// stripe is a separate AtomicLongArray holding all rows, a thread adds to the stripe
+// selected by its id, and estimate() sums the stripes before taking the row minimum.
+public class CountMinSketch {
+    private final AtomicLongArray[] stripes;
+    private final int stripeMask;
+    private final int depth;
+    private final int width;
+    private final int widthMask;
+    private final double epsilon;
+    private final LongAdder total = new LongAdder();
+
+    public CountMinSketch(double epsilon, double confidence) {
+        this(epsilon, confidence, Runtime.getRuntime().availableProcessors());
+    }
+
+    public CountMinSketch(double epsilon, double confidence, int concurrency) {
+        if (epsilon <= 0 || epsilon >= 1) {
+            throw new IllegalArgumentException("epsilon must be between 0 and 1");
+        }
+        if (confidence <= 0 || confidence >= 1) {
+            throw new IllegalArgumentException("confidence must be between 0 and 1");
+        }
+        if (concurrency <= 0) {
+            throw new IllegalArgumentException("concurrency must be positive");
+        }
+        // width = e / epsilon and depth = ln(1 / (1 - confidence)), width rounded up to a power of two
+        int w = 1;
+        while (w < Math.ceil(Math.E / epsilon)) {
+            w <<= 1;
+        }
+        this.width = w;
+        this.widthMask = w - 1;
+        this.depth = (int) Math.ceil(Math.log(1 / (1 - confidence)));
+        this.epsilon = Math.E / w;
+        int stripeCount = 1;
+        while (stripeCount < concurrency) {
+            stripeCount <<= 1;
+        }
+        this.stripeMask = stripeCount - 1;
+        this.stripes = new AtomicLongArray[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new AtomicLongArray(depth * width);
+        }
+    }
+
+    public void increment(long key) {
+        add(key, 1);
+    }
+
+    public void add(long key, long count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("count must not be negative");
+        }
+        AtomicLongArray counters = stripes[(int) Thread.currentThread().threadId() & stripeMask];
+        long hash = ConcurrentBloomFilter.mix(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        for (int row = 0; row < depth; row++) {
+            counters.getAndAdd(row * width + ((h1 + row * h2) & widthMask), count);
+        }
+        total.add(count);
+    }
+
+    // Upper bound on the number of times the key was added (exact when there are no collisions)
+    public long estimate(long key) {
+        long hash = ConcurrentBloomFilter.mix(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        long min = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            int index = row * width + ((h1 + row * h2) & widthMask);
+            long sum = 0;
+            for (AtomicLongArray counters : stripes) {
+                sum += counters.get(index);
+            }
+            min = Math.min(min, sum);
+        }
+        return min;
+    }
+
+    public long totalCount() {
+        return total.sum();
+    }
+
+    // Maximum overestimate (with the configured confidence) for the current total
+    public long errorBound() {
+        return (long) Math.ceil(epsilon * totalCount());
+    }
+
+    public int depth() {
+        return depth;
+    }
+
+    public int width() {
+        return width;
+    }
+
+    public int stripeCount() {
+        return stripes.length;
+    }
+}
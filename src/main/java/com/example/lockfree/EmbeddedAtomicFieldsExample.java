@@ -0,0 +1,255 @@
+package com.example.lockfree;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.lang.ref.Reference;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class EmbeddedAtomicFieldsExample {
+    private static final int NUM_CONNECTIONS = 2_000_000;
+    private static final int NUM_THREADS = 4;
+    private static final int UPDATES_PER_THREAD = 5_000_000;
+
+    // Per-connection statistics in the usual style: one wrapper object per field
+    static final class WrappedConnectionStats {
+        final long connectionId;
+        final AtomicLong bytesIn = new AtomicLong();
+        final AtomicLong bytesOut = new AtomicLong();
+        final AtomicInteger requests = new AtomicInteger();
+
+        WrappedConnectionStats(long connectionId) {
+            this.connectionId = connectionId;
+        }
+
+        void onRequest(int received, int sent) {
+            requests.incrementAndGet();
+            bytesIn.addAndGet(received);
+            bytesOut.addAndGet(sent);
+        }
+
+        long totalBytes() {
+            return bytesIn.get() + bytesOut.get();
+        }
+    }
+
+    // Same statistics as fields of the object itself: the request count comes from
+    // IntCounterBase, the byte counters are updated through static VarHandles
+    static final class EmbeddedConnectionStats extends IntCounterBase {
+        private static final VarHandle BYTES_IN =
+                VarHandles.field(MethodHandles.lookup(), "bytesIn", long.class);
+        private static final VarHandle BYTES_OUT =
+                VarHandles.field(MethodHandles.lookup(), "bytesOut", long.class);
+
+        final long connectionId;
+        private volatile long bytesIn;
+        private volatile long bytesOut;
+
+        EmbeddedConnectionStats(long connectionId) {
+            this.connectionId = connectionId;
+        }
+
+        void onRequest(int received, int sent) {
+            incrementAndGet();
+            BYTES_IN.getAndAdd(this, (long) received);
+            BYTES_OUT.getAndAdd(this, (long) sent);
+        }
+
+        // Monitoring only needs an atomic, eventually fresh value, not ordering
+        long totalBytes() {
+            return (long) BYTES_IN.getOpaque(this) + (long) BYTES_OUT.getOpaque(this);
+        }
+
+        int requests() {
+            return get();
+        }
+    }
+
+    // A message slot published with release/acquire instead of full volatile fences
+    static final class PublishedMessage extends LongCounterBase {
+        private String payload; // Plain field, made visible by the release store of the sequence
+
+        void publish(long sequence, String message) {
+            payload = message;
+            setRelease(sequence);
+        }
+
+        String awaitSequence(long sequence) {
+            while (getAcquire() < sequence) {
+                Thread.onSpinWait();
+            }
+            return payload;
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        System.out.println("Embedded Atomic Fields Example");
+        System.out.println("==============================");
+        System.out.println("This example keeps counters as volatile fields updated through VarHandles");
+        System.out.println("instead of separate AtomicLong/AtomicInteger objects, and uses the weaker");
+        System.out.println("acquire/release and opaque access modes where they are sufficient.\n");
+
+        System.out.println("Part 1: Publishing with setRelease / getAcquire");
+        releaseAcquirePublication();
+
+        Thread.sleep(1000);
+
+        System.out.println("\nPart 2: Heap footprint of " + NUM_CONNECTIONS + " per-connection stats objects");
+        footprintComparison();
+
+        Thread.sleep(1000);
+
+        System.out.println("\nPart 3: Random updates across all connections");
+        updateBenchmark();
+
+        System.out.println("\nExplanation:");
+        System.out.println("Every AtomicLong field is a separate 16-24 byte object plus a reference to it,");
+        System.out.println("and updating three of them can touch three different cache lines.");
+        System.out.println("- LongCounterBase/IntCounterBase embed one volatile counter in the subclass");
+        System.out.println("- VarHandles.field() gives the same operations for any other volatile field");
+        System.out.println("- Keep the VarHandle in a static final field so the JIT can inline the access");
+        System.out.println("- getOpaque is enough for statistics read by a monitor thread");
+        System.out.println("- setRelease/getAcquire order a payload behind a flag without a full fence");
+        System.out.println("- Atomic wrappers still make sense for singletons such as a global connection id");
+    }
+
+    // Part 1: A producer writes a plain payload, then releases the sequence number
+    private static void releaseAcquirePublication() throws InterruptedException {
+        PublishedMessage slot = new PublishedMessage();
+        int messages = 100_000;
+        AtomicBoolean mismatch = new AtomicBoolean();
+
+        Thread consumer = new Thread(() -> {
+            for (long seq = 1; seq <= messages; seq++) {
+                String payload = slot.awaitSequence(seq);
+                // The payload seen may be newer than seq, but never older
+                if (payload == null || Long.parseLong(payload.substring(4)) < seq) {
+                    mismatch.set(true);
+                }
+            }
+        });
+        consumer.start();
+        for (long seq = 1; seq <= messages; seq++) {
+            slot.publish(seq, "msg-" + seq);
+        }
+        consumer.join();
+
+        System.out.println("Messages published: " + slot.getOpaque());
+        System.out.println("Consumer saw a stale payload: " + mismatch.get());
+    }
+
+    // Part 2: Measure retained heap per object for both layouts
+    private static void footprintComparison() {
+        long wrappedBytes = retainedBytes(() -> {
+            WrappedConnectionStats[] stats = new WrappedConnectionStats[NUM_CONNECTIONS];
+            for (int i = 0; i < NUM_CONNECTIONS; i++) {
+                stats[i] = new WrappedConnectionStats(i);
+            }
+            return stats;
+        });
+        long embeddedBytes = retainedBytes(() -> {
+            EmbeddedConnectionStats[] stats = new EmbeddedConnectionStats[NUM_CONNECTIONS];
+            for (int i = 0; i < NUM_CONNECTIONS; i++) {
+                stats[i] = new EmbeddedConnectionStats(i);
+            }
+            return stats;
+        });
+
+        System.out.printf("%-26s %8.1f bytes/connection (4 objects each)%n", "AtomicLong/AtomicInteger",
+                (double) wrappedBytes / NUM_CONNECTIONS);
+        System.out.printf("%-26s %8.1f bytes/connection (1 object each)%n", "Embedded VarHandle fields",
+                (double) embeddedBytes / NUM_CONNECTIONS);
+    }
+
+    private interface Allocation {
+        Object allocate();
+    }
+
+    private static long retainedBytes(Allocation allocation) {
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        long before = runtime.totalMemory() - runtime.freeMemory();
+        Object retained = allocation.allocate();
+        System.gc();
+        long after = runtime.totalMemory() - runtime.freeMemory();
+        Reference.reachabilityFence(retained);
+        return after - before;
+    }
+
+    // Part 3: Threads update random connections, so most updates miss the cache
+    private static void updateBenchmark() throws InterruptedException {
+        WrappedConnectionStats[] wrapped = new WrappedConnectionStats[NUM_CONNECTIONS];
+        EmbeddedConnectionStats[] embedded = new EmbeddedConnectionStats[NUM_CONNECTIONS];
+        for (int i = 0; i < NUM_CONNECTIONS; i++) {
+            wrapped[i] = new WrappedConnectionStats(i);
+            embedded[i] = new EmbeddedConnectionStats(i);
+        }
+
+        // Warm up both paths
+        runUpdates(UPDATES_PER_THREAD / 10, index -> wrapped[index].onRequest(100, 200));
+        runUpdates(UPDATES_PER_THREAD / 10, index -> embedded[index].onRequest(100, 200));
+
+        long wrappedNanos = runUpdates(UPDATES_PER_THREAD, index -> wrapped[index].onRequest(100, 200));
+        long embeddedNanos = runUpdates(UPDATES_PER_THREAD, index -> embedded[index].onRequest(100, 200));
+
+        long wrappedRequests = 0;
+        long wrappedTotal = 0;
+        long embeddedRequests = 0;
+        long embeddedTotal = 0;
+        long start = System.nanoTime();
+        for (WrappedConnectionStats stats : wrapped) {
+            wrappedRequests += stats.requests.get();
+            wrappedTotal += stats.totalBytes();
+        }
+        long wrappedScanNanos = System.nanoTime() - start;
+        start = System.nanoTime();
+        for (EmbeddedConnectionStats stats : embedded) {
+            embeddedRequests += stats.requests();
+            embeddedTotal += stats.totalBytes();
+        }
+        long embeddedScanNanos = System.nanoTime() - start;
+
+        long ops = (long) NUM_THREADS * UPDATES_PER_THREAD;
+        System.out.println(NUM_THREADS + " threads, " + UPDATES_PER_THREAD + " updates each, available processors: " +
+                          Runtime.getRuntime().availableProcessors());
+        System.out.printf("%-26s %,14d updates/s, monitoring scan %4d ms%n", "AtomicLong/AtomicInteger",
+                ops * 1_000_000_000L / wrappedNanos, wrappedScanNanos / 1_000_000);
+        System.out.printf("%-26s %,14d updates/s, monitoring scan %4d ms%n", "Embedded VarHandle fields",
+                ops * 1_000_000_000L / embeddedNanos, embeddedScanNanos / 1_000_000);
+        System.out.println("Totals match: " + (wrappedRequests == embeddedRequests && wrappedTotal == embeddedTotal) +
+                          " (" + embeddedRequests + " requests, " + embeddedTotal + " bytes)");
+    }
+
+    private interface Update {
+        void apply(int index);
+    }
+
+    private static long runUpdates(int updates, Update update) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] workers = new Thread[NUM_THREADS];
+        for (int t = 0; t < NUM_THREADS; t++) {
+            workers[t] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < updates; i++) {
+                    update.apply(random.nextInt(NUM_CONNECTIONS));
+                }
+            });
+            workers[t].start();
+        }
+        long startTime = System.nanoTime();
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        return System.nanoTime() - startTime;
+    }
+}
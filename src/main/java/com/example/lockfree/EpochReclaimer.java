@@ -0,0 +1,146 @@
+package com.example.lockfree;
+
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+// Epoch-based reclamation (Fraser, 2004). Threads wrap every access to shared nodes in
+// enter()/exit(). A node retired while the global epoch is e can be recycled once the
+// global epoch has reached e + 2, because by then every thread has left the critical
+// section in which it could have seen the node. The tag is the global epoch, not the
+// epoch the retiring thread entered with: that one may already be behind, and a reader
+// that entered later could still hold the node when the tag plus two is reached.
+// Cheaper per access than hazard pointers, but one stalled reader holds back
+// reclamation for everybody.
+public class EpochReclaimer<T> {
+    private static final long QUIESCENT = -1L;
+    private static final int ADVANCE_THRESHOLD = 64;
+
+    private final Consumer<T> reclaimer;
+    private final AtomicLong globalEpoch = new AtomicLong();
+
+    private final AtomicReference<Record<T>> records = new AtomicReference<>();
+    private final ThreadLocal<Record<T>> localRecord = ThreadLocal.withInitial(this::acquireRecord);
+
+    public EpochReclaimer(Consumer<T> reclaimer) {
+        this.reclaimer = reclaimer;
+    }
+
+    public void enter() {
+        Record<T> record = localRecord.get();
+        long epoch;
+        do {
+            epoch = globalEpoch.get();
+            record.epoch.set(epoch);
+        } while (globalEpoch.get() != epoch);
+
+        if (epoch != record.lastSeenEpoch) {
+            reclaimExpired(record, epoch);
+            record.lastSeenEpoch = epoch;
+        }
+    }
+
+    public void exit() {
+        localRecord.get().epoch.set(QUIESCENT);
+    }
+
+    // Must be called between enter() and exit(), after the node has been unlinked
+    public void retire(T node) {
+        Record<T> record = localRecord.get();
+        long epoch = globalEpoch.get();
+        int bucket = (int) (epoch % 3);
+        if (record.limboEpoch[bucket] != epoch) {
+            // Whatever is left in this bucket was retired at epoch - 3 or earlier
+            drain(record.limbo[bucket]);
+            record.limboEpoch[bucket] = epoch;
+        }
+        record.limbo[bucket].add(node);
+        if (++record.retiredSinceAdvance >= ADVANCE_THRESHOLD) {
+            record.retiredSinceAdvance = 0;
+            tryAdvance();
+        }
+    }
+
+    // Moves the global epoch forward if every thread inside a critical section has
+    // already observed the current one
+    public boolean tryAdvance() {
+        long epoch = globalEpoch.get();
+        for (Record<T> r = records.get(); r != null; r = r.next) {
+            long observed = r.epoch.get();
+            if (observed != QUIESCENT && observed != epoch) {
+                return false;
+            }
+        }
+        return globalEpoch.compareAndSet(epoch, epoch + 1);
+    }
+
+    public long currentEpoch() {
+        return globalEpoch.get();
+    }
+
+    // Number of retired nodes waiting for reclamation in the calling thread
+    public int pendingCount() {
+        Record<T> record = localRecord.get();
+        return record.limbo[0].size() + record.limbo[1].size() + record.limbo[2].size();
+    }
+
+    // Gives the calling thread's record back for reuse; call before a worker thread exits
+    public void release() {
+        Record<T> record = localRecord.get();
+        record.epoch.set(QUIESCENT);
+        // Pending nodes stay in the limbo lists and are reclaimed by the next owner
+        record.active.set(false);
+        localRecord.remove();
+    }
+
+    // Recycles every bucket whose nodes were retired at least two epochs ago; nodes
+    // retired at epoch - 1 or epoch may still be visible to readers
+    private void reclaimExpired(Record<T> record, long epoch) {
+        for (int i = 0; i < record.limbo.length; i++) {
+            if (epoch - record.limboEpoch[i] >= 2) {
+                drain(record.limbo[i]);
+            }
+        }
+    }
+
+    private void drain(ArrayList<T> bucket) {
+        for (int i = 0; i < bucket.size(); i++) {
+            reclaimer.accept(bucket.get(i));
+        }
+        bucket.clear();
+    }
+
+    private Record<T> acquireRecord() {
+        for (Record<T> r = records.get(); r != null; r = r.next) {
+            if (!r.active.get() && r.active.compareAndSet(false, true)) {
+                return r;
+            }
+        }
+
+        Record<T> record = new Record<>();
+        Record<T> head;
+        do {
+            head = records.get();
+            record.next = head;
+        } while (!records.compareAndSet(head, record));
+        return record;
+    }
+
+    private static final class Record<T> {
+        final AtomicLong epoch = new AtomicLong(QUIESCENT);
+        final AtomicBoolean active = new AtomicBoolean(true);
+        final ArrayList<T>[] limbo = newLimbo();
+        // Global epoch at which the nodes in each limbo bucket were retired
+        final long[] limboEpoch = new long[3];
+        long lastSeenEpoch;
+        int retiredSinceAdvance;
+        Record<T> next;
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private static <T> ArrayList<T>[] newLimbo() {
+            return new ArrayList[] {new ArrayList<>(), new ArrayList<>(), new ArrayList<>()};
+        }
+    }
+}
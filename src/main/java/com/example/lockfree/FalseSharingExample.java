@@ -0,0 +1,154 @@
+package com.example.lockfree;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+public class FalseSharingExample {
+    private static final int[] THREAD_COUNTS = {1, 2, 4, 8};
+    private static final int INCREMENTS_PER_THREAD = 20_000_000;
+
+    // The two layouts under test, behind one interface so the loop is identical
+    interface SlotArray {
+        void increment(int slot);
+
+        int get(int slot);
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        System.out.println("False Sharing Example");
+        System.out.println("=====================");
+        System.out.println("This example shows the cost of threads updating different elements of");
+        System.out.println("the same AtomicIntegerArray, and how padding every slot to its own");
+        System.out.println("cache line removes it.\n");
+
+        System.out.println("Part 1: Per-worker statistics as a padded striped counter");
+        perWorkerStats();
+
+        Thread.sleep(1000);
+
+        System.out.println("\nPart 2: Benchmark - each thread increments only its own slot");
+        benchmark();
+
+        System.out.println("\nExplanation:");
+        System.out.println("CPU caches work on 64-byte lines. AtomicIntegerArray keeps 16 ints per line, so");
+        System.out.println("thread 0 writing index 0 and thread 1 writing index 1 keep stealing the same line");
+        System.out.println("from each other although they never touch the same data (false sharing).");
+        System.out.println("- PaddedAtomicIntegerArray places each slot 128 bytes apart");
+        System.out.println("- The penalty grows with the number of threads on different cores");
+        System.out.println("- On a single core there is no cache line to fight over, so both layouts match");
+        System.out.println("- LongAdder and ConcurrentHashMap counter cells use the same trick via @Contended");
+    }
+
+    // Part 1: Each worker counts into its own padded slot; the total is the sum of slots
+    private static void perWorkerStats() throws InterruptedException {
+        int numWorkers = 4;
+        PaddedAtomicIntegerArray processed = new PaddedAtomicIntegerArray(numWorkers);
+
+        Thread[] workers = new Thread[numWorkers];
+        for (int w = 0; w < numWorkers; w++) {
+            final int workerId = w;
+            workers[w] = new Thread(() -> {
+                for (int i = 0; i < 10_000 * (workerId + 1); i++) {
+                    processed.incrementAndGet(workerId);
+                }
+            });
+            workers[w].start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        long total = 0;
+        for (int i = 0; i < processed.length(); i++) {
+            total += processed.get(i);
+        }
+        System.out.println("Processed per worker: " + processed);
+        System.out.println("Total processed: " + total);
+    }
+
+    // Part 2: Sweep thread counts for both layouts
+    private static void benchmark() throws InterruptedException {
+        System.out.println("Available processors: " + Runtime.getRuntime().availableProcessors());
+        System.out.println(INCREMENTS_PER_THREAD + " increments per thread\n");
+
+        int maxThreads = THREAD_COUNTS[THREAD_COUNTS.length - 1];
+        // Warm up both implementations
+        run(contiguous(maxThreads), 2, INCREMENTS_PER_THREAD / 10);
+        run(padded(maxThreads), 2, INCREMENTS_PER_THREAD / 10);
+
+        System.out.printf("%-8s %22s %22s %8s%n", "Threads", "AtomicIntegerArray", "PaddedAtomicIntArray", "Speedup");
+        for (int threads : THREAD_COUNTS) {
+            long contiguousNanos = run(contiguous(threads), threads, INCREMENTS_PER_THREAD);
+            long paddedNanos = run(padded(threads), threads, INCREMENTS_PER_THREAD);
+            long totalOps = (long) threads * INCREMENTS_PER_THREAD;
+            System.out.printf("%-8d %,16d ops/s %,16d ops/s %7.2fx%n", threads,
+                    totalOps * 1_000_000_000L / contiguousNanos,
+                    totalOps * 1_000_000_000L / paddedNanos,
+                    (double) contiguousNanos / paddedNanos);
+        }
+    }
+
+    private static SlotArray contiguous(int length) {
+        AtomicIntegerArray array = new AtomicIntegerArray(length);
+        return new SlotArray() {
+            @Override
+            public void increment(int slot) {
+                array.incrementAndGet(slot);
+            }
+
+            @Override
+            public int get(int slot) {
+                return array.get(slot);
+            }
+        };
+    }
+
+    private static SlotArray padded(int length) {
+        PaddedAtomicIntegerArray array = new PaddedAtomicIntegerArray(length);
+        return new SlotArray() {
+            @Override
+            public void increment(int slot) {
+                array.incrementAndGet(slot);
+            }
+
+            @Override
+            public int get(int slot) {
+                return array.get(slot);
+            }
+        };
+    }
+
+    private static long run(SlotArray slots, int threads, int increments) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            final int slot = t;
+            workers[t] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < increments; i++) {
+                    slots.increment(slot);
+                }
+            });
+            workers[t].start();
+        }
+
+        long startTime = System.nanoTime();
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        long elapsed = System.nanoTime() - startTime;
+
+        for (int t = 0; t < threads; t++) {
+            if (slots.get(t) != increments) {
+                throw new IllegalStateException("slot " + t + " lost updates: " + slots.get(t));
+            }
+        }
+        return elapsed;
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.lockfree;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+// Hazard pointers (Michael, 2004) for lock-free structures that recycle their nodes.
+// A thread publishes the node it is about to dereference in one of its hazard slots.
+// Retired nodes are only handed to the reclaimer (e.g. returned to a free list) once
+// no thread has them published, so a recycled node can never cause an ABA on a CAS.
+public class HazardPointers<T> {
+    private static final int MIN_SCAN_THRESHOLD = 16;
+
+    private final int slotsPerThread;
+    private final Consumer<T> reclaimer;
+
+    // Append-only list of per-thread records; records are reused after release()
+    private final AtomicReference<Record<T>> records = new AtomicReference<>();
+    private final AtomicInteger recordCount = new AtomicInteger();
+    private final ThreadLocal<Record<T>> localRecord = ThreadLocal.withInitial(this::acquireRecord);
+
+    public HazardPointers(int slotsPerThread, Consumer<T> reclaimer) {
+        if (slotsPerThread <= 0) {
+            throw new IllegalArgumentException("slotsPerThread must be positive");
+        }
+        this.slotsPerThread = slotsPerThread;
+        this.reclaimer = reclaimer;
+    }
+
+    // Reads source and publishes the value in the given slot, re-reading until the
+    // published value is still current (otherwise it may already have been retired)
+    public T protect(int slot, AtomicReference<T> source) {
+        AtomicReferenceArray<T> hazards = localRecord.get().hazards;
+        T value;
+        do {
+            value = source.get();
+            hazards.set(slot, value);
+        } while (source.get() != value);
+        return value;
+    }
+
+    public void clear(int slot) {
+        localRecord.get().hazards.lazySet(slot, null);
+    }
+
+    // Called once the node has been unlinked from the structure
+    public void retire(T node) {
+        Record<T> record = localRecord.get();
+        record.retired.add(node);
+        if (record.retired.size() >= scanThreshold()) {
+            scan(record);
+        }
+    }
+
+    // Gives the calling thread's record back for reuse; call before a worker thread exits
+    public void release() {
+        Record<T> record = localRecord.get();
+        for (int i = 0; i < slotsPerThread; i++) {
+            record.hazards.set(i, null);
+        }
+        scan(record);
+        // Anything still protected stays in the record and is handled by its next owner
+        record.active.set(false);
+        localRecord.remove();
+    }
+
+    // Number of retired nodes waiting for reclamation in the calling thread
+    public int pendingCount() {
+        return localRecord.get().retired.size();
+    }
+
+    private int scanThreshold() {
+        return Math.max(MIN_SCAN_THRESHOLD, 2 * recordCount.get() * slotsPerThread);
+    }
+
+    private void scan(Record<T> record) {
+        // Snapshot every published hazard into a reusable array (no allocation in steady state)
+        int count = 0;
+        for (Record<T> r = records.get(); r != null; r = r.next) {
+            for (int i = 0; i < slotsPerThread; i++) {
+                T hazard = r.hazards.get(i);
+                if (hazard != null) {
+                    if (count == record.snapshot.length) {
+                        record.snapshot = Arrays.copyOf(record.snapshot, count * 2);
+                    }
+                    record.snapshot[count++] = hazard;
+                }
+            }
+        }
+
+        ArrayList<T> retired = record.retired;
+        int kept = 0;
+        for (int i = 0; i < retired.size(); i++) {
+            T node = retired.get(i);
+            if (isProtected(record.snapshot, count, node)) {
+                retired.set(kept++, node);
+            } else {
+                reclaimer.accept(node);
+            }
+        }
+        for (int i = retired.size() - 1; i >= kept; i--) {
+            retired.remove(i);
+        }
+        Arrays.fill(record.snapshot, 0, count, null);
+    }
+
+    private static boolean isProtected(Object[] hazards, int count, Object node) {
+        for (int i = 0; i < count; i++) {
+            if (hazards[i] == node) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Record<T> acquireRecord() {
+        // Try to take over a record released by a finished thread
+        for (Record<T> r = records.get(); r != null; r = r.next) {
+            if (!r.active.get() && r.active.compareAndSet(false, true)) {
+                return r;
+            }
+        }
+
+        Record<T> record = new Record<>(slotsPerThread);
+        Record<T> head;
+        do {
+            head = records.get();
+            record.next = head;
+        } while (!records.compareAndSet(head, record));
+        recordCount.incrementAndGet();
+        return record;
+    }
+
+    private static final class Record<T> {
+        final AtomicReferenceArray<T> hazards;
+        final AtomicBoolean active = new AtomicBoolean(true);
+        final ArrayList<T> retired = new ArrayList<>();
+        Object[] snapshot;
+        Record<T> next;
+
+        Record(int slots) {
+            this.hazards = new AtomicReferenceArray<>(slots);
+            this.snapshot = new Object[Math.max(8, slots * 4)];
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.lockfree;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+// int variant of LongCounterBase for owners that need a 4-byte embedded counter,
+// e.g. a reference count or a small state machine driven by compareAndSet
+// As in LongCounterBase, operations that replace the value are protected.
+public abstract class IntCounterBase {
+    private static final VarHandle COUNT = VarHandles.field(MethodHandles.lookup(), "count", int.class);
+
+    private volatile int count;
+
+    protected IntCounterBase() {
+    }
+
+    protected IntCounterBase(int initialValue) {
+        count = initialValue;
+    }
+
+    public final int get() {
+        return count;
+    }
+
+    public final int getAcquire() {
+        return (int) COUNT.getAcquire(this);
+    }
+
+    public final int getOpaque() {
+        return (int) COUNT.getOpaque(this);
+    }
+
+    protected final void set(int newValue) {
+        count = newValue;
+    }
+
+    protected final void setRelease(int newValue) {
+        COUNT.setRelease(this, newValue);
+    }
+
+    protected final void setOpaque(int newValue) {
+        COUNT.setOpaque(this, newValue);
+    }
+
+    public final int incrementAndGet() {
+        return (int) COUNT.getAndAdd(this, 1) + 1;
+    }
+
+    public final int decrementAndGet() {
+        return (int) COUNT.getAndAdd(this, -1) - 1;
+    }
+
+    public final int getAndAdd(int delta) {
+        return (int) COUNT.getAndAdd(this, delta);
+    }
+
+    public final int addAndGet(int delta) {
+        return (int) COUNT.getAndAdd(this, delta) + delta;
+    }
+
+    protected final boolean compareAndSet(int expectedValue, int newValue) {
+        return COUNT.compareAndSet(this, expectedValue, newValue);
+    }
+}
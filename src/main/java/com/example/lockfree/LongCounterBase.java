@@ -0,0 +1,70 @@
+package com.example.lockfree;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+// Base class that embeds one volatile long counter into the subclass instance. Compared
+// with a field holding an AtomicLong, this saves a 24-byte object and a pointer per
+// owner, and the counter sits in the same cache line as the owner's other fields.
+// Besides the volatile (sequentially consistent) operations it exposes the weaker
+// VarHandle access modes:
+// - opaque: atomic and eventually visible, no ordering; enough for statistics
+// - acquire/release: one-way ordering for publishing data guarded by the counter
+// Reads and increments are public. Operations that replace the value are protected, so
+// each subclass decides whether its callers may set it.
+public abstract class LongCounterBase {
+    private static final VarHandle COUNT = VarHandles.field(MethodHandles.lookup(), "count", long.class);
+
+    private volatile long count;
+
+    protected LongCounterBase() {
+    }
+
+    protected LongCounterBase(long initialValue) {
+        count = initialValue;
+    }
+
+    public final long get() {
+        return count;
+    }
+
+    public final long getAcquire() {
+        return (long) COUNT.getAcquire(this);
+    }
+
+    public final long getOpaque() {
+        return (long) COUNT.getOpaque(this);
+    }
+
+    protected final void set(long newValue) {
+        count = newValue;
+    }
+
+    protected final void setRelease(long newValue) {
+        COUNT.setRelease(this, newValue);
+    }
+
+    protected final void setOpaque(long newValue) {
+        COUNT.setOpaque(this, newValue);
+    }
+
+    public final long incrementAndGet() {
+        return (long) COUNT.getAndAdd(this, 1L) + 1L;
+    }
+
+    public final long decrementAndGet() {
+        return (long) COUNT.getAndAdd(this, -1L) - 1L;
+    }
+
+    public final long getAndAdd(long delta) {
+        return (long) COUNT.getAndAdd(this, delta);
+    }
+
+    public final long addAndGet(long delta) {
+        return (long) COUNT.getAndAdd(this, delta) + delta;
+    }
+
+    protected final boolean compareAndSet(long expectedValue, long newValue) {
+        return COUNT.compareAndSet(this, expectedValue, newValue);
+    }
+}
@@ -0,0 +1,297 @@
+package com.example.lockfree;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayDeque;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicStampedReference;
+
+public class MemoryReclamationExample {
+    private static final int EMPTY = Integer.MIN_VALUE;
+    private static final int NUM_THREADS = 4;
+    private static final int OPS_PER_THREAD = 1_000_000;
+    private static final int PREFILL = 1_000;
+
+    public static void main(String[] args) throws InterruptedException {
+        System.out.println("Memory Reclamation Example");
+        System.out.println("==========================");
+        System.out.println("This example recycles the nodes of a lock-free stack instead of allocating");
+        System.out.println("a new node per push, using hazard pointers and epoch-based reclamation");
+        System.out.println("to make sure a node is never reused while another thread can still see it.\n");
+
+        System.out.println("Part 1: Hazard pointers keep a popped node out of the free list");
+        demonstrateHazardPointers();
+
+        Thread.sleep(1000);
+
+        System.out.println("\nPart 2: Epoch-based reclamation waits two epochs before recycling");
+        demonstrateEpochs();
+
+        Thread.sleep(1000);
+
+        System.out.println("\nPart 3: Benchmark - garbage produced per operation");
+        benchmark();
+
+        System.out.println("\nExplanation:");
+        System.out.println("AtomicStampedReference avoids ABA by allocating a new (reference, stamp) Pair on");
+        System.out.println("every successful CAS, and a GC-based stack allocates a node per push as well.");
+        System.out.println("- Hazard pointers: readers publish the node they are about to use; a retired node");
+        System.out.println("  is only recycled after a scan finds it in nobody's hazard slot");
+        System.out.println("- Epoch-based reclamation: readers announce the global epoch on entry; nodes are");
+        System.out.println("  recycled two epochs after they were retired");
+        System.out.println("- Both make node recycling ABA-safe, so the hot path allocates nothing once the");
+        System.out.println("  free lists are large enough (the epoch stack needs more nodes in flight)");
+        System.out.println("- Hazard pointers bound the number of unreclaimed nodes; epochs are cheaper per");
+        System.out.println("  operation but a stalled thread delays all reclamation");
+    }
+
+    // Part 1: A protected node survives retirement until its hazard is cleared
+    private static void demonstrateHazardPointers() {
+        final AtomicLong recycled = new AtomicLong();
+        HazardPointers<Node> hazards = new HazardPointers<>(1, node -> recycled.incrementAndGet());
+
+        Node first = new Node();
+        first.value = 42;
+        AtomicReference<Node> shared = new AtomicReference<>(first);
+
+        Node protectedNode = hazards.protect(0, shared);
+        System.out.println("Protected node with value " + protectedNode.value);
+
+        // Unlink and retire the protected node together with enough others to trigger a scan
+        shared.set(null);
+        hazards.retire(protectedNode);
+        for (int i = 0; i < 15; i++) {
+            hazards.retire(new Node());
+        }
+        System.out.println("Retired 16 nodes, recycled " + recycled.get() +
+                          ", still pending: " + hazards.pendingCount() + " (the protected one)");
+
+        hazards.clear(0);
+        for (int i = 0; i < 15; i++) {
+            hazards.retire(new Node());
+        }
+        System.out.println("After clearing the hazard and retiring 15 more, recycled " + recycled.get() +
+                          ", pending: " + hazards.pendingCount());
+        hazards.release();
+    }
+
+    // Part 2: Retired nodes are recycled only after the epoch advanced twice
+    private static void demonstrateEpochs() {
+        final AtomicLong recycled = new AtomicLong();
+        EpochReclaimer<Node> epochs = new EpochReclaimer<>(node -> recycled.incrementAndGet());
+
+        epochs.enter();
+        for (int i = 0; i < 10; i++) {
+            epochs.retire(new Node());
+        }
+        epochs.exit();
+        System.out.println("Epoch " + epochs.currentEpoch() + ": retired 10 nodes, recycled " + recycled.get());
+
+        for (int round = 0; round < 2; round++) {
+            epochs.tryAdvance();
+            epochs.enter();
+            epochs.exit();
+            System.out.println("Epoch " + epochs.currentEpoch() + ": recycled " + recycled.get() +
+                              ", pending " + epochs.pendingCount());
+        }
+        epochs.release();
+    }
+
+    // Part 3: Compare throughput and allocation of the three stacks
+    private static void benchmark() throws InterruptedException {
+        System.out.println(NUM_THREADS + " threads, " + OPS_PER_THREAD + " push/pop pairs each\n");
+
+        // Warm up so that JIT compilation does not dominate the first measurement
+        runBenchmark(new StampedStack(), OPS_PER_THREAD / 5);
+        runBenchmark(new HazardPointerStack(), OPS_PER_THREAD / 5);
+        runBenchmark(new EpochStack(), OPS_PER_THREAD / 5);
+
+        report("AtomicStampedReference stack", runBenchmark(new StampedStack(), OPS_PER_THREAD));
+        report("Hazard-pointer recycling stack", runBenchmark(new HazardPointerStack(), OPS_PER_THREAD));
+        report("Epoch-based recycling stack", runBenchmark(new EpochStack(), OPS_PER_THREAD));
+    }
+
+    static long[] runBenchmark(IntStack stack, int opsPerThread) throws InterruptedException {
+        for (int i = 0; i < PREFILL; i++) {
+            stack.push(i);
+        }
+
+        final AtomicLong allocatedBytes = new AtomicLong();
+        final CountDownLatch start = new CountDownLatch(1);
+        Thread[] workers = new Thread[NUM_THREADS];
+        for (int t = 0; t < NUM_THREADS; t++) {
+            workers[t] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                long before = threadAllocatedBytes();
+                for (int i = 0; i < opsPerThread; i++) {
+                    stack.push(i);
+                    stack.pop();
+                }
+                allocatedBytes.addAndGet(threadAllocatedBytes() - before);
+                stack.releaseThread();
+            });
+            workers[t].start();
+        }
+
+        long startTime = System.nanoTime();
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        long elapsed = System.nanoTime() - startTime;
+        return new long[] {elapsed, allocatedBytes.get(), (long) opsPerThread * NUM_THREADS};
+    }
+
+    static void report(String name, long[] result) {
+        long elapsedNanos = result[0];
+        long bytes = result[1];
+        long ops = result[2];
+        System.out.printf("%-32s %,12d ops/s   %8.2f bytes/op   %,14d bytes total%n",
+                name, ops * 1_000_000_000L / elapsedNanos, (double) bytes / ops, bytes);
+    }
+
+    private static long threadAllocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+                .getCurrentThreadAllocatedBytes();
+    }
+
+    // Recyclable stack node; value and next are rewritten every time it is reused
+    static final class Node {
+        int value;
+        Node next;
+    }
+
+    interface IntStack {
+        void push(int value);
+
+        int pop();
+
+        default void releaseThread() {
+        }
+    }
+
+    // The approach from ABAProblemExample: a fresh node per push and a Pair per CAS
+    static final class StampedStack implements IntStack {
+        private final AtomicStampedReference<Node> top = new AtomicStampedReference<>(null, 0);
+
+        @Override
+        public void push(int value) {
+            Node node = new Node();
+            node.value = value;
+            int[] stampHolder = new int[1];
+            Node oldTop;
+            do {
+                oldTop = top.get(stampHolder);
+                node.next = oldTop;
+            } while (!top.compareAndSet(oldTop, node, stampHolder[0], stampHolder[0] + 1));
+        }
+
+        @Override
+        public int pop() {
+            int[] stampHolder = new int[1];
+            Node oldTop;
+            do {
+                oldTop = top.get(stampHolder);
+                if (oldTop == null) {
+                    return EMPTY;
+                }
+            } while (!top.compareAndSet(oldTop, oldTop.next, stampHolder[0], stampHolder[0] + 1));
+            return oldTop.value;
+        }
+    }
+
+    // Treiber stack whose popped nodes go back to a per-thread free list via hazard pointers
+    static final class HazardPointerStack implements IntStack {
+        private final AtomicReference<Node> top = new AtomicReference<>();
+        private final ThreadLocal<ArrayDeque<Node>> freeList = ThreadLocal.withInitial(ArrayDeque::new);
+        private final HazardPointers<Node> hazards = new HazardPointers<>(1, node -> freeList.get().push(node));
+
+        @Override
+        public void push(int value) {
+            Node node = freeList.get().poll();
+            if (node == null) {
+                node = new Node();
+            }
+            node.value = value;
+            Node oldTop;
+            do {
+                oldTop = top.get();
+                node.next = oldTop;
+            } while (!top.compareAndSet(oldTop, node));
+        }
+
+        @Override
+        public int pop() {
+            while (true) {
+                Node oldTop = hazards.protect(0, top);
+                if (oldTop == null) {
+                    hazards.clear(0);
+                    return EMPTY;
+                }
+                // oldTop cannot be recycled while protected, so its next field is stable
+                if (top.compareAndSet(oldTop, oldTop.next)) {
+                    hazards.clear(0);
+                    int value = oldTop.value;
+                    hazards.retire(oldTop);
+                    return value;
+                }
+            }
+        }
+
+        @Override
+        public void releaseThread() {
+            hazards.release();
+        }
+    }
+
+    // Treiber stack whose popped nodes are recycled after two epoch advances
+    static final class EpochStack implements IntStack {
+        private final AtomicReference<Node> top = new AtomicReference<>();
+        private final ThreadLocal<ArrayDeque<Node>> freeList = ThreadLocal.withInitial(ArrayDeque::new);
+        private final EpochReclaimer<Node> epochs = new EpochReclaimer<>(node -> freeList.get().push(node));
+
+        @Override
+        public void push(int value) {
+            Node node = freeList.get().poll();
+            if (node == null) {
+                node = new Node();
+            }
+            node.value = value;
+            Node oldTop;
+            do {
+                oldTop = top.get();
+                node.next = oldTop;
+            } while (!top.compareAndSet(oldTop, node));
+        }
+
+        @Override
+        public int pop() {
+            epochs.enter();
+            try {
+                Node oldTop;
+                do {
+                    oldTop = top.get();
+                    if (oldTop == null) {
+                        return EMPTY;
+                    }
+                } while (!top.compareAndSet(oldTop, oldTop.next));
+                int value = oldTop.value;
+                epochs.retire(oldTop);
+                return value;
+            } finally {
+                epochs.exit();
+            }
+        }
+
+        @Override
+        public void releaseThread() {
+            epochs.release();
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package com.example.lockfree;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+// Bounded lock-free pool for objects that are expensive to allocate or churn the GC,
+// such as IO buffers. Two levels:
+// - a small per-thread cache (plain array, no synchronization) serves the common case
+//   where the thread that releases an object acquires the next one
+// - a shared overflow area of fixed size for objects released by one thread and
+//   acquired by another. It is the CAS stack from CASExample applied to slot indices:
+//   one TaggedIndexStack holds free slots and another holds filled ones, so pushing
+//   allocates no nodes and the version tags rule out ABA
+// Objects released while both levels are full are dropped and left to the GC, so the
+// pool never holds more than maxPooled + threads * threadCacheSize objects.
+// Virtual threads bypass the thread cache, as there may be millions of them.
+//
+// With leak detection enabled every acquired object is tracked through a weak
+// reference. An object that becomes unreachable without release() is reported with
+// the stack trace of its acquisition, and releasing an object twice throws.
+public class ObjectPool<T> {
+    private static final int DEFAULT_THREAD_CACHE_SIZE = 8;
+
+    private final Supplier<? extends T> factory;
+    private final Consumer<? super T> resetter;
+    private final int threadCacheSize;
+
+    private final AtomicReferenceArray<T> slots;
+    private final TaggedIndexStack freeSlots;
+    private final TaggedIndexStack filledSlots;
+    private final ThreadLocal<LocalCache> localCache = ThreadLocal.withInitial(this::newLocalCache);
+
+    private final LongAdder created = new LongAdder();
+    private final LongAdder reused = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    // Only used with leak detection
+    private final ConcurrentHashMap<Borrowed, Throwable> borrowed;
+    private final ReferenceQueue<Object> collected;
+    private final LongAdder leaks = new LongAdder();
+
+    private static final class LocalCache {
+        final Object[] items;
+        int size;
+
+        LocalCache(int capacity) {
+            items = new Object[capacity];
+        }
+    }
+
+    // Weak identity key for a borrowed object
+    private static final class Borrowed extends WeakReference<Object> {
+        private final int hash;
+
+        Borrowed(Object referent, ReferenceQueue<Object> queue) {
+            super(referent, queue);
+            hash = System.identityHashCode(referent);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof Borrowed)) {
+                return false;
+            }
+            Object referent = get();
+            return referent != null && referent == ((Borrowed) other).get();
+        }
+    }
+
+    public ObjectPool(Supplier<? extends T> factory, int maxPooled) {
+        this(factory, item -> { }, maxPooled, DEFAULT_THREAD_CACHE_SIZE, false);
+    }
+
+    public ObjectPool(Supplier<? extends T> factory, Consumer<? super T> resetter, int maxPooled,
+                      int threadCacheSize, boolean leakDetection) {
+        if (maxPooled <= 0) {
+            throw new IllegalArgumentException("maxPooled must be positive");
+        }
+        if (threadCacheSize < 0) {
+            throw new IllegalArgumentException("threadCacheSize must not be negative");
+        }
+        this.factory = factory;
+        this.resetter = resetter;
+        this.threadCacheSize = threadCacheSize;
+        this.slots = new AtomicReferenceArray<>(maxPooled);
+        this.freeSlots = new TaggedIndexStack(maxPooled);
+        this.filledSlots = new TaggedIndexStack(maxPooled);
+        for (int i = maxPooled - 1; i >= 0; i--) {
+            freeSlots.push(i);
+        }
+        this.borrowed = leakDetection ? new ConcurrentHashMap<>() : null;
+        this.collected = leakDetection ? new ReferenceQueue<>() : null;
+    }
+
+    // Returns a pooled object, or a new one from the factory if the pool is empty
+    @SuppressWarnings("unchecked")
+    public T acquire() {
+        T item = null;
+        LocalCache cache = cache();
+        if (cache != null && cache.size > 0) {
+            item = (T) cache.items[--cache.size];
+            cache.items[cache.size] = null;
+        } else {
+            int slot = filledSlots.pop();
+            if (slot != TaggedIndexStack.EMPTY) {
+                item = slots.getAndSet(slot, null);
+                freeSlots.push(slot);
+            }
+        }
+
+        if (item != null) {
+            reused.increment();
+        } else {
+            item = factory.get();
+            created.increment();
+        }
+        if (borrowed != null) {
+            track(item);
+        }
+        return item;
+    }
+
+    // Resets the object and keeps it for reuse; the caller must not touch it afterwards
+    public void release(T item) {
+        if (item == null) {
+            throw new NullPointerException("item");
+        }
+        if (borrowed != null) {
+            untrack(item);
+        }
+        resetter.accept(item);
+
+        LocalCache cache = cache();
+        if (cache != null && cache.size < cache.items.length) {
+            cache.items[cache.size++] = item;
+            return;
+        }
+        int slot = freeSlots.pop();
+        if (slot == TaggedIndexStack.EMPTY) {
+            dropped.increment();
+            return;
+        }
+        slots.set(slot, item);
+        filledSlots.push(slot);
+    }
+
+    // Objects created by the factory because the pool was empty
+    public long createdCount() {
+        return created.sum();
+    }
+
+    // Acquisitions served from the thread cache or the shared area
+    public long reusedCount() {
+        return reused.sum();
+    }
+
+    // Releases discarded because the pool was full
+    public long droppedCount() {
+        return dropped.sum();
+    }
+
+    // Reports objects that were collected without being released; 0 if leak detection is off
+    public long checkLeaks() {
+        if (collected != null) {
+            drainCollected();
+        }
+        return leaks.sum();
+    }
+
+    // Objects currently acquired and not yet released; -1 if leak detection is off
+    public int borrowedCount() {
+        if (borrowed == null) {
+            return -1;
+        }
+        drainCollected();
+        return borrowed.size();
+    }
+
+    private LocalCache cache() {
+        if (threadCacheSize == 0 || Thread.currentThread().isVirtual()) {
+            return null;
+        }
+        return localCache.get();
+    }
+
+    private LocalCache newLocalCache() {
+        return new LocalCache(threadCacheSize);
+    }
+
+    private void track(T item) {
+        drainCollected();
+        Throwable acquiredAt = new Throwable("Pooled object acquired here by " + Thread.currentThread().getName());
+        if (borrowed.putIfAbsent(new Borrowed(item, collected), acquiredAt) != null) {
+            throw new IllegalStateException("Object handed out twice: " + item);
+        }
+    }
+
+    private void untrack(T item) {
+        Borrowed key = new Borrowed(item, null);
+        if (borrowed.remove(key) == null) {
+            throw new IllegalStateException("Object released twice or not acquired from this pool: " + item);
+        }
+        key.clear();
+    }
+
+    private void drainCollected() {
+        Object reference;
+        while ((reference = collected.poll()) != null) {
+            // ConcurrentHashMap matches keys by identity before equals(), so the cleared
+            // reference still finds its own entry
+            Throwable acquiredAt = borrowed.remove(reference);
+            if (acquiredAt != null) {
+                leaks.increment();
+                System.err.println("LEAK: pooled object was garbage collected without release()");
+                StackTraceElement[] trace = acquiredAt.getStackTrace();
+                System.err.println("  " + acquiredAt.getMessage());
+                // Skip the track() and acquire() frames
+                for (int i = 2; i < Math.min(6, trace.length); i++) {
+                    System.err.println("    at " + trace[i]);
+                }
+            }
+        }
+    }
+}
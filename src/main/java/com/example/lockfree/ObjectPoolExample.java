@@ -0,0 +1,223 @@
+package com.example.lockfree;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntUnaryOperator;
+
+public class ObjectPoolExample {
+    private static final int BUFFER_SIZE = 16 * 1024;
+    private static final int NUM_THREADS = 4;
+    private static final int REQUESTS_PER_THREAD = 500_000;
+
+    public static void main(String[] args) throws InterruptedException {
+        System.out.println("Object Pool Example");
+        System.out.println("===================");
+        System.out.println("This example reuses request buffers through a bounded lock-free pool with");
+        System.out.println("per-thread caches, instead of allocating a new buffer for every request.\n");
+
+        System.out.println("Part 1: Leak detection in debug mode");
+        leakDetection();
+
+        Thread.sleep(1000);
+
+        System.out.println("\nPart 2: Producer/consumer hand-off through the shared overflow area");
+        crossThreadReuse();
+
+        Thread.sleep(1000);
+
+        System.out.println("\nPart 3: Benchmark - new byte[" + BUFFER_SIZE + "] per request vs pooled buffers");
+        benchmark();
+
+        System.out.println("\nExplanation:");
+        System.out.println("Short-lived buffers are cheap to allocate but at high request rates they fill");
+        System.out.println("the young generation quickly and cause frequent collections.");
+        System.out.println("- acquire/release first use a per-thread cache without any synchronization");
+        System.out.println("- Objects passed between threads go through a fixed-size CAS stack of slots");
+        System.out.println("- The pool is bounded: releases beyond capacity are dropped and collected");
+        System.out.println("- Debug mode tracks borrowed objects with weak references to report leaks");
+        System.out.println("- Pooling pays off for large or costly objects; small objects are cheaper to allocate");
+        System.out.println("- Rerun with -XX:+UseZGC (or -XX:+UseG1GC) to compare collectors");
+    }
+
+    // Part 1: One buffer is never released and is reported once it is collected
+    private static void leakDetection() throws InterruptedException {
+        ObjectPool<byte[]> pool = new ObjectPool<>(() -> new byte[1024], buffer -> { }, 16, 0, true);
+
+        byte[] first = pool.acquire();
+        byte[] second = pool.acquire();
+        forgetBuffer(pool);
+        pool.release(first);
+        pool.release(second);
+        System.out.println("Borrowed before GC: " + pool.borrowedCount());
+
+        long leaks = 0;
+        for (int attempt = 0; attempt < 10 && leaks == 0; attempt++) {
+            System.gc();
+            Thread.sleep(100);
+            leaks = pool.checkLeaks();
+        }
+        System.out.println("Leaks detected: " + leaks + ", borrowed after GC: " + pool.borrowedCount());
+
+        try {
+            pool.release(first);
+        } catch (IllegalStateException e) {
+            System.out.println("Double release rejected: " + e.getMessage().replaceAll(": .*", ""));
+        }
+    }
+
+    private static void forgetBuffer(ObjectPool<byte[]> pool) {
+        byte[] leaked = pool.acquire();
+        leaked[0] = 1;
+    }
+
+    // Part 2: Producers acquire buffers, consumers release them on other threads
+    private static void crossThreadReuse() throws InterruptedException {
+        int capacity = 64;
+        ObjectPool<byte[]> pool = new ObjectPool<>(() -> new byte[1024], capacity);
+        ArrayBlockingQueue<byte[]> queue = new ArrayBlockingQueue<>(32);
+        int perProducer = 100_000;
+
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < 2; p++) {
+            threads.add(new Thread(() -> {
+                try {
+                    for (int i = 0; i < perProducer; i++) {
+                        byte[] buffer = pool.acquire();
+                        buffer[0] = (byte) i;
+                        queue.put(buffer);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+        }
+        for (int c = 0; c < 2; c++) {
+            threads.add(new Thread(() -> {
+                try {
+                    for (int i = 0; i < perProducer; i++) {
+                        pool.release(queue.take());
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        System.out.println("Buffers handed out: " + (2L * perProducer));
+        System.out.println("Created: " + pool.createdCount() + ", reused: " + pool.reusedCount() +
+                          ", dropped on full pool: " + pool.droppedCount());
+        System.out.println("Retained at most " + capacity + " shared + " + threads.size() +
+                          " threads x 8 cached buffers");
+    }
+
+    // Part 3: Each request fills part of a buffer and checksums it
+    private static void benchmark() throws InterruptedException {
+        ObjectPool<byte[]> pool = new ObjectPool<>(() -> new byte[BUFFER_SIZE], NUM_THREADS * 4);
+        List<GarbageCollectorMXBean> collectors = ManagementFactory.getGarbageCollectorMXBeans();
+        StringBuilder names = new StringBuilder();
+        for (GarbageCollectorMXBean collector : collectors) {
+            names.append(names.length() == 0 ? "" : ", ").append(collector.getName());
+        }
+        System.out.println("Garbage collectors: " + names + "; available processors: " +
+                          Runtime.getRuntime().availableProcessors());
+
+        IntUnaryOperator allocating = length -> handleRequest(new byte[BUFFER_SIZE], length);
+        IntUnaryOperator pooled = length -> {
+            byte[] buffer = pool.acquire();
+            try {
+                return handleRequest(buffer, length);
+            } finally {
+                pool.release(buffer);
+            }
+        };
+
+        // Warm up both paths
+        run("new byte[]", allocating, REQUESTS_PER_THREAD / 10, collectors, false);
+        run("ObjectPool", pooled, REQUESTS_PER_THREAD / 10, collectors, false);
+
+        System.out.printf("%-18s %14s %16s %12s %12s%n", "Strategy", "Requests/s", "Bytes/request", "GC count",
+                "GC time");
+        run("new byte[]", allocating, REQUESTS_PER_THREAD, collectors, true);
+        run("ObjectPool", pooled, REQUESTS_PER_THREAD, collectors, true);
+        System.out.println("Pool: created " + pool.createdCount() + " buffers, reused " + pool.reusedCount());
+    }
+
+    private static int handleRequest(byte[] buffer, int length) {
+        // Simulated read into the buffer followed by a checksum over the received bytes
+        int checksum = 0;
+        for (int i = 0; i < length; i++) {
+            buffer[i] = (byte) i;
+            checksum = 31 * checksum + buffer[i];
+        }
+        return checksum;
+    }
+
+    private static void run(String name, IntUnaryOperator handler, int requests,
+                            List<GarbageCollectorMXBean> collectors, boolean print) throws InterruptedException {
+        LongAdder allocatedBytes = new LongAdder();
+        LongAdder checksums = new LongAdder();
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] workers = new Thread[NUM_THREADS];
+        for (int t = 0; t < NUM_THREADS; t++) {
+            workers[t] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                long bytesBefore = threadAllocatedBytes();
+                int sink = 0;
+                for (int i = 0; i < requests; i++) {
+                    sink += handler.applyAsInt(256 + (i & 511));
+                }
+                allocatedBytes.add(threadAllocatedBytes() - bytesBefore);
+                checksums.add(sink);
+            });
+            workers[t].start();
+        }
+
+        long gcCountBefore = 0;
+        long gcTimeBefore = 0;
+        for (GarbageCollectorMXBean collector : collectors) {
+            gcCountBefore += collector.getCollectionCount();
+            gcTimeBefore += collector.getCollectionTime();
+        }
+        long startTime = System.nanoTime();
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        long elapsed = System.nanoTime() - startTime;
+        long gcCount = -gcCountBefore;
+        long gcTime = -gcTimeBefore;
+        for (GarbageCollectorMXBean collector : collectors) {
+            gcCount += collector.getCollectionCount();
+            gcTime += collector.getCollectionTime();
+        }
+
+        if (print) {
+            long totalRequests = (long) NUM_THREADS * requests;
+            System.out.printf("%-18s %,14d %16.1f %12d %9d ms%n",
+                    name,
+                    totalRequests * 1_000_000_000L / elapsed,
+                    (double) allocatedBytes.sum() / totalRequests, gcCount, gcTime);
+        }
+    }
+
+    private static long threadAllocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+                .getCurrentThreadAllocatedBytes();
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.lockfree;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.IntUnaryOperator;
+
+// Drop-in alternative to AtomicIntegerArray for per-worker slots that are updated by
+// different threads. AtomicIntegerArray packs 16 ints into one 64-byte cache line, so
+// threads writing "their own" index still invalidate each other's cache line (false
+// sharing). Here every logical slot sits 128 bytes apart, which also keeps neighbours out
+// of the adjacent line that Intel's spatial prefetcher pulls in pairs.
+// @Contended would do the same for fields, but it needs -XX:-RestrictContended outside
+// the JDK and does not apply to array elements, hence the manual padding.
+public class PaddedAtomicIntegerArray {
+    private static final int STRIDE = 128 / Integer.BYTES;
+
+    private final AtomicIntegerArray slots;
+    private final int length;
+
+    public PaddedAtomicIntegerArray(int length) {
+        if (length < 0) {
+            throw new IllegalArgumentException("length must not be negative");
+        }
+        this.length = length;
+        // One extra stride in front so slot 0 does not share a line with the array header
+        this.slots = new AtomicIntegerArray((length + 1) * STRIDE);
+    }
+
+    public int length() {
+        return length;
+    }
+
+    public int get(int i) {
+        return slots.get(offset(i));
+    }
+
+    public void set(int i, int newValue) {
+        slots.set(offset(i), newValue);
+    }
+
+    public void lazySet(int i, int newValue) {
+        slots.lazySet(offset(i), newValue);
+    }
+
+    public int getAndSet(int i, int newValue) {
+        return slots.getAndSet(offset(i), newValue);
+    }
+
+    public boolean compareAndSet(int i, int expectedValue, int newValue) {
+        return slots.compareAndSet(offset(i), expectedValue, newValue);
+    }
+
+    public int getAndIncrement(int i) {
+        return slots.getAndIncrement(offset(i));
+    }
+
+    public int incrementAndGet(int i) {
+        return slots.incrementAndGet(offset(i));
+    }
+
+    public int getAndAdd(int i, int delta) {
+        return slots.getAndAdd(offset(i), delta);
+    }
+
+    public int addAndGet(int i, int delta) {
+        return slots.addAndGet(offset(i), delta);
+    }
+
+    public int getAndUpdate(int i, IntUnaryOperator updateFunction) {
+        return slots.getAndUpdate(offset(i), updateFunction);
+    }
+
+    public int updateAndGet(int i, IntUnaryOperator updateFunction) {
+        return slots.updateAndGet(offset(i), updateFunction);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < length; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(get(i));
+        }
+        return sb.append(']').toString();
+    }
+
+    private int offset(int i) {
+        if (i < 0 || i >= length) {
+            throw new IndexOutOfBoundsException("index " + i + " out of bounds for length " + length);
+        }
+        return (i + 1) * STRIDE;
+    }
+}
@@ -0,0 +1,195 @@
+package com.example.lockfree;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+// Immutable vector as a 32-way trie of Object[] nodes plus a separate tail array
+// (the layout of Clojure's PersistentVector). Elements are addressed by 5 bits of the
+// index per level. set() copies only the path from the root to the changed leaf, and
+// append() usually copies just the tail, so writes stay O(log32 n) while unchanged
+// subtrees are shared with previous versions. Safe to share between threads.
+public final class PersistentVector<E> {
+    private static final Object[] EMPTY_NODE = new Object[32];
+    private static final PersistentVector<?> EMPTY = new PersistentVector<>(0, 5, EMPTY_NODE, new Object[0]);
+
+    private final int size;
+    private final int shift;
+    private final Object[] root;
+    private final Object[] tail;
+
+    private PersistentVector(int size, int shift, Object[] root, Object[] tail) {
+        this.size = size;
+        this.shift = shift;
+        this.root = root;
+        this.tail = tail;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <E> PersistentVector<E> empty() {
+        return (PersistentVector<E>) EMPTY;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    public E get(int index) {
+        checkIndex(index);
+        return (E) leafFor(index)[index & 0x1F];
+    }
+
+    // Returns a new vector with the element at index replaced
+    public PersistentVector<E> set(int index, E element) {
+        checkIndex(index);
+        if (index >= tailOffset()) {
+            Object[] newTail = tail.clone();
+            newTail[index & 0x1F] = element;
+            return new PersistentVector<>(size, shift, root, newTail);
+        }
+        return new PersistentVector<>(size, shift, setInNode(shift, root, index, element), tail);
+    }
+
+    // Returns a new vector with element added at the end
+    public PersistentVector<E> append(E element) {
+        if (size - tailOffset() < 32) {
+            Object[] newTail = Arrays.copyOf(tail, tail.length + 1);
+            newTail[tail.length] = element;
+            return new PersistentVector<>(size + 1, shift, root, newTail);
+        }
+
+        // The tail is full: move it into the trie and start a new tail
+        Object[] newRoot;
+        int newShift = shift;
+        if ((size >>> 5) > (1 << shift)) {
+            // The trie is full at this height, add a level on top
+            newRoot = new Object[32];
+            newRoot[0] = root;
+            newRoot[1] = newPath(shift, tail);
+            newShift += 5;
+        } else {
+            newRoot = pushTail(shift, root, tail);
+        }
+        return new PersistentVector<>(size + 1, newShift, newRoot, new Object[] {element});
+    }
+
+    // Returns a new vector without the last element
+    public PersistentVector<E> removeLast() {
+        if (size == 0) {
+            throw new IllegalStateException("vector is empty");
+        }
+        if (size == 1) {
+            return empty();
+        }
+        if (size - tailOffset() > 1) {
+            return new PersistentVector<>(size - 1, shift, root, Arrays.copyOf(tail, tail.length - 1));
+        }
+
+        // The tail becomes empty: the last leaf of the trie becomes the new tail
+        Object[] newTail = leafFor(size - 2);
+        Object[] newRoot = popTail(shift, root);
+        int newShift = shift;
+        if (newRoot == null) {
+            newRoot = EMPTY_NODE;
+        }
+        if (shift > 5 && newRoot[1] == null) {
+            newRoot = (Object[]) newRoot[0];
+            newShift -= 5;
+        }
+        return new PersistentVector<>(size - 1, newShift, newRoot, newTail);
+    }
+
+    // Iterates this version only; concurrent writers produce new versions instead
+    @SuppressWarnings("unchecked")
+    public void forEach(Consumer<? super E> action) {
+        int tailOffset = tailOffset();
+        for (int i = 0; i < tailOffset; i += 32) {
+            Object[] leaf = leafFor(i);
+            for (Object element : leaf) {
+                action.accept((E) element);
+            }
+        }
+        for (Object element : tail) {
+            action.accept((E) element);
+        }
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+    }
+
+    private int tailOffset() {
+        return size < 32 ? 0 : ((size - 1) >>> 5) << 5;
+    }
+
+    private Object[] leafFor(int index) {
+        if (index >= tailOffset()) {
+            return tail;
+        }
+        Object[] node = root;
+        for (int level = shift; level > 0; level -= 5) {
+            node = (Object[]) node[(index >>> level) & 0x1F];
+        }
+        return node;
+    }
+
+    private static Object[] setInNode(int level, Object[] node, int index, Object element) {
+        Object[] copy = node.clone();
+        if (level == 0) {
+            copy[index & 0x1F] = element;
+        } else {
+            int child = (index >>> level) & 0x1F;
+            copy[child] = setInNode(level - 5, (Object[]) node[child], index, element);
+        }
+        return copy;
+    }
+
+    private Object[] pushTail(int level, Object[] parent, Object[] tailNode) {
+        int child = ((size - 1) >>> level) & 0x1F;
+        Object[] copy = parent.clone();
+        Object[] inserted;
+        if (level == 5) {
+            inserted = tailNode;
+        } else {
+            Object[] existing = (Object[]) parent[child];
+            inserted = existing != null ? pushTail(level - 5, existing, tailNode) : newPath(level - 5, tailNode);
+        }
+        copy[child] = inserted;
+        return copy;
+    }
+
+    private static Object[] newPath(int level, Object[] node) {
+        if (level == 0) {
+            return node;
+        }
+        Object[] path = new Object[32];
+        path[0] = newPath(level - 5, node);
+        return path;
+    }
+
+    // Returns null when the subtree becomes empty
+    private Object[] popTail(int level, Object[] node) {
+        int child = ((size - 2) >>> level) & 0x1F;
+        if (level > 5) {
+            Object[] newChild = popTail(level - 5, (Object[]) node[child]);
+            if (newChild == null && child == 0) {
+                return null;
+            }
+            Object[] copy = node.clone();
+            copy[child] = newChild;
+            return copy;
+        }
+        if (child == 0) {
+            return null;
+        }
+        Object[] copy = node.clone();
+        copy[child] = null;
+        return copy;
+    }
+}
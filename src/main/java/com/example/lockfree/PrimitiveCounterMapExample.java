@@ -0,0 +1,173 @@
+package com.example.lockfree;
+
+import java.lang.ref.Reference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongConsumer;
+
+public class PrimitiveCounterMapExample {
+    private static final int NUM_THREADS = 4;
+    private static final int OPS_PER_THREAD = 2_000_000;
+    private static final int NUM_KEYS = 100_000;
+    private static final int FOOTPRINT_KEYS = 1_000_000;
+
+    public static void main(String[] args) throws InterruptedException {
+        System.out.println("Primitive Counter Map Example");
+        System.out.println("=============================");
+        System.out.println("This example shows a lock-free open-addressing long -> long map for");
+        System.out.println("per-key counters, compared with ConcurrentHashMap<Long, Long>.merge.\n");
+
+        System.out.println("Part 1: Concurrent counting with cooperative resizing");
+        concurrentCounting();
+
+        Thread.sleep(1000);
+
+        System.out.println("\nPart 2: Throughput benchmark");
+        throughputBenchmark();
+
+        Thread.sleep(1000);
+
+        System.out.println("\nPart 3: Heap footprint with " + FOOTPRINT_KEYS + " keys");
+        footprintBenchmark();
+
+        System.out.println("\nExplanation:");
+        System.out.println("ConcurrentHashMap<Long, Long> needs a Node plus a boxed key and value per entry,");
+        System.out.println("and merge allocates a new Long on every update outside the small-value cache.");
+        System.out.println("- ConcurrentLongLongMap stores keys and values in two AtomicLongArrays");
+        System.out.println("- Keys are inserted by CASing an empty slot; counters are updated by CAS on the value");
+        System.out.println("- When the table fills up, all threads help copying it into a table twice the size");
+        System.out.println("- Updates never allocate, and an entry costs 16 bytes per slot");
+    }
+
+    // Part 1: Several threads count the same keys starting from the minimum table size
+    private static void concurrentCounting() throws InterruptedException {
+        ConcurrentLongLongMap counters = new ConcurrentLongLongMap();
+        int keys = 10_000;
+        int rounds = 20;
+        System.out.println("Initial capacity: " + counters.capacity());
+
+        ExecutorService executor = Executors.newFixedThreadPool(NUM_THREADS);
+        for (int t = 0; t < NUM_THREADS; t++) {
+            executor.submit(() -> {
+                for (int round = 0; round < rounds; round++) {
+                    for (long key = 0; key < keys; key++) {
+                        counters.incrementAndGet(key);
+                    }
+                }
+            });
+        }
+        executor.shutdown();
+        executor.awaitTermination(30, TimeUnit.SECONDS);
+
+        long[] total = new long[1];
+        int[] wrong = new int[1];
+        counters.forEach((key, value) -> {
+            total[0] += value;
+            if (value != (long) NUM_THREADS * rounds) {
+                wrong[0]++;
+            }
+        });
+        System.out.println("Keys: " + counters.size() + ", capacity after resizing: " + counters.capacity());
+        System.out.println("Expected total: " + ((long) NUM_THREADS * rounds * keys) + ", actual total: " + total[0]);
+        System.out.println("Counter of key 42: " + counters.get(42) + ", keys with a wrong count: " + wrong[0]);
+    }
+
+    // Part 2: Random increments over a fixed key space
+    private static void throughputBenchmark() throws InterruptedException {
+        long[] keys = new long[NUM_KEYS];
+        for (int i = 0; i < NUM_KEYS; i++) {
+            keys[i] = ThreadLocalRandom.current().nextLong();
+        }
+
+        ConcurrentLongLongMap primitiveMap = new ConcurrentLongLongMap();
+        ConcurrentHashMap<Long, Long> boxedMap = new ConcurrentHashMap<>();
+
+        // Warm up both paths
+        ConcurrentLongLongMap warmUpMap = new ConcurrentLongLongMap();
+        run(keys, OPS_PER_THREAD / 4, key -> warmUpMap.addAndGet(key, 1));
+        run(keys, OPS_PER_THREAD / 4, key -> boxedMap.merge(key, 1L, Long::sum));
+        boxedMap.clear();
+
+        long chmNanos = run(keys, OPS_PER_THREAD, key -> boxedMap.merge(key, 1L, Long::sum));
+        long primitiveNanos = run(keys, OPS_PER_THREAD, key -> primitiveMap.addAndGet(key, 1));
+
+        long totalOps = (long) NUM_THREADS * OPS_PER_THREAD;
+        System.out.printf("ConcurrentHashMap.merge:            %,12d ops/s%n", totalOps * 1_000_000_000L / chmNanos);
+        System.out.printf("ConcurrentLongLongMap.addAndGet:    %,12d ops/s%n", totalOps * 1_000_000_000L / primitiveNanos);
+
+        long sum = 0;
+        for (long key : keys) {
+            sum += primitiveMap.get(key);
+        }
+        System.out.println("Increments recorded by the primitive map: " + sum + " of " + totalOps);
+    }
+
+    private static long run(long[] keys, int opsPerThread, LongConsumer operation) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] workers = new Thread[NUM_THREADS];
+        for (int t = 0; t < NUM_THREADS; t++) {
+            final int seed = t + 1;
+            workers[t] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                // xorshift keeps the random key selection allocation-free and cheap
+                int x = seed * 0x9E3779B9;
+                for (int i = 0; i < opsPerThread; i++) {
+                    x ^= x << 13;
+                    x ^= x >>> 17;
+                    x ^= x << 5;
+                    operation.accept(keys[(x & Integer.MAX_VALUE) % keys.length]);
+                }
+            });
+            workers[t].start();
+        }
+
+        long startTime = System.nanoTime();
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        return System.nanoTime() - startTime;
+    }
+
+    // Part 3: Retained heap of each map after inserting the same keys
+    private static void footprintBenchmark() {
+        long before = usedHeap();
+        ConcurrentHashMap<Long, Long> boxedMap = new ConcurrentHashMap<>();
+        for (long key = 1; key <= FOOTPRINT_KEYS; key++) {
+            boxedMap.merge(key * 7919, 1000L + key, Long::sum);
+        }
+        long boxedBytes = usedHeap() - before;
+        System.out.printf("ConcurrentHashMap<Long, Long>: %,14d bytes (%.1f bytes/entry)%n",
+                boxedBytes, (double) boxedBytes / FOOTPRINT_KEYS);
+        // Keep the map reachable until it has been measured
+        Reference.reachabilityFence(boxedMap);
+        boxedMap = null;
+
+        before = usedHeap();
+        ConcurrentLongLongMap primitiveMap = new ConcurrentLongLongMap();
+        for (long key = 1; key <= FOOTPRINT_KEYS; key++) {
+            primitiveMap.addAndGet(key * 7919, 1000L + key);
+        }
+        long primitiveBytes = usedHeap() - before;
+        System.out.printf("ConcurrentLongLongMap:         %,14d bytes (%.1f bytes/entry, %,d slots)%n",
+                primitiveBytes, (double) primitiveBytes / FOOTPRINT_KEYS, primitiveMap.capacity());
+        Reference.reachabilityFence(primitiveMap);
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,202 @@
+package com.example.lockfree;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+public class ProbabilisticStructuresExample {
+    private static final int NUM_THREADS = 4;
+    private static final int EVENTS_PER_THREAD = 1_000_000;
+    private static final long KEY_SPACE = 10_000_000L;
+
+    // The operations compared in the benchmark, applied to one event key
+    interface EventSink {
+        void accept(long key);
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        System.out.println("Probabilistic Structures Example");
+        System.out.println("================================");
+        System.out.println("This example deduplicates and counts event ids with a lock-free Bloom filter");
+        System.out.println("and count-min sketch, and compares them with exact ConcurrentHashMap versions.\n");
+
+        System.out.println("Part 1: Bloom filter accuracy");
+        bloomFilterAccuracy();
+
+        Thread.sleep(1000);
+
+        System.out.println("\nPart 2: Count-min sketch accuracy on a skewed stream");
+        sketchAccuracy();
+
+        Thread.sleep(1000);
+
+        System.out.println("\nPart 3: Throughput against ConcurrentHashMap");
+        benchmark();
+
+        System.out.println("\nExplanation:");
+        System.out.println("Exact dedup and counting need memory per distinct key and a map entry per insert.");
+        System.out.println("- The Bloom filter sets k bits per key with CAS on AtomicLongArray words");
+        System.out.println("- It has no false negatives; false positives stay near the configured rate");
+        System.out.println("- The count-min sketch never undercounts and overcounts by at most epsilon * N");
+        System.out.println("- Sketch counters are striped per thread so heavy hitters do not serialize writers");
+        System.out.println("- Both use fixed memory that does not grow with the number of distinct keys");
+    }
+
+    // Part 1: Concurrent inserts, then check members and measure false positives on non-members
+    private static void bloomFilterAccuracy() throws InterruptedException {
+        int expected = 1_000_000;
+        double targetRate = 0.01;
+        ConcurrentBloomFilter filter = new ConcurrentBloomFilter(expected, targetRate);
+
+        // Even keys are inserted, odd keys are used to probe for false positives
+        Thread[] writers = new Thread[NUM_THREADS];
+        for (int t = 0; t < NUM_THREADS; t++) {
+            final int writerId = t;
+            writers[t] = new Thread(() -> {
+                for (long i = writerId; i < expected; i += NUM_THREADS) {
+                    filter.put(i * 2);
+                }
+            });
+            writers[t].start();
+        }
+        for (Thread writer : writers) {
+            writer.join();
+        }
+
+        long falseNegatives = 0;
+        for (long i = 0; i < expected; i++) {
+            if (!filter.mightContain(i * 2)) {
+                falseNegatives++;
+            }
+        }
+        long falsePositives = 0;
+        for (long i = 0; i < expected; i++) {
+            if (filter.mightContain(i * 2 + 1)) {
+                falsePositives++;
+            }
+        }
+
+        System.out.println("Bits: " + filter.bitSize() + " (" + filter.bitSize() / 8 / 1024 + " KB), hash functions: " +
+                          filter.hashCount());
+        System.out.println("False negatives: " + falseNegatives);
+        System.out.printf("False positive rate: %.3f%% (configured %.3f%%, predicted from fill %.3f%%)%n",
+                100.0 * falsePositives / expected, 100 * targetRate, 100 * filter.expectedFalsePositiveRate());
+        System.out.println("Approximate distinct keys: " + filter.approximateCount() + " (actual " + expected + ")");
+    }
+
+    // Part 2: Compare sketch estimates with exact counts for the most frequent keys
+    private static void sketchAccuracy() throws InterruptedException {
+        CountMinSketch sketch = new CountMinSketch(0.0001, 0.99, NUM_THREADS);
+        Map<Long, LongAdder> exact = new ConcurrentHashMap<>();
+
+        Thread[] writers = new Thread[NUM_THREADS];
+        for (int t = 0; t < NUM_THREADS; t++) {
+            writers[t] = new Thread(() -> {
+                for (int i = 0; i < EVENTS_PER_THREAD; i++) {
+                    long key = skewedKey();
+                    sketch.increment(key);
+                    exact.computeIfAbsent(key, k -> new LongAdder()).increment();
+                }
+            });
+            writers[t].start();
+        }
+        for (Thread writer : writers) {
+            writer.join();
+        }
+
+        List<Map.Entry<Long, LongAdder>> top = new ArrayList<>(exact.entrySet());
+        top.sort((a, b) -> Long.compare(b.getValue().sum(), a.getValue().sum()));
+
+        System.out.println("Events: " + sketch.totalCount() + ", distinct keys: " + exact.size());
+        System.out.println("Sketch: " + sketch.depth() + " rows x " + sketch.width() + " counters x " +
+                          sketch.stripeCount() + " stripes, error bound " + sketch.errorBound());
+        System.out.printf("%-10s %12s %12s%n", "Key", "Exact", "Estimate");
+        for (int i = 0; i < 5; i++) {
+            long key = top.get(i).getKey();
+            System.out.printf("%-10d %12d %12d%n", key, top.get(i).getValue().sum(), sketch.estimate(key));
+        }
+
+        long underestimates = 0;
+        long withinBound = 0;
+        for (Map.Entry<Long, LongAdder> entry : exact.entrySet()) {
+            long error = sketch.estimate(entry.getKey()) - entry.getValue().sum();
+            if (error < 0) {
+                underestimates++;
+            }
+            if (error <= sketch.errorBound()) {
+                withinBound++;
+            }
+        }
+        System.out.printf("Underestimated keys: %d, keys within error bound: %.2f%%%n",
+                underestimates, 100.0 * withinBound / exact.size());
+    }
+
+    // Part 3: Same event stream into the probabilistic and the exact structures
+    private static void benchmark() throws InterruptedException {
+        System.out.println(NUM_THREADS + " threads x " + EVENTS_PER_THREAD + " events, available processors: " +
+                          Runtime.getRuntime().availableProcessors());
+
+        for (int round = 0; round < 2; round++) {
+            boolean print = round == 1;
+            ConcurrentBloomFilter filter = new ConcurrentBloomFilter(NUM_THREADS * EVENTS_PER_THREAD, 0.01);
+            Set<Long> exactSet = ConcurrentHashMap.newKeySet();
+            CountMinSketch sketch = new CountMinSketch(0.0001, 0.99, NUM_THREADS);
+            ConcurrentHashMap<Long, LongAdder> exactCounts = new ConcurrentHashMap<>();
+
+            report(print, "Dedup: ConcurrentBloomFilter.put", run(filter::put));
+            report(print, "Dedup: ConcurrentHashMap.newKeySet", run(exactSet::add));
+            report(print, "Count: CountMinSketch.increment", run(sketch::increment));
+            report(print, "Count: ConcurrentHashMap<LongAdder>",
+                    run(key -> exactCounts.computeIfAbsent(key, k -> new LongAdder()).increment()));
+            if (print) {
+                System.out.printf("Memory: Bloom filter %d KB, sketch %d KB, exact set ~%d KB for %d keys%n",
+                        filter.bitSize() / 8 / 1024,
+                        (long) sketch.depth() * sketch.width() * sketch.stripeCount() * 8 / 1024,
+                        // Node (32) + Long (16) + table slot (~8) per entry in ConcurrentHashMap
+                        exactSet.size() * 56L / 1024, exactSet.size());
+            }
+        }
+    }
+
+    private static void report(boolean print, String name, long nanos) {
+        if (print) {
+            long events = (long) NUM_THREADS * EVENTS_PER_THREAD;
+            System.out.printf("%-38s %,14d events/s%n", name, events * 1_000_000_000L / nanos);
+        }
+    }
+
+    private static long run(EventSink sink) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] workers = new Thread[NUM_THREADS];
+        for (int t = 0; t < NUM_THREADS; t++) {
+            workers[t] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < EVENTS_PER_THREAD; i++) {
+                    sink.accept(skewedKey());
+                }
+            });
+            workers[t].start();
+        }
+        long startTime = System.nanoTime();
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        return System.nanoTime() - startTime;
+    }
+
+    // Log-uniform keys: key k is drawn with probability roughly proportional to 1/k (Zipf-like)
+    private static long skewedKey() {
+        return (long) Math.exp(ThreadLocalRandom.current().nextDouble() * Math.log(KEY_SPACE));
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.lockfree;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Lock-free int stack over a preallocated node pool. Nodes are array indices and the
+// links live in a primitive int[] next array. Each list head is a single AtomicLong that
+// packs a 32-bit node index with a 32-bit version, so a CAS fails if the head was popped
+// and pushed back in between (ABA) without allocating the Pair that AtomicStampedReference
+// needs. A version only repeats after 2^32 updates of the same head.
+public class TaggedIndexStack {
+    public static final int EMPTY = Integer.MIN_VALUE;
+    private static final int NIL = -1;
+
+    private final int[] values;
+    private final int[] next;
+
+    // Stack contents and the pool of unused nodes share the same next[] links
+    private final AtomicLong top = new AtomicLong(pack(NIL, 0));
+    private final AtomicLong free = new AtomicLong(pack(NIL, 0));
+
+    public TaggedIndexStack(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        values = new int[capacity];
+        next = new int[capacity];
+        for (int i = 0; i < capacity; i++) {
+            next[i] = i + 1 < capacity ? i + 1 : NIL;
+        }
+        free.set(pack(0, 0));
+    }
+
+    // Returns false if all nodes of the pool are in use
+    public boolean push(int value) {
+        if (value == EMPTY) {
+            throw new IllegalArgumentException("EMPTY cannot be stored");
+        }
+        int node = popIndex(free);
+        if (node == NIL) {
+            return false;
+        }
+        values[node] = value;
+        pushIndex(top, node);
+        return true;
+    }
+
+    // Returns EMPTY if the stack has no elements
+    public int pop() {
+        int node = popIndex(top);
+        if (node == NIL) {
+            return EMPTY;
+        }
+        int value = values[node];
+        pushIndex(free, node);
+        return value;
+    }
+
+    public boolean isEmpty() {
+        return index(top.get()) == NIL;
+    }
+
+    public int capacity() {
+        return values.length;
+    }
+
+    // Version of the stack head, incremented by every push and pop
+    public int version() {
+        return version(top.get());
+    }
+
+    private void pushIndex(AtomicLong head, int node) {
+        long current;
+        do {
+            current = head.get();
+            next[node] = index(current);
+        } while (!head.compareAndSet(current, pack(node, version(current) + 1)));
+    }
+
+    private int popIndex(AtomicLong head) {
+        long current;
+        int node;
+        do {
+            current = head.get();
+            node = index(current);
+            if (node == NIL) {
+                return NIL;
+            }
+            // next[node] may be stale if node was popped concurrently; the version
+            // check in the CAS below rejects the update in that case
+        } while (!head.compareAndSet(current, pack(next[node], version(current) + 1)));
+        return node;
+    }
+
+    static long pack(int index, int version) {
+        return ((long) version << 32) | (index & 0xFFFF_FFFFL);
+    }
+
+    static int index(long tagged) {
+        return (int) tagged;
+    }
+
+    static int version(long tagged) {
+        return (int) (tagged >>> 32);
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.lockfree;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class TaggedPointerExample {
+    private static final int OPS_PER_THREAD = 1_000_000;
+
+    public static void main(String[] args) throws InterruptedException {
+        System.out.println("Tagged-Pointer CAS Example");
+        System.out.println("==========================");
+        System.out.println("This example packs a 32-bit node index and a 32-bit version into one");
+        System.out.println("AtomicLong, giving ABA protection for array-backed node pools without");
+        System.out.println("the Pair object that AtomicStampedReference allocates on every CAS.\n");
+
+        System.out.println("Part 1: The version detects an A -> B -> A change of the head index");
+        demonstrateTaggedHead();
+
+        Thread.sleep(1000);
+
+        System.out.println("\nPart 2: Concurrent pushes and pops on a pooled stack");
+        concurrentStack();
+
+        Thread.sleep(1000);
+
+        System.out.println("\nPart 3: Benchmark against the other ABA-safe stacks");
+        benchmark();
+
+        System.out.println("\nExplanation:");
+        System.out.println("- Nodes are indices into preallocated int[] arrays, links live in int[] next");
+        System.out.println("- The head is one 64-bit word (version << 32 | index), updated with a plain CAS");
+        System.out.println("- Every push and pop bumps the version, so a stale head never matches again");
+        System.out.println("- No allocation per operation and no per-node object headers");
+        System.out.println("- The pool has a fixed capacity; push reports failure when it is exhausted");
+    }
+
+    // Part 1: Replay the ABAProblemExample scenario on a tagged head
+    private static void demonstrateTaggedHead() {
+        // List of node indices 0 -> 1 -> 2, node 0 at the head
+        AtomicLong head = new AtomicLong(TaggedIndexStack.pack(0, 0));
+
+        long seen = head.get();
+        System.out.println("Thread 1: Read head index " + TaggedIndexStack.index(seen) +
+                          ", version " + TaggedIndexStack.version(seen));
+
+        // Thread 2 pops node 0, pops node 1 and pushes node 0 back
+        head.set(TaggedIndexStack.pack(1, 1));
+        head.set(TaggedIndexStack.pack(2, 2));
+        head.set(TaggedIndexStack.pack(0, 3));
+        long now = head.get();
+        System.out.println("Thread 2: Head is index " + TaggedIndexStack.index(now) +
+                          " again, but version " + TaggedIndexStack.version(now));
+
+        // Thread 1 resumes and tries to pop node 0, expecting node 1 to become the head
+        boolean success = head.compareAndSet(seen,
+                TaggedIndexStack.pack(1, TaggedIndexStack.version(seen) + 1));
+        System.out.println("Thread 1: CAS " + (success ? "succeeded" : "failed") +
+                          " because the version changed from " + TaggedIndexStack.version(seen) +
+                          " to " + TaggedIndexStack.version(now));
+    }
+
+    // Part 2: Check that no element is lost or duplicated under contention
+    private static void concurrentStack() throws InterruptedException {
+        final TaggedIndexStack stack = new TaggedIndexStack(1024);
+        final AtomicLong pushedSum = new AtomicLong();
+        final AtomicLong poppedSum = new AtomicLong();
+        int numThreads = 4;
+        int opsPerThread = 100_000;
+
+        ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+        for (int t = 0; t < numThreads; t++) {
+            final int threadId = t;
+            executor.submit(() -> {
+                long pushed = 0;
+                long popped = 0;
+                for (int i = 0; i < opsPerThread; i++) {
+                    int value = threadId * opsPerThread + i;
+                    if (stack.push(value)) {
+                        pushed += value;
+                    }
+                    int result = stack.pop();
+                    if (result != TaggedIndexStack.EMPTY) {
+                        popped += result;
+                    }
+                }
+                pushedSum.addAndGet(pushed);
+                poppedSum.addAndGet(popped);
+            });
+        }
+
+        executor.shutdown();
+        executor.awaitTermination(30, TimeUnit.SECONDS);
+
+        long remaining = 0;
+        int value;
+        while ((value = stack.pop()) != TaggedIndexStack.EMPTY) {
+            remaining += value;
+        }
+        System.out.println("Sum of pushed values:          " + pushedSum.get());
+        System.out.println("Sum of popped + remaining:     " + (poppedSum.get() + remaining));
+        System.out.println("Head version after the run:    " + stack.version());
+        System.out.println(pushedSum.get() == poppedSum.get() + remaining
+                ? "Every element was popped exactly once."
+                : "Elements were lost or duplicated!");
+    }
+
+    // Part 3: Same workload as MemoryReclamationExample
+    private static void benchmark() throws InterruptedException {
+        MemoryReclamationExample.runBenchmark(new MemoryReclamationExample.StampedStack(), OPS_PER_THREAD / 5);
+        MemoryReclamationExample.runBenchmark(new MemoryReclamationExample.HazardPointerStack(), OPS_PER_THREAD / 5);
+        MemoryReclamationExample.runBenchmark(new PooledStack(), OPS_PER_THREAD / 5);
+
+        MemoryReclamationExample.report("AtomicStampedReference stack",
+                MemoryReclamationExample.runBenchmark(new MemoryReclamationExample.StampedStack(), OPS_PER_THREAD));
+        MemoryReclamationExample.report("Hazard-pointer recycling stack",
+                MemoryReclamationExample.runBenchmark(new MemoryReclamationExample.HazardPointerStack(), OPS_PER_THREAD));
+        MemoryReclamationExample.report("Tagged-index pooled stack",
+                MemoryReclamationExample.runBenchmark(new PooledStack(), OPS_PER_THREAD));
+    }
+
+    // Adapts TaggedIndexStack to the benchmark harness of MemoryReclamationExample
+    private static final class PooledStack implements MemoryReclamationExample.IntStack {
+        private final TaggedIndexStack stack = new TaggedIndexStack(4096);
+
+        @Override
+        public void push(int value) {
+            stack.push(value);
+        }
+
+        @Override
+        public int pop() {
+            return stack.pop();
+        }
+    }
+}
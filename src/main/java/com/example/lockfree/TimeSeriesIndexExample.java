@@ -0,0 +1,203 @@
+package com.example.lockfree;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class TimeSeriesIndexExample {
+    private static final int NUM_SAMPLES = 1_000_000;
+    private static final int BATCH_SIZE = 1_000;
+    private static final int NUM_QUERIES = 200_000;
+    private static final int QUERY_WINDOW = 100;
+
+    // Immutable sample shared by both indexes, so only the index overhead differs
+    record Sample(long timestamp, double value) {
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        System.out.println("Time-Series Index Example");
+        System.out.println("=========================");
+        System.out.println("This example indexes samples by a primitive long timestamp in a lock-free");
+        System.out.println("skip list with reusable range-scan cursors and sorted batch inserts.\n");
+
+        System.out.println("Part 1: Concurrent batch writers and range readers");
+        concurrentIndexing();
+
+        Thread.sleep(1000);
+
+        System.out.println("\nPart 2: Bulk loading pre-sorted batches");
+        Sample[] samples = createSamples();
+        long[] timestamps = new long[samples.length];
+        for (int i = 0; i < samples.length; i++) {
+            timestamps[i] = samples[i].timestamp();
+        }
+        ConcurrentSkipListMap<Long, Sample> skipListMap = new ConcurrentSkipListMap<>();
+        ConcurrentLongSkipList<Sample> longSkipList = new ConcurrentLongSkipList<>();
+        bulkLoadBenchmark(samples, timestamps, skipListMap, longSkipList);
+
+        Thread.sleep(1000);
+
+        System.out.println("\nPart 3: Range queries of " + QUERY_WINDOW + " samples");
+        rangeScanBenchmark(timestamps, skipListMap, longSkipList);
+
+        System.out.println("\nExplanation:");
+        System.out.println("ConcurrentSkipListMap<Long, V> boxes every key, and subMap creates a view object");
+        System.out.println("plus an iterator and entry objects for each range query.");
+        System.out.println("- ConcurrentLongSkipList stores the timestamp as a primitive long in each node");
+        System.out.println("- A Cursor is created once and repositioned with seek(from, to), so scans allocate nothing");
+        System.out.println("- putAllSorted resumes each search from the previous insert position");
+        System.out.println("- Nodes are linked with CAS level by level, readers never block");
+    }
+
+    // Part 1: Two writers append interleaved batches while two readers scan recent windows
+    private static void concurrentIndexing() throws InterruptedException {
+        ConcurrentLongSkipList<Sample> index = new ConcurrentLongSkipList<>();
+        int batches = 50;
+        final AtomicLong scannedSamples = new AtomicLong();
+        final AtomicLong orderViolations = new AtomicLong();
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int w = 0; w < 2; w++) {
+            final int writerId = w;
+            executor.submit(() -> {
+                long[] keys = new long[BATCH_SIZE];
+                Sample[] values = new Sample[BATCH_SIZE];
+                for (int b = 0; b < batches; b++) {
+                    // Writer 0 owns even timestamps, writer 1 odd ones
+                    long base = (long) b * BATCH_SIZE * 2;
+                    for (int i = 0; i < BATCH_SIZE; i++) {
+                        keys[i] = base + 2L * i + writerId;
+                        values[i] = new Sample(keys[i], writerId);
+                    }
+                    index.putAllSorted(keys, values, 0, BATCH_SIZE);
+                }
+            });
+        }
+        for (int r = 0; r < 2; r++) {
+            executor.submit(() -> {
+                ConcurrentLongSkipList<Sample>.Cursor cursor = index.cursor();
+                for (int q = 0; q < 2_000; q++) {
+                    long from = ThreadLocalRandom.current().nextLong(batches * BATCH_SIZE * 2L);
+                    cursor.seek(from, from + QUERY_WINDOW);
+                    long previous = Long.MIN_VALUE;
+                    while (cursor.next()) {
+                        if (cursor.key() <= previous) {
+                            orderViolations.incrementAndGet();
+                        }
+                        previous = cursor.key();
+                        scannedSamples.incrementAndGet();
+                    }
+                }
+            });
+        }
+        executor.shutdown();
+        executor.awaitTermination(30, TimeUnit.SECONDS);
+
+        System.out.println("Indexed samples: " + index.size() + " (expected " + (2L * batches * BATCH_SIZE) + ")");
+        System.out.println("Samples seen by concurrent range scans: " + scannedSamples.get() +
+                          ", out-of-order keys: " + orderViolations.get());
+
+        ConcurrentLongSkipList<Sample>.Cursor cursor = index.cursor().seek(10, 16);
+        StringBuilder sb = new StringBuilder("Range [10, 16):");
+        while (cursor.next()) {
+            sb.append(' ').append(cursor.key()).append("(w").append((int) cursor.value().value()).append(')');
+        }
+        System.out.println(sb);
+    }
+
+    private static Sample[] createSamples() {
+        Sample[] samples = new Sample[NUM_SAMPLES];
+        long timestamp = 1_700_000_000_000L;
+        for (int i = 0; i < NUM_SAMPLES; i++) {
+            timestamp += 1 + ThreadLocalRandom.current().nextInt(10);
+            samples[i] = new Sample(timestamp, Math.sin(i));
+        }
+        return samples;
+    }
+
+    // Part 2: Load the same sorted samples into both indexes, batch by batch
+    private static void bulkLoadBenchmark(Sample[] samples, long[] timestamps,
+                                          ConcurrentSkipListMap<Long, Sample> skipListMap,
+                                          ConcurrentLongSkipList<Sample> longSkipList) {
+        long start = System.nanoTime();
+        for (int i = 0; i < samples.length; i++) {
+            skipListMap.put(timestamps[i], samples[i]);
+        }
+        long mapNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int from = 0; from < samples.length; from += BATCH_SIZE) {
+            longSkipList.putAllSorted(timestamps, samples, from, Math.min(from + BATCH_SIZE, samples.length));
+        }
+        long listNanos = System.nanoTime() - start;
+
+        System.out.printf("ConcurrentSkipListMap.put:           %,6d ms%n", mapNanos / 1_000_000);
+        System.out.printf("ConcurrentLongSkipList.putAllSorted: %,6d ms%n", listNanos / 1_000_000);
+        System.out.println("Entries: " + skipListMap.size() + " / " + longSkipList.size());
+    }
+
+    // Part 3: Sum the values of random windows with subMap and with a reused cursor
+    private static void rangeScanBenchmark(long[] timestamps,
+                                           ConcurrentSkipListMap<Long, Sample> skipListMap,
+                                           ConcurrentLongSkipList<Sample> longSkipList) {
+        int[] starts = new int[NUM_QUERIES];
+        for (int i = 0; i < NUM_QUERIES; i++) {
+            starts[i] = ThreadLocalRandom.current().nextInt(timestamps.length - QUERY_WINDOW);
+        }
+
+        // Warm up both paths
+        scanWithSubMap(skipListMap, timestamps, starts);
+        scanWithCursor(longSkipList, timestamps, starts);
+
+        long bytesBefore = threadAllocatedBytes();
+        long start = System.nanoTime();
+        double mapSum = scanWithSubMap(skipListMap, timestamps, starts);
+        long mapNanos = System.nanoTime() - start;
+        long mapBytes = threadAllocatedBytes() - bytesBefore;
+
+        bytesBefore = threadAllocatedBytes();
+        start = System.nanoTime();
+        double listSum = scanWithCursor(longSkipList, timestamps, starts);
+        long listNanos = System.nanoTime() - start;
+        long listBytes = threadAllocatedBytes() - bytesBefore;
+
+        System.out.printf("subMap().values():  %,10d queries/s  %8.1f bytes/query%n",
+                NUM_QUERIES * 1_000_000_000L / mapNanos, (double) mapBytes / NUM_QUERIES);
+        System.out.printf("Cursor.seek/next:   %,10d queries/s  %8.1f bytes/query%n",
+                NUM_QUERIES * 1_000_000_000L / listNanos, (double) listBytes / NUM_QUERIES);
+        System.out.println("Checksums match: " + (mapSum == listSum));
+    }
+
+    private static double scanWithSubMap(ConcurrentSkipListMap<Long, Sample> map, long[] timestamps, int[] starts) {
+        double sum = 0;
+        for (int s : starts) {
+            Map<Long, Sample> window = map.subMap(timestamps[s], timestamps[s + QUERY_WINDOW]);
+            for (Sample sample : window.values()) {
+                sum += sample.value();
+            }
+        }
+        return sum;
+    }
+
+    private static double scanWithCursor(ConcurrentLongSkipList<Sample> list, long[] timestamps, int[] starts) {
+        double sum = 0;
+        ConcurrentLongSkipList<Sample>.Cursor cursor = list.cursor();
+        for (int s : starts) {
+            cursor.seek(timestamps[s], timestamps[s + QUERY_WINDOW]);
+            while (cursor.next()) {
+                sum += cursor.value().value();
+            }
+        }
+        return sum;
+    }
+
+    private static long threadAllocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+                .getCurrentThreadAllocatedBytes();
+    }
+}
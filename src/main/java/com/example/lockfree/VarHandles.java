@@ -0,0 +1,25 @@
+package com.example.lockfree;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+// Helper for classes that embed volatile fields and update them through VarHandles
+// instead of holding separate AtomicLong/AtomicInteger objects. Intended for static
+// final initializers, which is also what lets the JIT inline the VarHandle calls:
+//
+//     private static final VarHandle BYTES_IN =
+//             VarHandles.field(MethodHandles.lookup(), "bytesIn", long.class);
+//     private volatile long bytesIn;
+public final class VarHandles {
+    private VarHandles() {
+    }
+
+    // Finds a field declared by the lookup class; failures surface as class init errors
+    public static VarHandle field(MethodHandles.Lookup lookup, String name, Class<?> type) {
+        try {
+            return lookup.findVarHandle(lookup.lookupClass(), name, type);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.locking;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+// Craig, Landin and Hagersten queue lock. The queue is implicit: a thread swaps its own
+// node in as the tail and waits until the node it replaced, its predecessor's, is
+// unlocked. Release is a single write to the owner's own node, with no successor to
+// find and no tail update, which makes it the simpler and slightly cheaper of the two
+// queue locks. Threads get the lock in arrival order.
+//
+// Each waiter watches a node allocated by another thread; on machines with memory local
+// to each socket that can mean spinning on remote memory, which McsLock avoids.
+public class ClhLock extends QueueLock {
+    private final AtomicReference<Node> tail = new AtomicReference<>(new Node(false));
+
+    @Override
+    public void lock() {
+        checkNotOwner();
+        Node node = new Node(true);
+        Node predecessor = tail.getAndSet(node);
+        await(predecessor);
+        acquired(node);
+    }
+
+    // Only succeeds when the last thread in line has already released, which keeps it fair
+    @Override
+    public boolean tryLock() {
+        checkNotOwner();
+        Node predecessor = tail.get();
+        if (predecessor.locked) {
+            return false;
+        }
+        Node node = new Node(true);
+        if (!tail.compareAndSet(predecessor, node)) {
+            return false;
+        }
+        acquired(node);
+        return true;
+    }
+
+    @Override
+    public void unlock() {
+        signal(releasing());
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.locking;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+// Flat combining (Hendler, Incze, Shavit and Tzafrir): a way to share any sequential
+// data structure, such as a counter or a java.util.PriorityQueue, between threads.
+// Instead of every thread taking a lock in turn, each thread publishes its operation
+// in its own publication record, and whichever thread gets the lock, the combiner,
+// runs all published operations in one pass and hands back the results. The others
+// just wait for their record to be answered.
+//
+// Under heavy contention this replaces a lock hand-off per operation with one per
+// batch, and the state stays in the combiner's cache for the whole batch. Without
+// contention, an operation costs a bit more than an uncontended lock: a CAS on the lock,
+// then the operation itself, then a scan of the publication list for waiting threads.
+//
+// Every thread that has to wait for the combiner gets one record, linked into the
+// publication list the first time; the combiner unlinks records of threads that have
+// ended. Operations must not block, and must not call back into the same combiner.
+public class FlatCombiner<S> {
+    private static final int SPINS = Runtime.getRuntime().availableProcessors() > 1 ? 1 << 8 : 0;
+    private static final int MAX_PASSES = 3;
+    private static final int CLEANUP_INTERVAL = 1024;
+
+    private final S state;
+    private final AtomicBoolean lock = new AtomicBoolean();
+    private final AtomicReference<Record> head = new AtomicReference<>();
+    private final ThreadLocal<Record> record = new ThreadLocal<>();
+    private final LongAdder combinedOperations = new LongAdder();
+    private final LongAdder combiningPasses = new LongAdder();
+    private int combinesUntilCleanup = CLEANUP_INTERVAL; // Guarded by lock
+
+    private static final class Record {
+        final Thread owner = Thread.currentThread();
+        volatile Record next;
+        // The pending operation; the combiner sets it back to null once result is filled in
+        volatile Function<Object, Object> request;
+        Object result;
+        Throwable failure;
+    }
+
+    public FlatCombiner(S state) {
+        this.state = state;
+    }
+
+    // Runs operation on the state, possibly on another thread, and returns its result
+    @SuppressWarnings("unchecked")
+    public <R> R apply(Function<? super S, ? extends R> operation) {
+        if (!lock.get() && lock.compareAndSet(false, true)) {
+            // Nobody is combining: run our own operation directly, then serve the others
+            try {
+                return operation.apply(state);
+            } finally {
+                try {
+                    combine(1);
+                } finally {
+                    lock.set(false);
+                }
+            }
+        }
+        Record mine = myRecord();
+        mine.request = (Function<Object, Object>) (Function<?, ?>) operation;
+        int spins = 0;
+        while (mine.request != null) {
+            if (!lock.get() && lock.compareAndSet(false, true)) {
+                try {
+                    combine(0);
+                } finally {
+                    lock.set(false);
+                }
+            } else if (++spins > SPINS) {
+                Thread.yield(); // The combiner may have been descheduled
+            } else {
+                Thread.onSpinWait();
+            }
+        }
+        Throwable failure = mine.failure;
+        Object result = mine.result;
+        mine.failure = null;
+        mine.result = null;
+        if (failure != null) {
+            if (failure instanceof RuntimeException e) {
+                throw e;
+            }
+            throw (Error) failure;
+        }
+        return (R) result;
+    }
+
+    public void execute(Consumer<? super S> operation) {
+        apply(s -> {
+            operation.accept(s);
+            return null;
+        });
+    }
+
+    // Average number of operations a combining pass served; near 1 means little contention
+    public double averageBatchSize() {
+        long passes = combiningPasses.sum();
+        return passes == 0 ? 0 : (double) combinedOperations.sum() / passes;
+    }
+
+    private Record myRecord() {
+        Record mine = record.get();
+        if (mine == null) {
+            mine = new Record();
+            record.set(mine);
+            Record first;
+            do {
+                first = head.get();
+                mine.next = first;
+            } while (!head.compareAndSet(first, mine));
+        }
+        return mine;
+    }
+
+    // Called with the lock held. Scans the list until a pass finds nothing to do, at most
+    // MAX_PASSES times, so that one combiner does not serve the others forever.
+    private void combine(int alreadyServed) {
+        long served = alreadyServed;
+        for (int pass = 0; pass < MAX_PASSES; pass++) {
+            int found = 0;
+            for (Record r = head.get(); r != null; r = r.next) {
+                Function<Object, Object> operation = r.request;
+                if (operation != null) {
+                    try {
+                        r.result = operation.apply(state);
+                    } catch (Throwable t) {
+                        r.failure = t;
+                    }
+                    r.request = null; // Publishes result and failure to the waiting thread
+                    found++;
+                }
+            }
+            served += found;
+            if (found == 0) {
+                break;
+            }
+        }
+        if (served > 0) {
+            combiningPasses.increment();
+            combinedOperations.add(served);
+        }
+        if (--combinesUntilCleanup == 0) {
+            combinesUntilCleanup = CLEANUP_INTERVAL;
+            removeDeadRecords();
+        }
+    }
+
+    // Only the head is ever changed by other threads, so everything behind it can be unlinked
+    private void removeDeadRecords() {
+        Record previous = head.get();
+        if (previous == null) {
+            return;
+        }
+        for (Record r = previous.next; r != null; r = r.next) {
+            if (r.owner.isAlive() || r.request != null) {
+                previous = r;
+            } else {
+                previous.next = r.next;
+            }
+        }
+    }
+}
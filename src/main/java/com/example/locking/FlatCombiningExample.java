@@ -0,0 +1,199 @@
+package com.example.locking;
+
+import java.util.PriorityQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class FlatCombiningExample {
+    private static final int NUM_THREADS = 8;
+    private static final long MEASURE_MILLIS = 500;
+
+    // The SynchronizedExample counter
+    static class SynchronizedCounter {
+        private long counter;
+
+        synchronized void increment() {
+            counter++;
+        }
+
+        synchronized long get() {
+            return counter;
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        System.out.println("Flat Combining Example");
+        System.out.println("======================");
+        System.out.println("This example shares a counter and a priority queue between " + NUM_THREADS + " threads,");
+        System.out.println("with one combiner thread running everybody's pending operations in batches.\n");
+        System.out.println("Available processors: " + Runtime.getRuntime().availableProcessors());
+
+        System.out.println("\nPart 1: Shared counter");
+        for (int round = 0; round < 2; round++) {
+            counterBenchmark(round == 1); // First round is warm-up
+        }
+
+        Thread.sleep(1000);
+
+        System.out.println("\nPart 2: Shared priority queue, half offers and half polls");
+        for (int round = 0; round < 2; round++) {
+            queueBenchmark(round == 1);
+        }
+
+        System.out.println("\nExplanation:");
+        System.out.println("With a lock, every operation needs its own hand-off of the lock and of the cache");
+        System.out.println("lines of the protected data from one core to the next.");
+        System.out.println("- With flat combining, threads publish their operation in a per-thread record and");
+        System.out.println("  one thread that gets the lock runs all pending operations in a single pass");
+        System.out.println("- The lock and the data move once per batch; the average batch size shows how");
+        System.out.println("  many operations shared one hand-off");
+        System.out.println("- It works for any sequential structure, such as PriorityQueue, where no lock-free");
+        System.out.println("  version is at hand; for a plain counter an atomic increment is hard to beat");
+        System.out.println("- Batches only form when threads really run at the same time; on one core the");
+        System.out.println("  combiner mostly serves itself and the extra bookkeeping makes it slower");
+    }
+
+    interface Operation {
+        void run(ThreadLocalRandom random);
+    }
+
+    private static void counterBenchmark(boolean print) throws InterruptedException {
+        SynchronizedCounter synchronizedCounter = new SynchronizedCounter();
+        report(print, "synchronized", run(random -> synchronizedCounter.increment()), synchronizedCounter.get());
+
+        ReentrantLock lock = new ReentrantLock();
+        long[] lockedCounter = new long[1];
+        report(print, "ReentrantLock", run(random -> {
+            lock.lock();
+            try {
+                lockedCounter[0]++;
+            } finally {
+                lock.unlock();
+            }
+        }), lockedCounter[0]);
+
+        AtomicLong atomicCounter = new AtomicLong();
+        report(print, "AtomicLong", run(random -> atomicCounter.incrementAndGet()), atomicCounter.get());
+
+        FlatCombiner<long[]> combined = new FlatCombiner<>(new long[1]);
+        long ops = run(random -> combined.execute(counter -> counter[0]++));
+        report(print, "FlatCombiner", ops, combined.apply(counter -> counter[0]));
+        if (print) {
+            System.out.printf("  (average batch size %.2f)%n", combined.averageBatchSize());
+        }
+    }
+
+    // The counter value must equal the number of increments for every variant
+    private static void report(boolean print, String name, long ops, long counter) {
+        if (print) {
+            System.out.printf("%-28s %,14d op/s   %s%n", name, ops * 1000 / MEASURE_MILLIS,
+                    counter == ops ? "count correct" : "COUNT WRONG: " + counter + " vs " + ops);
+        }
+    }
+
+    private static void queueBenchmark(boolean print) throws InterruptedException {
+        PriorityQueue<Integer> synchronizedQueue = prefilled(new PriorityQueue<>());
+        long ops = run(random -> {
+            synchronized (synchronizedQueue) {
+                queueOperation(synchronizedQueue, random);
+            }
+        });
+        printQueue(print, "synchronized PriorityQueue", ops);
+
+        ReentrantLock lock = new ReentrantLock();
+        PriorityQueue<Integer> lockedQueue = prefilled(new PriorityQueue<>());
+        ops = run(random -> {
+            lock.lock();
+            try {
+                queueOperation(lockedQueue, random);
+            } finally {
+                lock.unlock();
+            }
+        });
+        printQueue(print, "ReentrantLock PriorityQueue", ops);
+
+        PriorityBlockingQueue<Integer> blockingQueue = new PriorityBlockingQueue<>();
+        for (int i = 0; i < 1_000; i++) {
+            blockingQueue.add(i);
+        }
+        ops = run(random -> {
+            if (random.nextBoolean()) {
+                blockingQueue.offer(random.nextInt(1_000_000));
+            } else {
+                blockingQueue.poll();
+            }
+        });
+        printQueue(print, "PriorityBlockingQueue", ops);
+
+        FlatCombiner<PriorityQueue<Integer>> combined = new FlatCombiner<>(prefilled(new PriorityQueue<>()));
+        ops = run(random -> {
+            // Draw the random number outside, so the combiner does not use its own generator
+            int value = random.nextInt(1_000_000);
+            boolean offer = random.nextBoolean();
+            combined.apply(queue -> offer ? queue.offer(value) : queue.poll());
+        });
+        printQueue(print, "FlatCombiner PriorityQueue", ops);
+        if (print) {
+            System.out.printf("  (average batch size %.2f)%n", combined.averageBatchSize());
+        }
+    }
+
+    private static PriorityQueue<Integer> prefilled(PriorityQueue<Integer> queue) {
+        for (int i = 0; i < 1_000; i++) {
+            queue.add(i);
+        }
+        return queue;
+    }
+
+    private static void queueOperation(PriorityQueue<Integer> queue, ThreadLocalRandom random) {
+        if (random.nextBoolean()) {
+            queue.offer(random.nextInt(1_000_000));
+        } else {
+            queue.poll();
+        }
+    }
+
+    private static void printQueue(boolean print, String name, long ops) {
+        if (print) {
+            System.out.printf("%-28s %,14d op/s%n", name, ops * 1000 / MEASURE_MILLIS);
+        }
+    }
+
+    // Returns the total number of operations completed by all threads
+    private static long run(Operation operation) throws InterruptedException {
+        LongAdder ops = new LongAdder();
+        AtomicBoolean running = new AtomicBoolean(true);
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] workers = new Thread[NUM_THREADS];
+        for (int t = 0; t < NUM_THREADS; t++) {
+            workers[t] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                long count = 0;
+                while (running.get()) {
+                    operation.run(random);
+                    count++;
+                }
+                ops.add(count);
+            });
+            workers[t].start();
+        }
+        start.countDown();
+        Thread.sleep(MEASURE_MILLIS);
+        running.set(false);
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        return ops.sum();
+    }
+}
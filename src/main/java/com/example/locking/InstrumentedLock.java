@@ -0,0 +1,361 @@
+package com.example.locking;
+
+import com.example.metrics.Counter;
+import com.example.metrics.HistogramSnapshot;
+import com.example.metrics.LatencyHistogram;
+import com.example.metrics.MetricsRegistry;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+// ReentrantLock that reports how much it costs: how long threads wait to acquire it, how
+// long they hold it, how often an acquisition finds it taken, and which call sites do
+// most of the waiting. Metrics live in a MetricsRegistry under "lock.<name>.*", so they
+// show up in the same snapshots as the rest of the application's metrics.
+//
+// An uncontended acquisition is a tryLock() plus one counter increment. Timing and call
+// site capture only happen for sampled acquisitions, one in sampleEvery on average, so
+// a large sampleEvery keeps the lock cheap enough to leave on in production while the
+// histograms still show the shape of the wait and hold times. Contention is counted on
+// every acquisition because it only costs anything on the path that is about to block.
+//
+// Hold times are measured from the outermost lock() to the matching unlock(), so they
+// include time spent in Condition.await() on a condition of this lock. Other threads
+// take the lock while one is waiting, so newCondition() returns a wrapper that puts the
+// waiting thread's hold start back once await() has re-acquired the lock.
+public class InstrumentedLock implements Lock {
+    private static final int MAX_CALL_SITES = 256;
+    private static final StackWalker WALKER = StackWalker.getInstance();
+
+    private final ReentrantLock lock;
+    private final String name;
+    private final int sampleEvery;
+
+    private final Counter acquisitions;
+    private final Counter contended;
+    private final Counter failedTryLocks;
+    private final LatencyHistogram waitTimes;
+    private final LatencyHistogram holdTimes;
+    private final ConcurrentHashMap<String, CallSiteStats> waitingCallSites = new ConcurrentHashMap<>();
+
+    // Start of the owner's hold, 0 if not sampled. Only touched by the owner: written on
+    // every outermost acquisition and restored by InstrumentedCondition after await().
+    private long holdStart;
+
+    // Contended acquisitions from one place in the code
+    public record CallSite(String location, long contendedCount, long totalWaitNanos) {
+        @Override
+        public String toString() {
+            return String.format("%s: %d contended, %.1fms waiting", location, contendedCount,
+                    totalWaitNanos / 1_000_000.0);
+        }
+    }
+
+    private static final class CallSiteStats {
+        final LongAdder count = new LongAdder();
+        final LongAdder waitNanos = new LongAdder();
+    }
+
+    // Times every acquisition and registers in the global registry
+    public InstrumentedLock(String name) {
+        this(name, false, 1, MetricsRegistry.global());
+    }
+
+    public InstrumentedLock(String name, boolean fair) {
+        this(name, fair, 1, MetricsRegistry.global());
+    }
+
+    public InstrumentedLock(String name, boolean fair, int sampleEvery, MetricsRegistry registry) {
+        if (sampleEvery <= 0) {
+            throw new IllegalArgumentException("sampleEvery must be positive");
+        }
+        this.lock = new ReentrantLock(fair);
+        this.name = name;
+        this.sampleEvery = sampleEvery;
+        String prefix = "lock." + name + ".";
+        this.acquisitions = registry.counter(prefix + "acquisitions");
+        this.contended = registry.counter(prefix + "contended");
+        this.failedTryLocks = registry.counter(prefix + "failedTryLocks");
+        this.waitTimes = registry.histogram(prefix + "wait");
+        this.holdTimes = registry.histogram(prefix + "hold");
+    }
+
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public void lock() {
+        if (lock.isHeldByCurrentThread()) {
+            lock.lock(); // Reentrant acquisitions are neither contended nor new holds
+            return;
+        }
+        boolean sampled = sample();
+        long start = sampled ? System.nanoTime() : 0L;
+        if (!tryLockInOrder()) {
+            contended.increment();
+            lock.lock();
+            if (sampled) {
+                recordCallSite(System.nanoTime() - start);
+            }
+        }
+        acquired(sampled, start);
+    }
+
+    @Override
+    public void lockInterruptibly() throws InterruptedException {
+        if (lock.isHeldByCurrentThread()) {
+            lock.lockInterruptibly();
+            return;
+        }
+        boolean sampled = sample();
+        long start = sampled ? System.nanoTime() : 0L;
+        if (!tryLockInOrder()) {
+            contended.increment();
+            try {
+                lock.lockInterruptibly();
+            } finally {
+                if (sampled) {
+                    recordCallSite(System.nanoTime() - start); // Interrupted waits also count
+                }
+            }
+        }
+        acquired(sampled, start);
+    }
+
+    @Override
+    public boolean tryLock() {
+        if (lock.isHeldByCurrentThread()) {
+            return lock.tryLock();
+        }
+        if (!lock.tryLock()) {
+            contended.increment();
+            failedTryLocks.increment();
+            return false;
+        }
+        boolean sampled = sample();
+        acquired(sampled, sampled ? System.nanoTime() : 0L);
+        return true;
+    }
+
+    @Override
+    public boolean tryLock(long time, TimeUnit unit) throws InterruptedException {
+        if (lock.isHeldByCurrentThread()) {
+            return lock.tryLock(time, unit);
+        }
+        boolean sampled = sample();
+        long start = sampled ? System.nanoTime() : 0L;
+        if (!tryLockInOrder()) {
+            contended.increment();
+            boolean acquired = lock.tryLock(time, unit);
+            if (sampled) {
+                recordCallSite(System.nanoTime() - start);
+            }
+            if (!acquired) {
+                failedTryLocks.increment();
+                return false;
+            }
+        }
+        acquired(sampled, start);
+        return true;
+    }
+
+    // The uncontended probe before blocking. ReentrantLock.tryLock() barges even on a fair
+    // lock, so a fair lock is only taken here if it is free and nobody is queued for it,
+    // the same check a fair ReentrantLock makes before queueing.
+    private boolean tryLockInOrder() {
+        if (!lock.isFair()) {
+            return lock.tryLock();
+        }
+        return !lock.isLocked() && !lock.hasQueuedThreads() && lock.tryLock();
+    }
+
+    @Override
+    public void unlock() {
+        long start = holdStart;
+        boolean outermost = lock.getHoldCount() == 1;
+        if (outermost) {
+            holdStart = 0L;
+        }
+        lock.unlock();
+        if (outermost && start != 0L) {
+            holdTimes.recordSince(start);
+        }
+    }
+
+    @Override
+    public Condition newCondition() {
+        return new InstrumentedCondition(lock.newCondition());
+    }
+
+    public long acquisitionCount() {
+        return acquisitions.get();
+    }
+
+    // Acquisitions (including failed tryLocks) that found the lock held by another thread
+    public long contendedCount() {
+        return contended.get();
+    }
+
+    // tryLock() calls that found the lock held and timed tryLock calls that gave up
+    public long failedTryLockCount() {
+        return failedTryLocks.get();
+    }
+
+    public double contentionRate() {
+        long total = acquisitions.get() + failedTryLocks.get();
+        return total == 0 ? 0 : (double) contended.get() / total;
+    }
+
+    public HistogramSnapshot waitTimes() {
+        return waitTimes.snapshot();
+    }
+
+    public HistogramSnapshot holdTimes() {
+        return holdTimes.snapshot();
+    }
+
+    // Sampled call sites ordered by total time spent waiting
+    public List<CallSite> topWaitingCallSites(int limit) {
+        List<CallSite> sites = new ArrayList<>();
+        waitingCallSites.forEach((location, stats) ->
+                sites.add(new CallSite(location, stats.count.sum(), stats.waitNanos.sum())));
+        sites.sort(Comparator.comparingLong(CallSite::totalWaitNanos).reversed());
+        return sites.subList(0, Math.min(limit, sites.size()));
+    }
+
+    // Multi-line summary for logs or the console
+    public String report(int topCallSites) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Lock '%s': %d acquisitions, %d contended (%.1f%%), %d failed tryLocks, sampling 1/%d%n",
+                name, acquisitionCount(), contendedCount(), 100 * contentionRate(), failedTryLockCount(), sampleEvery));
+        sb.append("  ").append(waitTimes()).append(System.lineSeparator());
+        sb.append("  ").append(holdTimes()).append(System.lineSeparator());
+        for (CallSite site : topWaitingCallSites(topCallSites)) {
+            sb.append("  waited at ").append(site).append(System.lineSeparator());
+        }
+        return sb.toString();
+    }
+
+    private boolean sample() {
+        return sampleEvery == 1 || ThreadLocalRandom.current().nextInt(sampleEvery) == 0;
+    }
+
+    private void acquired(boolean sampled, long start) {
+        acquisitions.increment();
+        if (sampled) {
+            long now = System.nanoTime();
+            waitTimes.recordNanos(now - start);
+            holdStart = now;
+        } else {
+            holdStart = 0L;
+        }
+    }
+
+    // Walking the stack costs microseconds, but only sampled waits that already blocked pay it
+    private void recordCallSite(long waitNanos) {
+        String location = WALKER.walk(frames -> frames
+                .filter(frame -> !frame.getClassName().equals(InstrumentedLock.class.getName()))
+                .findFirst()
+                .map(frame -> frame.getClassName() + "." + frame.getMethodName() +
+                        "(" + frame.getFileName() + ":" + frame.getLineNumber() + ")")
+                .orElse("unknown"));
+        CallSiteStats stats = waitingCallSites.get(location);
+        if (stats == null) {
+            if (waitingCallSites.size() >= MAX_CALL_SITES) {
+                location = "other";
+            }
+            stats = waitingCallSites.computeIfAbsent(location, key -> new CallSiteStats());
+        }
+        stats.count.increment();
+        stats.waitNanos.add(waitNanos);
+    }
+
+    // await() releases the lock, and the threads that hold it meanwhile overwrite
+    // holdStart, so each await saves the caller's value and restores it once the lock is
+    // held again, including when the wait is interrupted. A caller that does not hold the
+    // lock gets the IllegalMonitorStateException before anything is saved.
+    private final class InstrumentedCondition implements Condition {
+        private final Condition condition;
+
+        InstrumentedCondition(Condition condition) {
+            this.condition = condition;
+        }
+
+        @Override
+        public void await() throws InterruptedException {
+            long saved = savedHoldStart();
+            try {
+                condition.await();
+            } finally {
+                holdStart = saved;
+            }
+        }
+
+        @Override
+        public void awaitUninterruptibly() {
+            long saved = savedHoldStart();
+            try {
+                condition.awaitUninterruptibly();
+            } finally {
+                holdStart = saved;
+            }
+        }
+
+        @Override
+        public long awaitNanos(long nanosTimeout) throws InterruptedException {
+            long saved = savedHoldStart();
+            try {
+                return condition.awaitNanos(nanosTimeout);
+            } finally {
+                holdStart = saved;
+            }
+        }
+
+        @Override
+        public boolean await(long time, TimeUnit unit) throws InterruptedException {
+            long saved = savedHoldStart();
+            try {
+                return condition.await(time, unit);
+            } finally {
+                holdStart = saved;
+            }
+        }
+
+        @Override
+        public boolean awaitUntil(Date deadline) throws InterruptedException {
+            long saved = savedHoldStart();
+            try {
+                return condition.awaitUntil(deadline);
+            } finally {
+                holdStart = saved;
+            }
+        }
+
+        @Override
+        public void signal() {
+            condition.signal();
+        }
+
+        @Override
+        public void signalAll() {
+            condition.signalAll();
+        }
+
+        private long savedHoldStart() {
+            if (!lock.isHeldByCurrentThread()) {
+                throw new IllegalMonitorStateException();
+            }
+            return holdStart;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.locking;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+// Mellor-Crummey and Scott queue lock. A thread appends its own node to the queue with
+// one getAndSet on the tail and waits on a flag in that node; the owner, on release,
+// clears the flag in its successor's node. Threads get the lock in arrival order, and
+// each waiter only ever reads its own node.
+//
+// Compared to ClhLock, the release has to find the successor through next, which a
+// newly arrived thread links only after swapping the tail, so an owner may briefly
+// wait for that link. In exchange each thread waits on memory it allocated itself,
+// which matters on machines where memory is local to a socket.
+public class McsLock extends QueueLock {
+    private final AtomicReference<Node> tail = new AtomicReference<>();
+
+    @Override
+    public void lock() {
+        checkNotOwner();
+        Node node = new Node(true);
+        Node predecessor = tail.getAndSet(node);
+        if (predecessor != null) {
+            predecessor.next = node;
+            await(node);
+        }
+        acquired(node);
+    }
+
+    // Only succeeds when nobody holds or waits for the lock, which keeps it fair
+    @Override
+    public boolean tryLock() {
+        checkNotOwner();
+        Node node = new Node(false);
+        if (!tail.compareAndSet(null, node)) {
+            return false;
+        }
+        acquired(node);
+        return true;
+    }
+
+    @Override
+    public void unlock() {
+        Node node = releasing();
+        Node successor = node.next;
+        if (successor == null) {
+            if (tail.compareAndSet(node, null)) {
+                return; // Nobody waiting
+            }
+            // A thread swapped the tail but has not linked itself to us yet; that takes a
+            // few instructions unless it was preempted, so let it run
+            while ((successor = node.next) == null) {
+                Thread.yield();
+            }
+        }
+        signal(successor);
+    }
+}
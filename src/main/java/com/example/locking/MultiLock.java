@@ -0,0 +1,174 @@
+package com.example.locking;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Acquires any number of locks as one, without deadlock. The locks are taken in a
+// global order, by System.identityHashCode, so two threads locking overlapping sets
+// always meet at the lowest lock they share and never wait for each other in a cycle.
+//
+// Identity hash codes are not unique. If two locks of the set collide, their relative
+// order is arbitrary, so such sets first take one global tie-break lock: every thread
+// that needs both colliding locks holds it while acquiring them, which again rules out
+// a cycle. Collisions are rare, so the tie-break lock is almost never contended.
+//
+// tryLock(time, unit) applies one deadline to the whole set and releases whatever it
+// got if the deadline passes. Ordering already prevents deadlock; the deadline bounds
+// how long a caller waits for busy locks.
+public class MultiLock implements Lock {
+    private static final Lock TIE_BREAK_LOCK = new ReentrantLock();
+
+    private final Lock[] locks;
+    private final boolean needsTieBreak;
+
+    public MultiLock(Lock... locks) {
+        // Insertion sort: sets are small, and this runs once per acquisition in typical use
+        Lock[] sorted = new Lock[locks.length];
+        int[] hashes = new int[locks.length];
+        int count = 0;
+        boolean tie = false;
+        for (Lock lock : locks) {
+            int hash = System.identityHashCode(Objects.requireNonNull(lock));
+            int i = count;
+            while (i > 0 && hashes[i - 1] > hash) {
+                i--;
+            }
+            boolean duplicate = false;
+            for (int j = i - 1; j >= 0 && hashes[j] == hash; j--) {
+                if (sorted[j] == lock) {
+                    duplicate = true;
+                } else {
+                    tie = true;
+                }
+            }
+            if (duplicate) {
+                continue;
+            }
+            System.arraycopy(sorted, i, sorted, i + 1, count - i);
+            System.arraycopy(hashes, i, hashes, i + 1, count - i);
+            sorted[i] = lock;
+            hashes[i] = hash;
+            count++;
+        }
+        this.locks = Arrays.copyOf(sorted, count);
+        this.needsTieBreak = tie;
+    }
+
+    public MultiLock(Collection<? extends Lock> locks) {
+        this(locks.toArray(new Lock[0]));
+    }
+
+    public int size() {
+        return locks.length;
+    }
+
+    public boolean needsTieBreak() {
+        return needsTieBreak;
+    }
+
+    @Override
+    public void lock() {
+        if (needsTieBreak) {
+            TIE_BREAK_LOCK.lock();
+        }
+        try {
+            for (Lock lock : locks) {
+                lock.lock();
+            }
+        } finally {
+            if (needsTieBreak) {
+                TIE_BREAK_LOCK.unlock(); // Only needed while acquiring
+            }
+        }
+    }
+
+    @Override
+    public void lockInterruptibly() throws InterruptedException {
+        if (needsTieBreak) {
+            TIE_BREAK_LOCK.lockInterruptibly();
+        }
+        int acquired = 0;
+        try {
+            for (; acquired < locks.length; acquired++) {
+                locks[acquired].lockInterruptibly();
+            }
+        } catch (InterruptedException e) {
+            unlockFirst(acquired);
+            throw e;
+        } finally {
+            if (needsTieBreak) {
+                TIE_BREAK_LOCK.unlock();
+            }
+        }
+    }
+
+    @Override
+    public boolean tryLock() {
+        if (needsTieBreak && !TIE_BREAK_LOCK.tryLock()) {
+            return false;
+        }
+        try {
+            for (int i = 0; i < locks.length; i++) {
+                if (!locks[i].tryLock()) {
+                    unlockFirst(i);
+                    return false;
+                }
+            }
+            return true;
+        } finally {
+            if (needsTieBreak) {
+                TIE_BREAK_LOCK.unlock();
+            }
+        }
+    }
+
+    // One deadline for the whole set, not per lock
+    @Override
+    public boolean tryLock(long time, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(time);
+        if (needsTieBreak && !TIE_BREAK_LOCK.tryLock(time, unit)) {
+            return false;
+        }
+        int acquired = 0;
+        try {
+            for (; acquired < locks.length; acquired++) {
+                long remaining = deadline - System.nanoTime();
+                if (!locks[acquired].tryLock(Math.max(0, remaining), TimeUnit.NANOSECONDS)) {
+                    unlockFirst(acquired);
+                    return false;
+                }
+            }
+            return true;
+        } catch (InterruptedException e) {
+            unlockFirst(acquired);
+            throw e;
+        } finally {
+            if (needsTieBreak) {
+                TIE_BREAK_LOCK.unlock();
+            }
+        }
+    }
+
+    @Override
+    public void unlock() {
+        unlockFirst(locks.length);
+    }
+
+    // A condition would have to release and reacquire the whole set atomically
+    @Override
+    public Condition newCondition() {
+        throw new UnsupportedOperationException();
+    }
+
+    // Releases locks[0..count) in reverse acquisition order
+    private void unlockFirst(int count) {
+        for (int i = count - 1; i >= 0; i--) {
+            locks[i].unlock();
+        }
+    }
+}
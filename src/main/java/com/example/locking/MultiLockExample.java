@@ -0,0 +1,292 @@
+package com.example.locking;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class MultiLockExample {
+    private static final int NUM_ACCOUNTS = 64;
+    private static final int NUM_THREADS = 4;
+    private static final int[] WAYS = {2, 4, 8};
+    private static final long MEASURE_MILLIS = 500;
+
+    public static void main(String[] args) throws InterruptedException {
+        System.out.println("MultiLock Example");
+        System.out.println("=================");
+        System.out.println("This example acquires arbitrary sets of locks in one global order, with a");
+        System.out.println("tie-break lock for identity hash collisions and an overall deadline.\n");
+
+        System.out.println("Part 1: Opposite request orders and colliding identity hash codes");
+        orderingAndTies();
+
+        Thread.sleep(1000);
+
+        System.out.println("\nPart 2: tryLock with one deadline for the whole set");
+        deadline();
+
+        Thread.sleep(1000);
+
+        System.out.println("\nPart 3: N-way transfers between " + NUM_ACCOUNTS + " accounts, " +
+                          NUM_THREADS + " threads");
+        benchmark();
+
+        System.out.println("\nExplanation:");
+        System.out.println("Ordering locks by hand works for two of them, but breaks down for N locks and for");
+        System.out.println("locks whose identity hash codes are equal; DeadlockPreventionExample's");
+        System.out.println("ResourceOrderer now delegates to MultiLock for that reason.");
+        System.out.println("- MultiLock sorts any number of locks by identity hash code and drops duplicates");
+        System.out.println("- Sets with colliding hash codes acquire through one global tie-break lock");
+        System.out.println("- Ordered acquisition never deadlocks, so a waiting thread never has to back off");
+        System.out.println("- Retry-with-backoff avoids deadlock by giving up, which wastes the locks already");
+        System.out.println("  taken and the backoff time, more so the more locks a transfer needs");
+        System.out.println("- Retries only happen under contention; with few cores the locks are mostly free,");
+        System.out.println("  and then building and sorting the set is the main cost of MultiLock");
+        System.out.println("- tryLock(time, unit) bounds the total wait and releases partial acquisitions");
+    }
+
+    // Part 1: Threads request the same locks in opposite orders; MultiLock reorders them
+    private static void orderingAndTies() throws InterruptedException {
+        Lock a = new ReentrantLock();
+        Lock b = new ReentrantLock();
+        Lock c = new ReentrantLock();
+        long[] counter = new long[1];
+        Thread forward = new Thread(() -> repeat(new MultiLock(a, b, c), counter));
+        Thread backward = new Thread(() -> repeat(new MultiLock(c, b, a, b), counter));
+        forward.start();
+        backward.start();
+        forward.join(5_000);
+        backward.join(5_000);
+        System.out.println("Opposite orders finished without deadlock: " + !(forward.isAlive() || backward.isAlive()) +
+                          ", updates: " + counter[0]);
+
+        Lock[] colliding = findCollidingLocks();
+        MultiLock tied = new MultiLock(colliding[0], colliding[1]);
+        System.out.println("Found two locks with identityHashCode " + System.identityHashCode(colliding[0]) +
+                          "; MultiLock needs tie-break: " + tied.needsTieBreak());
+        long[] tiedCounter = new long[1];
+        Thread first = new Thread(() -> repeat(new MultiLock(colliding[0], colliding[1]), tiedCounter));
+        Thread second = new Thread(() -> repeat(new MultiLock(colliding[1], colliding[0]), tiedCounter));
+        first.start();
+        second.start();
+        first.join(5_000);
+        second.join(5_000);
+        System.out.println("Colliding locks in opposite orders finished: " + !(first.isAlive() || second.isAlive()) +
+                          ", updates: " + tiedCounter[0]);
+    }
+
+    private static void repeat(MultiLock lock, long[] counter) {
+        for (int i = 0; i < 100_000; i++) {
+            lock.lock();
+            try {
+                counter[0]++;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    // Identity hash codes have about 31 bits, so a collision turns up after some 10^5 objects
+    private static Lock[] findCollidingLocks() {
+        Map<Integer, Lock> byHash = new HashMap<>();
+        while (true) {
+            Lock lock = new ReentrantLock();
+            Lock previous = byHash.putIfAbsent(System.identityHashCode(lock), lock);
+            if (previous != null) {
+                return new Lock[] {previous, lock};
+            }
+        }
+    }
+
+    // Part 2: One lock of the set is busy longer than the deadline
+    private static void deadline() throws InterruptedException {
+        Lock free = new ReentrantLock();
+        ReentrantLock busy = new ReentrantLock();
+        CountDownLatch held = new CountDownLatch(1);
+        Thread holder = new Thread(() -> {
+            busy.lock();
+            try {
+                held.countDown();
+                Thread.sleep(500);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                busy.unlock();
+            }
+        });
+        holder.start();
+        held.await();
+
+        MultiLock both = new MultiLock(free, busy);
+        long start = System.nanoTime();
+        boolean acquired = both.tryLock(100, TimeUnit.MILLISECONDS);
+        long waited = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        System.out.println("tryLock(100ms) while one lock is held for 500ms: " + acquired + " after " + waited + "ms");
+        boolean freeReleased = free.tryLock();
+        if (freeReleased) {
+            free.unlock();
+        }
+        System.out.println("The free lock was released again: " + freeReleased);
+        holder.join();
+        System.out.println("After the holder finished, tryLock(100ms): " + tryOnce(both));
+    }
+
+    private static boolean tryOnce(MultiLock lock) throws InterruptedException {
+        if (lock.tryLock(100, TimeUnit.MILLISECONDS)) {
+            lock.unlock();
+            return true;
+        }
+        return false;
+    }
+
+    // Part 3: Each transfer moves money from one account to N-1 others under all N locks
+    private static void benchmark() throws InterruptedException {
+        System.out.println("Available processors: " + Runtime.getRuntime().availableProcessors() + "\n");
+        run(new Bank(), 4, true); // Warm up
+        run(new Bank(), 4, false);
+
+        System.out.printf("%-6s %22s %22s %16s%n", "Locks", "MultiLock", "Retry with backoff", "Retries");
+        for (int ways : WAYS) {
+            Bank ordered = new Bank();
+            long orderedRate = run(ordered, ways, true);
+            Bank backoff = new Bank();
+            long backoffRate = run(backoff, ways, false);
+            System.out.printf("%-6d %,13d xfer/s %,13d xfer/s %,16d%n", ways, orderedRate, backoffRate,
+                    backoff.retries.sum());
+            if (ordered.total() != Bank.INITIAL_TOTAL || backoff.total() != Bank.INITIAL_TOTAL) {
+                System.out.println("Money was lost or created!");
+            }
+        }
+    }
+
+    private static class Bank {
+        static final long INITIAL_TOTAL = NUM_ACCOUNTS * 1_000L;
+        final Lock[] locks = new Lock[NUM_ACCOUNTS];
+        final long[] balances = new long[NUM_ACCOUNTS];
+        final LongAdder retries = new LongAdder();
+
+        Bank() {
+            for (int i = 0; i < NUM_ACCOUNTS; i++) {
+                locks[i] = new ReentrantLock();
+                balances[i] = 1_000;
+            }
+        }
+
+        long total() {
+            long total = 0;
+            for (long balance : balances) {
+                total += balance;
+            }
+            return total;
+        }
+
+        void move(int[] accounts) {
+            for (int i = 1; i < accounts.length; i++) {
+                balances[accounts[0]]--;
+                balances[accounts[i]]++;
+            }
+        }
+
+        void transferOrdered(int[] accounts) {
+            Lock[] set = new Lock[accounts.length];
+            for (int i = 0; i < accounts.length; i++) {
+                set[i] = locks[accounts[i]];
+            }
+            MultiLock lock = new MultiLock(set);
+            lock.lock();
+            try {
+                move(accounts);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        // The DeadlockPreventionExample approach: tryLock in request order, give up and back off
+        void transferWithBackoff(int[] accounts) {
+            long backoffNanos = 1_000;
+            while (true) {
+                int acquired = 0;
+                while (acquired < accounts.length && locks[accounts[acquired]].tryLock()) {
+                    acquired++;
+                }
+                if (acquired == accounts.length) {
+                    try {
+                        move(accounts);
+                    } finally {
+                        unlock(accounts, acquired);
+                    }
+                    return;
+                }
+                unlock(accounts, acquired);
+                retries.increment();
+                LockSupport.parkNanos(ThreadLocalRandom.current().nextLong(backoffNanos));
+                backoffNanos = Math.min(backoffNanos * 2, 1_000_000);
+            }
+        }
+
+        private void unlock(int[] accounts, int count) {
+            for (int i = count - 1; i >= 0; i--) {
+                locks[accounts[i]].unlock();
+            }
+        }
+    }
+
+    private static long run(Bank bank, int ways, boolean ordered) throws InterruptedException {
+        LongAdder transfers = new LongAdder();
+        AtomicBoolean running = new AtomicBoolean(true);
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] workers = new Thread[NUM_THREADS];
+        for (int t = 0; t < NUM_THREADS; t++) {
+            workers[t] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                long count = 0;
+                int[] accounts = new int[ways];
+                while (running.get()) {
+                    pickDistinct(accounts);
+                    if (ordered) {
+                        bank.transferOrdered(accounts);
+                    } else {
+                        bank.transferWithBackoff(accounts);
+                    }
+                    count++;
+                }
+                transfers.add(count);
+            });
+            workers[t].start();
+        }
+        start.countDown();
+        Thread.sleep(MEASURE_MILLIS);
+        running.set(false);
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        return transfers.sum() * 1000 / MEASURE_MILLIS;
+    }
+
+    private static void pickDistinct(int[] accounts) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < accounts.length; i++) {
+            int candidate;
+            boolean duplicate;
+            do {
+                candidate = random.nextInt(NUM_ACCOUNTS);
+                duplicate = false;
+                for (int j = 0; j < i; j++) {
+                    duplicate |= accounts[j] == candidate;
+                }
+            } while (duplicate);
+            accounts[i] = candidate;
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package com.example.locking;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Function;
+
+// Keyed cache for read-mostly data guarded by a single StampedLock. Lookups read the
+// open-addressing table under an optimistic stamp, which only reads the lock state and
+// never writes to it, so readers on different cores do not invalidate each other's
+// cache lines the way ReentrantReadWriteLock's reader count does. Only when validate()
+// fails, because a writer got in between, does the lookup repeat under the read lock.
+//
+// Optimistic reads may observe a table in the middle of an update, so the read path
+// follows the rules from the StampedLock documentation: the table is read through one
+// immutable snapshot of its arrays, probing is bounded by the capacity, hashes are
+// compared before equals(), and any exception is treated like a failed validation.
+public class OptimisticReadCache<K, V> {
+    private static final int MIN_CAPACITY = 16;
+
+    private final StampedLock lock = new StampedLock();
+    private Table table;
+    private int size;
+
+    private final LongAdder optimisticReads = new LongAdder();
+    private final LongAdder lockedReads = new LongAdder();
+
+    // Parallel arrays: hashes[i] is 0 for an empty slot, key hashes are forced non-zero
+    private static final class Table {
+        final int[] hashes;
+        final Object[] keys;
+        final Object[] values;
+        final int mask;
+
+        Table(int capacity) {
+            hashes = new int[capacity];
+            keys = new Object[capacity];
+            values = new Object[capacity];
+            mask = capacity - 1;
+        }
+    }
+
+    public OptimisticReadCache() {
+        this(0);
+    }
+
+    public OptimisticReadCache(int expectedSize) {
+        int capacity = MIN_CAPACITY;
+        while (capacity * 3L / 4 < expectedSize) {
+            capacity <<= 1;
+        }
+        table = new Table(capacity);
+    }
+
+    public V get(K key) {
+        int hash = hash(key);
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                V value = find(table, key, hash);
+                if (lock.validate(stamp)) {
+                    optimisticReads.increment();
+                    return value;
+                }
+            } catch (RuntimeException e) {
+                // Inconsistent snapshot; the read lock below gives a consistent one
+            }
+        }
+
+        stamp = lock.readLock();
+        try {
+            lockedReads.increment();
+            return find(table, key, hash);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public V put(K key, V value) {
+        Objects.requireNonNull(value, "value");
+        int hash = hash(key);
+        long stamp = lock.writeLock();
+        try {
+            return insert(key, hash, value);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // Loads the value under the write lock if it is missing; the loader runs at most once per key
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> loader) {
+        V value = get(key);
+        if (value != null) {
+            return value;
+        }
+        int hash = hash(key);
+        long stamp = lock.writeLock();
+        try {
+            value = find(table, key, hash);
+            if (value == null) {
+                value = Objects.requireNonNull(loader.apply(key), "loader returned null");
+                insert(key, hash, value);
+            }
+            return value;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public V remove(K key) {
+        int hash = hash(key);
+        long stamp = lock.writeLock();
+        try {
+            return delete(key, hash);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public int size() {
+        long stamp = lock.tryOptimisticRead();
+        int currentSize = size;
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                currentSize = size;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return currentSize;
+    }
+
+    // Lookups answered without touching the lock word
+    public long optimisticReadCount() {
+        return optimisticReads.sum();
+    }
+
+    // Lookups that fell back to the read lock because a write intervened
+    public long lockedReadCount() {
+        return lockedReads.sum();
+    }
+
+    @SuppressWarnings("unchecked")
+    private V find(Table t, Object key, int hash) {
+        int[] hashes = t.hashes;
+        Object[] keys = t.keys;
+        Object[] values = t.values;
+        int mask = t.mask;
+        int i = hash & mask;
+        for (int probes = 0; probes <= mask; probes++, i = (i + 1) & mask) {
+            int h = hashes[i];
+            if (h == 0) {
+                return null;
+            }
+            if (h == hash) {
+                Object k = keys[i];
+                if (k == key || (k != null && k.equals(key))) {
+                    return (V) values[i];
+                }
+            }
+        }
+        return null;
+    }
+
+    // Callers hold the write lock
+    @SuppressWarnings("unchecked")
+    private V insert(K key, int hash, V value) {
+        Table t = table;
+        int i = hash & t.mask;
+        while (t.hashes[i] != 0) {
+            if (t.hashes[i] == hash && t.keys[i].equals(key)) {
+                V previous = (V) t.values[i];
+                t.values[i] = value;
+                return previous;
+            }
+            i = (i + 1) & t.mask;
+        }
+        if ((size + 1) * 4L > (t.mask + 1) * 3L) {
+            resize();
+            t = table;
+            i = hash & t.mask;
+            while (t.hashes[i] != 0) {
+                i = (i + 1) & t.mask;
+            }
+        }
+        // Key and value before the hash that makes the slot visible to probes
+        t.keys[i] = key;
+        t.values[i] = value;
+        t.hashes[i] = hash;
+        size++;
+        return null;
+    }
+
+    // Backward-shift deletion keeps probe sequences intact without tombstones
+    @SuppressWarnings("unchecked")
+    private V delete(K key, int hash) {
+        Table t = table;
+        int mask = t.mask;
+        int i = hash & mask;
+        while (t.hashes[i] != 0) {
+            if (t.hashes[i] == hash && t.keys[i].equals(key)) {
+                V previous = (V) t.values[i];
+                int gap = i;
+                int j = (i + 1) & mask;
+                while (t.hashes[j] != 0) {
+                    int home = t.hashes[j] & mask;
+                    // Move j into the gap unless its home slot lies cyclically in (gap, j]
+                    if (((j - home) & mask) >= ((j - gap) & mask)) {
+                        t.hashes[gap] = t.hashes[j];
+                        t.keys[gap] = t.keys[j];
+                        t.values[gap] = t.values[j];
+                        gap = j;
+                    }
+                    j = (j + 1) & mask;
+                }
+                t.hashes[gap] = 0;
+                t.keys[gap] = null;
+                t.values[gap] = null;
+                size--;
+                return previous;
+            }
+            i = (i + 1) & mask;
+        }
+        return null;
+    }
+
+    // Builds the larger table completely before publishing it, so optimistic readers of
+    // the old table keep reading unchanged arrays
+    private void resize() {
+        Table old = table;
+        Table bigger = new Table((old.mask + 1) * 2);
+        for (int i = 0; i <= old.mask; i++) {
+            int h = old.hashes[i];
+            if (h != 0) {
+                int j = h & bigger.mask;
+                while (bigger.hashes[j] != 0) {
+                    j = (j + 1) & bigger.mask;
+                }
+                bigger.hashes[j] = h;
+                bigger.keys[j] = old.keys[i];
+                bigger.values[j] = old.values[i];
+            }
+        }
+        table = bigger;
+    }
+
+    private static int hash(Object key) {
+        int h = key.hashCode();
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        return h == 0 ? 1 : h;
+    }
+}
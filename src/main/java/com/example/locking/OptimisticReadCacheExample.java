@@ -0,0 +1,217 @@
+package com.example.locking;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+public class OptimisticReadCacheExample {
+    private static final int NUM_KEYS = 10_000;
+    private static final int NUM_THREADS = 4;
+    private static final int OPS_PER_THREAD = 2_000_000;
+
+    // Common view of the caches under test
+    interface Cache {
+        String get(Integer key);
+
+        void put(Integer key, String value);
+    }
+
+    // The ReadWriteLockExample approach: a HashMap behind a ReentrantReadWriteLock
+    static class ReadWriteLockCache implements Cache {
+        private final Map<Integer, String> map = new HashMap<>();
+        private final ReadWriteLock rwLock = new ReentrantReadWriteLock();
+
+        @Override
+        public String get(Integer key) {
+            rwLock.readLock().lock();
+            try {
+                return map.get(key);
+            } finally {
+                rwLock.readLock().unlock();
+            }
+        }
+
+        @Override
+        public void put(Integer key, String value) {
+            rwLock.writeLock().lock();
+            try {
+                map.put(key, value);
+            } finally {
+                rwLock.writeLock().unlock();
+            }
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        System.out.println("Optimistic Read Cache Example");
+        System.out.println("=============================");
+        System.out.println("This example builds a keyed cache whose lookups use StampedLock optimistic");
+        System.out.println("reads and only take the read lock when a concurrent write invalidates them.\n");
+
+        System.out.println("Part 1: Readers always see consistent entries while writers update");
+        consistencyCheck();
+
+        Thread.sleep(1000);
+
+        System.out.println("\nPart 2: Throughput at 95/5 and 99/1 read/write mixes");
+        benchmark();
+
+        System.out.println("\nExplanation:");
+        System.out.println("Every ReentrantReadWriteLock.readLock().lock() is a CAS on the shared lock state,");
+        System.out.println("so concurrent readers keep moving that cache line between cores.");
+        System.out.println("- tryOptimisticRead() and validate() only read the lock state");
+        System.out.println("- A lookup that raced with a writer is repeated under the read lock");
+        System.out.println("- The table is open addressing with parallel arrays, so a probe reads no entry objects");
+        System.out.println("- Resizing builds a new table before publishing it; optimistic readers see old or new");
+        System.out.println("- Optimistic code must tolerate torn state: bounded loops and no trusted exceptions");
+        System.out.println("- ConcurrentHashMap is lock-free for reads too and remains the default choice");
+    }
+
+    // Part 1: Values always encode their key, so a torn read would show up as a mismatch
+    private static void consistencyCheck() throws InterruptedException {
+        OptimisticReadCache<Integer, String> cache = new OptimisticReadCache<>();
+        for (int i = 0; i < 1_000; i++) {
+            cache.put(i, i + ":0");
+        }
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicLong mismatches = new AtomicLong();
+
+        Thread writer = new Thread(() -> {
+            int version = 0;
+            while (running.get()) {
+                int key = ThreadLocalRandom.current().nextInt(2_000);
+                version++;
+                if (version % 3 == 0) {
+                    cache.remove(key);
+                } else {
+                    cache.put(key, key + ":" + version);
+                }
+            }
+        });
+        Thread[] readers = new Thread[3];
+        for (int r = 0; r < readers.length; r++) {
+            readers[r] = new Thread(() -> {
+                for (int i = 0; i < 1_000_000; i++) {
+                    int key = ThreadLocalRandom.current().nextInt(2_000);
+                    String value = cache.get(key);
+                    if (value != null && !value.startsWith(key + ":")) {
+                        mismatches.incrementAndGet();
+                    }
+                }
+            });
+        }
+        writer.start();
+        for (Thread reader : readers) {
+            reader.start();
+        }
+        for (Thread reader : readers) {
+            reader.join();
+        }
+        running.set(false);
+        writer.join();
+
+        System.out.println("Entries: " + cache.size() + ", mismatched reads: " + mismatches.get());
+        System.out.println("Optimistic reads: " + cache.optimisticReadCount() +
+                          ", fallbacks to the read lock: " + cache.lockedReadCount());
+    }
+
+    // Part 2: Same random operation stream against each cache
+    private static void benchmark() throws InterruptedException {
+        System.out.println(NUM_THREADS + " threads, " + NUM_KEYS + " keys, available processors: " +
+                          Runtime.getRuntime().availableProcessors());
+        System.out.printf("%-10s %22s %22s %22s%n", "Reads", "ReentrantRWLock+HashMap", "OptimisticReadCache",
+                "ConcurrentHashMap");
+
+        for (int readPercent : new int[] {95, 99}) {
+            OptimisticReadCache<Integer, String> optimistic = new OptimisticReadCache<>(NUM_KEYS);
+            Cache optimisticCache = new Cache() {
+                @Override
+                public String get(Integer key) {
+                    return optimistic.get(key);
+                }
+
+                @Override
+                public void put(Integer key, String value) {
+                    optimistic.put(key, value);
+                }
+            };
+            ConcurrentHashMap<Integer, String> chm = new ConcurrentHashMap<>();
+            Cache chmCache = new Cache() {
+                @Override
+                public String get(Integer key) {
+                    return chm.get(key);
+                }
+
+                @Override
+                public void put(Integer key, String value) {
+                    chm.put(key, value);
+                }
+            };
+            Cache rwCache = new ReadWriteLockCache();
+
+            long[] results = new long[3];
+            Cache[] caches = {rwCache, optimisticCache, chmCache};
+            for (int c = 0; c < caches.length; c++) {
+                for (int i = 0; i < NUM_KEYS; i++) {
+                    caches[c].put(i, "value-" + i);
+                }
+                run(caches[c], readPercent, OPS_PER_THREAD / 10); // Warm up
+                long nanos = run(caches[c], readPercent, OPS_PER_THREAD);
+                results[c] = (long) NUM_THREADS * OPS_PER_THREAD * 1_000_000_000L / nanos;
+            }
+            System.out.printf("%-10s %,16d ops/s %,16d ops/s %,16d ops/s%n", readPercent + "%",
+                    results[0], results[1], results[2]);
+            System.out.printf("%-10s %.3f%% of optimistic reads fell back to the read lock%n", "",
+                    100.0 * optimistic.lockedReadCount() /
+                            Math.max(1, optimistic.lockedReadCount() + optimistic.optimisticReadCount()));
+        }
+    }
+
+    private static long run(Cache cache, int readPercent, int ops) throws InterruptedException {
+        // Pre-built values so the write path does not measure string concatenation
+        String[] values = new String[NUM_KEYS];
+        for (int i = 0; i < NUM_KEYS; i++) {
+            values[i] = "updated-" + i;
+        }
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] workers = new Thread[NUM_THREADS];
+        for (int t = 0; t < NUM_THREADS; t++) {
+            workers[t] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                int misses = 0;
+                for (int i = 0; i < ops; i++) {
+                    int key = random.nextInt(NUM_KEYS);
+                    if (random.nextInt(100) < readPercent) {
+                        if (cache.get(key) == null) {
+                            misses++;
+                        }
+                    } else {
+                        cache.put(key, values[key]);
+                    }
+                }
+                if (misses > 0) {
+                    throw new IllegalStateException(misses + " lookups missed a preloaded key");
+                }
+            });
+            workers[t].start();
+        }
+        long startTime = System.nanoTime();
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        return System.nanoTime() - startTime;
+    }
+}
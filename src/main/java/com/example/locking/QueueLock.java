@@ -0,0 +1,132 @@
+package com.example.locking;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.LockSupport;
+
+// Common parts of McsLock and ClhLock: FIFO queue locks where every waiter has a queue
+// node and waits for one flag on a node nobody else waits on, so a release touches the
+// cache line of exactly one waiter instead of waking a crowd.
+//
+// Waiters spin on that flag for a while, then park. Spinning is only useful while the
+// owner runs on another core, so on a single-processor machine waiters park at once.
+//
+// The locks are not reentrant, and a queued thread cannot leave the queue before it
+// gets the lock; the abortable variants of these locks need considerably more machinery.
+// So lockInterruptibly() only checks for an interrupt before queueing, which the Lock
+// contract allows, and timed tryLock polls tryLock() until the deadline without taking
+// a place in the queue: threads already queued keep their order, but a polling thread
+// may be overtaken by later arrivals.
+abstract class QueueLock implements Lock {
+    private static final int SPINS = Runtime.getRuntime().availableProcessors() > 1 ? 1 << 10 : 0;
+    private static final long MAX_POLL_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    static final class Node {
+        volatile boolean locked;
+        volatile Node next; // Only used by McsLock
+        volatile Thread waiter; // Set once the waiter stops spinning and parks
+
+        Node(boolean locked) {
+            this.locked = locked;
+        }
+    }
+
+    // Current owner and its queue node; only written by the owner, which hands them on
+    // to the next owner through the volatile flag
+    private Thread owner;
+    private Node ownerNode;
+
+    // Waits until node.locked is false
+    static void await(Node node) {
+        for (int i = 0; i < SPINS; i++) {
+            if (!node.locked) {
+                return;
+            }
+            Thread.onSpinWait();
+        }
+        node.waiter = Thread.currentThread();
+        // Either the releaser sees waiter and unparks us, or we see locked == false here.
+        // park() returns at once while the interrupt flag is set, so clear it while waiting
+        // and restore it once we are through, as AbstractQueuedSynchronizer does.
+        boolean interrupted = false;
+        while (node.locked) {
+            LockSupport.park(node);
+            if (Thread.interrupted()) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Lets the thread waiting on node proceed
+    static void signal(Node node) {
+        node.locked = false;
+        Thread waiter = node.waiter;
+        if (waiter != null) {
+            LockSupport.unpark(waiter);
+        }
+    }
+
+    void checkNotOwner() {
+        if (owner == Thread.currentThread()) {
+            throw new IllegalMonitorStateException(getClass().getSimpleName() + " is not reentrant");
+        }
+    }
+
+    void acquired(Node node) {
+        owner = Thread.currentThread();
+        ownerNode = node;
+    }
+
+    // Returns the owner's node after checking that the caller owns the lock
+    Node releasing() {
+        if (owner != Thread.currentThread()) {
+            throw new IllegalMonitorStateException();
+        }
+        owner = null;
+        Node node = ownerNode;
+        ownerNode = null;
+        return node;
+    }
+
+    @Override
+    public void lockInterruptibly() throws InterruptedException {
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+        lock();
+    }
+
+    @Override
+    public boolean tryLock(long time, TimeUnit unit) throws InterruptedException {
+        long remaining = unit.toNanos(time);
+        if (remaining <= 0) {
+            return tryLock();
+        }
+        long deadline = System.nanoTime() + remaining;
+        int attempts = 0;
+        while (!tryLock()) {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return false;
+            }
+            if (++attempts < SPINS) {
+                Thread.onSpinWait();
+            } else {
+                LockSupport.parkNanos(this, Math.min(remaining, MAX_POLL_NANOS));
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public Condition newCondition() {
+        throw new UnsupportedOperationException();
+    }
+}
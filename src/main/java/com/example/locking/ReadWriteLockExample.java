@@ -1,25 +1,28 @@
 package com.example.locking;
 
-import java.util.HashMap;
+import com.example.metrics.Counter;
+import com.example.metrics.LatencyHistogram;
+import com.example.metrics.MetricsRegistry;
+
 import java.util.Map;
+import java.util.TreeMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 public class ReadWriteLockExample {
-    // The shared resource: a cache with read-write access pattern
-    private static final Map<String, String> cache = new HashMap<>();
-
-    // ReadWriteLock allows multiple readers but exclusive writers
-    private static final ReadWriteLock rwLock = new ReentrantReadWriteLock();
-
-    // Statistics counters
-    private static int reads = 0;
-    private static int writes = 0;
-    private static final Object statsLock = new Object();
+    // The shared resource: a cache with read-write access pattern. Each stripe has its
+    // own ReadWriteLock (multiple readers, exclusive writers), so a slow write to one key
+    // only blocks the keys that share its stripe instead of the whole cache
+    private static final StripedReadWriteMap<String, String> cache = new StripedReadWriteMap<>(16);
+
+    // Statistics: striped counters and a latency histogram, so recording them
+    // does not serialize the readers the way a shared lock would
+    private static final MetricsRegistry metrics = new MetricsRegistry();
+    private static final Counter reads = metrics.counter("cache.reads");
+    private static final Counter writes = metrics.counter("cache.writes");
+    private static final LatencyHistogram writeLockWait = metrics.histogram("cache.write.lock.wait");
 
     public static void main(String[] args) throws InterruptedException {
         System.out.println("ReadWriteLock Example");
@@ -53,11 +56,14 @@ public class ReadWriteLockExample {
 
         // Print statistics
         System.out.println("\nOperation Statistics:");
-        System.out.println("Total reads: " + reads);
-        System.out.println("Total writes: " + writes);
+        System.out.println("Total reads: " + reads.get());
+        System.out.println("Total writes: " + writes.get());
+        System.out.println(writeLockWait.snapshot());
         System.out.println("Final cache size: " + cache.size());
         System.out.println("Final cache contents:");
-        for (Map.Entry<String, String> entry : cache.entrySet()) {
+        Map<String, String> contents = new TreeMap<>();
+        cache.forEach(contents::put);
+        for (Map.Entry<String, String> entry : contents.entrySet()) {
             System.out.println("  " + entry.getKey() + " = " + entry.getValue());
         }
 
@@ -71,6 +77,10 @@ public class ReadWriteLockExample {
         System.out.println("- Write lock: Only one thread can hold the write lock, and no read locks can be held");
         System.out.println("- This is optimal for read-heavy workloads where data is read frequently but updated rarely");
         System.out.println("- Lock downgrading (write -> read) is supported, but not upgrading (read -> write)");
+        System.out.println("- The cache is striped: a writer locks only the stripe of its key, not every key");
+        System.out.println("- Read locks still write the shared lock state; see OptimisticReadCacheExample");
+        System.out.println("- ReaderBiasedLockExample shows a ReadWriteLock whose readers avoid that shared state");
+        System.out.println("- This cache is unbounded; see TinyLfuCacheExample for a bounded, evicting cache");
     }
 
     private static void initializeCache() {
@@ -80,7 +90,8 @@ public class ReadWriteLockExample {
     }
 
     public static String performRead(String key) {
-        // First try to read with read lock
+        // First try to read with the read lock of the key's stripe
+        ReadWriteLock rwLock = cache.lockFor(key);
         rwLock.readLock().lock();
         try {
             String value = cache.get(key);
@@ -101,8 +112,11 @@ public class ReadWriteLockExample {
     }
 
     public static void performWrite(String key, String value) {
-        // Get write lock for exclusive access
+        // Get the stripe's write lock for exclusive access to its keys
+        ReadWriteLock rwLock = cache.lockFor(key);
+        long waitStart = System.nanoTime();
         rwLock.writeLock().lock();
+        writeLockWait.recordSince(waitStart);
         try {
             // Simulate some write processing time
             try {
@@ -122,6 +136,8 @@ public class ReadWriteLockExample {
 
     // Demonstrate lock downgrading (write → read)
     public static void demonstrateLockDowngrading(String key, String newValue) {
+        ReadWriteLock rwLock = cache.lockFor(key);
+        boolean writeLocked = true;
         rwLock.writeLock().lock(); // Get write lock
         try {
             // Update the value
@@ -135,6 +151,7 @@ public class ReadWriteLockExample {
             try {
                 // Now we can release the write lock but still have read access
                 rwLock.writeLock().unlock();
+                writeLocked = false;
                 System.out.println(Thread.currentThread().getName() +
                         " downgraded to read lock");
 
@@ -148,21 +165,17 @@ public class ReadWriteLockExample {
             }
         } finally {
             // In case we didn't downgrade
-            if (((ReentrantLock) rwLock.writeLock()).isHeldByCurrentThread()) {
+            if (writeLocked) {
                 rwLock.writeLock().unlock();
             }
         }
     }
 
     private static void incrementReads() {
-        synchronized (statsLock) {
-            reads++;
-        }
+        reads.increment();
     }
 
     private static void incrementWrites() {
-        synchronized (statsLock) {
-            writes++;
-        }
+        writes.increment();
     }
 } 
\ No newline at end of file
@@ -0,0 +1,197 @@
+package com.example.locking;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Supplier;
+
+public class ReaderBiasedLockExample {
+    private static final int[] READER_COUNTS = {1, 2, 4, 8, 16, 32, 64};
+    private static final long MEASURE_MILLIS = 200;
+    private static final long WRITE_INTERVAL_NANOS = 1_000_000;
+
+    // Data guarded by the lock under test; a consistent snapshot always has x == y
+    private static class Pair {
+        long x;
+        long y;
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        System.out.println("Reader-Biased ReadWriteLock Example");
+        System.out.println("===================================");
+        System.out.println("This example compares a BRAVO-style reader-biased lock, where readers mark");
+        System.out.println("per-core slots instead of one shared counter, with the JDK read/write locks.\n");
+
+        System.out.println("Part 1: Readers and writers still exclude each other");
+        correctnessCheck();
+
+        Thread.sleep(1000);
+
+        System.out.println("\nPart 2: Read-only throughput from 1 to 64 readers");
+        sweep(false);
+
+        Thread.sleep(1000);
+
+        System.out.println("\nPart 3: Same readers plus one writer every " + WRITE_INTERVAL_NANOS / 1_000_000 + "ms");
+        sweep(true);
+
+        System.out.println("\nExplanation:");
+        System.out.println("Every readLock() of ReentrantReadWriteLock and StampedLock CASes the same state word,");
+        System.out.println("so concurrent readers on different cores fight over one cache line.");
+        System.out.println("- The biased lock lets readers increment a padded slot picked by thread id");
+        System.out.println("- Readers on different cores then write different cache lines and scale with cores");
+        System.out.println("- A writer clears the bias and waits for all slots to drain before it proceeds");
+        System.out.println("- After such a revocation readers use the underlying lock for a while, so frequent");
+        System.out.println("  writers fall back to ReentrantReadWriteLock behaviour instead of paying each time");
+        System.out.println("- Writes get more expensive, so this only pays off for read-dominated locks");
+    }
+
+    // Part 1: Writers keep x == y under the write lock; readers must never see them differ
+    private static void correctnessCheck() throws InterruptedException {
+        ReaderBiasedReadWriteLock lock = new ReaderBiasedReadWriteLock();
+        Pair pair = new Pair();
+        AtomicLong tornReads = new AtomicLong();
+        LongAdder reads = new LongAdder();
+        AtomicBoolean running = new AtomicBoolean(true);
+
+        Thread[] threads = new Thread[6];
+        for (int i = 0; i < 4; i++) {
+            threads[i] = new Thread(() -> {
+                while (running.get()) {
+                    lock.readLock().lock();
+                    try {
+                        if (pair.x != pair.y) {
+                            tornReads.incrementAndGet();
+                        }
+                    } finally {
+                        lock.readLock().unlock();
+                    }
+                    reads.increment();
+                }
+            }, "Reader-" + i);
+        }
+        for (int i = 4; i < 6; i++) {
+            threads[i] = new Thread(() -> {
+                while (running.get()) {
+                    lock.writeLock().lock();
+                    try {
+                        pair.x++;
+                        Thread.yield(); // Widen the window in which a reader could see x != y
+                        pair.y++;
+                    } finally {
+                        lock.writeLock().unlock();
+                    }
+                    LockSupport.parkNanos(WRITE_INTERVAL_NANOS);
+                }
+            }, "Writer-" + (i - 4));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        Thread.sleep(500);
+        running.set(false);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        System.out.printf("Reads: %,d, writes: %,d, inconsistent reads: %d%n", reads.sum(), pair.x, tornReads.get());
+        System.out.println("Bias revocations by writers: " + lock.revocationCount() +
+                          ", reader slots: " + lock.slotCount());
+    }
+
+    // Parts 2 and 3: Fixed-duration runs for each lock and reader count
+    private static void sweep(boolean withWriter) throws InterruptedException {
+        String[] names = {"ReentrantReadWriteLock", "StampedLock.asReadWriteLock", "ReaderBiasedReadWriteLock"};
+        List<Supplier<ReadWriteLock>> locks = List.of(
+                ReentrantReadWriteLock::new,
+                () -> new StampedLock().asReadWriteLock(),
+                ReaderBiasedReadWriteLock::new);
+
+        System.out.println("Available processors: " + Runtime.getRuntime().availableProcessors() + "\n");
+        for (Supplier<ReadWriteLock> lock : locks) {
+            run(lock.get(), 4, withWriter); // Warm up
+        }
+
+        System.out.printf("%-8s", "Readers");
+        for (String name : names) {
+            System.out.printf(" %28s", name);
+        }
+        System.out.println();
+        for (int readers : READER_COUNTS) {
+            System.out.printf("%-8d", readers);
+            for (Supplier<ReadWriteLock> lock : locks) {
+                System.out.printf(" %,23d op/s", run(lock.get(), readers, withWriter));
+            }
+            System.out.println();
+        }
+    }
+
+    private static long run(ReadWriteLock lock, int readers, boolean withWriter) throws InterruptedException {
+        Pair pair = new Pair();
+        LongAdder ops = new LongAdder();
+        LongAdder checksum = new LongAdder(); // Consumes the reads so the JIT cannot drop them
+        AtomicBoolean running = new AtomicBoolean(true);
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] threads = new Thread[readers + (withWriter ? 1 : 0)];
+        for (int t = 0; t < readers; t++) {
+            threads[t] = new Thread(() -> {
+                awaitQuietly(start);
+                long count = 0;
+                long sum = 0;
+                while (running.get()) {
+                    // Check the stop flag once per 100 reads
+                    for (int i = 0; i < 100; i++) {
+                        lock.readLock().lock();
+                        try {
+                            sum += pair.x + pair.y;
+                        } finally {
+                            lock.readLock().unlock();
+                        }
+                    }
+                    count += 100;
+                }
+                ops.add(count);
+                checksum.add(sum);
+            });
+        }
+        if (withWriter) {
+            threads[readers] = new Thread(() -> {
+                awaitQuietly(start);
+                while (running.get()) {
+                    lock.writeLock().lock();
+                    try {
+                        pair.x++;
+                        pair.y++;
+                    } finally {
+                        lock.writeLock().unlock();
+                    }
+                    LockSupport.parkNanos(WRITE_INTERVAL_NANOS);
+                }
+            });
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        start.countDown();
+        Thread.sleep(MEASURE_MILLIS);
+        running.set(false);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        return ops.sum() * 1000 / MEASURE_MILLIS;
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,280 @@
+package com.example.locking;
+
+import com.example.lockfree.PaddedAtomicIntegerArray;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Reader-biased ReadWriteLock in the style of BRAVO ("biased locking for reader-writer
+// locks"). ReentrantReadWriteLock counts readers in one shared state word, so every
+// readLock()/unlock() is a CAS on the same cache line and read-only workloads stop
+// scaling once a few cores take turns owning that line.
+//
+// While the lock is read-biased, a reader instead increments a counter in its own slot
+// (the thread id hashes to one of several padded slots, roughly one per core) and then
+// re-checks the bias flag. Readers on different cores touch different cache lines and
+// never write the underlying lock. A writer takes the underlying write lock, clears the
+// bias flag and waits for every slot to drain ("revocation"); from then on readers use
+// the underlying lock until one of them re-enables the bias. Revocation is expensive, so
+// the bias stays off for INHIBIT_MULTIPLIER times as long as the last revocation took,
+// which bounds the cost writers pay to a fraction of the time spent in biased mode.
+//
+// Reentrant reads stay in the mode the thread first entered. Neither lock supports
+// conditions: a writer waiting on a condition would release the write lock without
+// knowing whether the bias was re-enabled when it wakes up.
+public class ReaderBiasedReadWriteLock implements ReadWriteLock {
+    private static final int INHIBIT_MULTIPLIER = 9;
+    private static final int SPINS_BEFORE_YIELD = 64;
+    private static final int YIELDS_BEFORE_PARK = 16;
+
+    private final ReentrantReadWriteLock underlying = new ReentrantReadWriteLock();
+    private final PaddedAtomicIntegerArray readerSlots;
+    private final int slotMask;
+    private final ThreadLocal<ReaderState> readerState = ThreadLocal.withInitial(ReaderState::new);
+    private final ReadLock readLock = new ReadLock();
+    private final WriteLock writeLock = new WriteLock();
+
+    private volatile boolean readBias = true;
+    // Written by the holder of the underlying write lock, read by slow-path readers
+    private volatile long inhibitUntil;
+    private volatile long revocations;
+
+    // How this thread currently holds the read lock
+    private final class ReaderState {
+        final int slot = slotFor(Thread.currentThread());
+        int fastHolds;
+        int slowHolds;
+    }
+
+    public ReaderBiasedReadWriteLock() {
+        this(Runtime.getRuntime().availableProcessors() * 4);
+    }
+
+    public ReaderBiasedReadWriteLock(int slots) {
+        if (slots <= 0) {
+            throw new IllegalArgumentException("slots must be positive");
+        }
+        int count = 1;
+        while (count < slots) {
+            count <<= 1;
+        }
+        readerSlots = new PaddedAtomicIntegerArray(count);
+        slotMask = count - 1;
+        inhibitUntil = System.nanoTime();
+    }
+
+    @Override
+    public Lock readLock() {
+        return readLock;
+    }
+
+    @Override
+    public Lock writeLock() {
+        return writeLock;
+    }
+
+    public boolean isReadBiased() {
+        return readBias;
+    }
+
+    // Number of times a writer had to switch readers off the per-slot fast path
+    public long revocationCount() {
+        return revocations;
+    }
+
+    public int slotCount() {
+        return readerSlots.length();
+    }
+
+    private int slotFor(Thread thread) {
+        long h = thread.threadId() * 0x9E3779B97F4A7C15L;
+        return (int) (h >>> 32) & slotMask;
+    }
+
+    // Fast path: announce the read in this thread's slot, then confirm no writer revoked
+    // the bias in between. The volatile increment and the volatile read of readBias pair
+    // with the writer's volatile write of readBias and its reads of the slots, so either
+    // the reader sees the revocation or the writer sees the reader's slot.
+    private boolean tryFastRead(ReaderState state) {
+        if (state.fastHolds > 0) {
+            state.fastHolds++;
+            return true;
+        }
+        if (state.slowHolds > 0 || !readBias) {
+            return false;
+        }
+        readerSlots.getAndIncrement(state.slot);
+        if (readBias) {
+            state.fastHolds = 1;
+            return true;
+        }
+        readerSlots.getAndAdd(state.slot, -1);
+        return false;
+    }
+
+    // Slow path succeeded; the underlying read lock excludes other writers, so this is a
+    // safe point to turn the bias back on once the inhibit window has passed. A writer
+    // downgrading to a read lock must not, as it still holds the write lock.
+    private void afterSlowRead(ReaderState state) {
+        state.slowHolds++;
+        if (!readBias && System.nanoTime() - inhibitUntil >= 0 && !underlying.isWriteLocked()) {
+            readBias = true;
+        }
+    }
+
+    // Called with the underlying write lock held. Returns false if the slots did not
+    // drain before the deadline. The bias stays off, but fast-path readers that were
+    // already inside may still be counted in their slots, so every call waits for all
+    // slots to drain even when the bias is already off; with no such readers left this
+    // is one read per slot.
+    private boolean revokeBias(boolean timed, long deadline) {
+        boolean wasBiased = readBias;
+        readBias = false;
+        long start = System.nanoTime();
+        for (int i = 0; i < readerSlots.length(); i++) {
+            int attempts = 0;
+            while (readerSlots.get(i) != 0) {
+                if (timed && System.nanoTime() - deadline >= 0) {
+                    return false;
+                }
+                if (attempts < SPINS_BEFORE_YIELD) {
+                    Thread.onSpinWait();
+                } else if (attempts < SPINS_BEFORE_YIELD + YIELDS_BEFORE_PARK) {
+                    Thread.yield();
+                } else {
+                    LockSupport.parkNanos(10_000);
+                }
+                attempts++;
+            }
+        }
+        if (!wasBiased) {
+            return true;
+        }
+        long now = System.nanoTime();
+        inhibitUntil = now + (now - start) * INHIBIT_MULTIPLIER;
+        revocations++;
+        return true;
+    }
+
+    private final class ReadLock implements Lock {
+        @Override
+        public void lock() {
+            ReaderState state = readerState.get();
+            if (!tryFastRead(state)) {
+                underlying.readLock().lock();
+                afterSlowRead(state);
+            }
+        }
+
+        @Override
+        public void lockInterruptibly() throws InterruptedException {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            ReaderState state = readerState.get();
+            if (!tryFastRead(state)) {
+                underlying.readLock().lockInterruptibly();
+                afterSlowRead(state);
+            }
+        }
+
+        @Override
+        public boolean tryLock() {
+            ReaderState state = readerState.get();
+            if (tryFastRead(state)) {
+                return true;
+            }
+            if (underlying.readLock().tryLock()) {
+                afterSlowRead(state);
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public boolean tryLock(long time, TimeUnit unit) throws InterruptedException {
+            ReaderState state = readerState.get();
+            if (tryFastRead(state)) {
+                return true;
+            }
+            if (underlying.readLock().tryLock(time, unit)) {
+                afterSlowRead(state);
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public void unlock() {
+            ReaderState state = readerState.get();
+            if (state.fastHolds > 0) {
+                if (--state.fastHolds == 0) {
+                    readerSlots.getAndAdd(state.slot, -1);
+                }
+            } else if (state.slowHolds > 0) {
+                state.slowHolds--;
+                underlying.readLock().unlock();
+            } else {
+                throw new IllegalMonitorStateException("read lock not held by current thread");
+            }
+        }
+
+        @Override
+        public Condition newCondition() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private final class WriteLock implements Lock {
+        @Override
+        public void lock() {
+            underlying.writeLock().lock();
+            revokeBias(false, 0L);
+        }
+
+        @Override
+        public void lockInterruptibly() throws InterruptedException {
+            underlying.writeLock().lockInterruptibly();
+            revokeBias(false, 0L);
+        }
+
+        @Override
+        public boolean tryLock() {
+            if (!underlying.writeLock().tryLock()) {
+                return false;
+            }
+            if (!revokeBias(true, System.nanoTime())) {
+                underlying.writeLock().unlock();
+                return false;
+            }
+            return true;
+        }
+
+        @Override
+        public boolean tryLock(long time, TimeUnit unit) throws InterruptedException {
+            long deadline = System.nanoTime() + unit.toNanos(time);
+            if (!underlying.writeLock().tryLock(time, unit)) {
+                return false;
+            }
+            if (!revokeBias(true, deadline)) {
+                underlying.writeLock().unlock();
+                return false;
+            }
+            return true;
+        }
+
+        @Override
+        public void unlock() {
+            underlying.writeLock().unlock();
+        }
+
+        @Override
+        public Condition newCondition() {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -1,10 +1,8 @@
 package com.example.locking;
 
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
-
 public class ReentrantLockExample {
-    private static final Lock lock = new ReentrantLock();
+    // A ReentrantLock that also records wait and hold times; see InstrumentedLockExample
+    private static final InstrumentedLock lock = new InstrumentedLock("reentrant-example");
     private static int counter = 0;
     
     public static void main(String[] args) throws InterruptedException {
@@ -45,6 +43,7 @@ public class ReentrantLockExample {
         }
         
         System.out.println("\nFinal counter value: " + counter);
+        System.out.print("\n" + lock.report(3));
         
         // Demonstrate reentrancy (same thread acquiring the lock multiple times)
         demonstrateReentrancy();
@@ -86,5 +85,6 @@ public class ReentrantLockExample {
         System.out.println("2. Explicit locking/unlocking with try-finally pattern");
         System.out.println("3. Better performance under high contention");
         System.out.println("4. Greater flexibility with features like timeouts and interruptibility");
+        System.out.println("The lock metrics show each thread waiting for the previous holders' 100ms of work");
     }
 } 
\ No newline at end of file
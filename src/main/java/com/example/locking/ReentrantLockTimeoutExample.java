@@ -1,11 +1,9 @@
 package com.example.locking;
 
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
 
 public class ReentrantLockTimeoutExample {
-    private static final Lock lock = new ReentrantLock();
+    private static final InstrumentedLock lock = new InstrumentedLock("timeout-example");
     
     public static void main(String[] args) throws InterruptedException {
         System.out.println("ReentrantLock Timeout Example");
@@ -28,12 +26,16 @@ public class ReentrantLockTimeoutExample {
         System.out.println("---------------------------");
         demonstrateTryLock();
         
+        System.out.println("\nLock metrics across all three parts:");
+        System.out.print(lock.report(5));
+        
         System.out.println("\nExplanation:");
         System.out.println("ReentrantLock provides several advanced features not available with synchronized:");
         System.out.println("1. Timed Lock Acquisition: Attempt to acquire a lock with a timeout");
         System.out.println("2. Interruptible Lock Acquisition: Allow thread to be interrupted while waiting");
         System.out.println("3. Non-blocking tryLock(): Try to acquire the lock without blocking");
         System.out.println("These features are valuable for preventing deadlocks and improving responsiveness.");
+        System.out.println("Failed tryLocks and the waiting call sites show which attempts gave up and where.");
     }
     
     private static void demonstrateTimedLock() throws InterruptedException {
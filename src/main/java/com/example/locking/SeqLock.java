@@ -0,0 +1,109 @@
+package com.example.locking;
+
+import com.example.lockfree.VarHandles;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+// Sequence lock holding a fixed-layout record of long fields, e.g. the bid, ask and
+// sizes of a quote; doubles are stored as their raw long bits. There is exactly one
+// writer. It makes the sequence odd, writes the fields and makes it even again.
+// A reader reads the sequence, copies the fields, and reads the sequence again. If the
+// sequence was odd, or changed, a write overlapped the copy and the reader retries.
+//
+// Readers never write shared memory: unlike a read lock there is no reader count,
+// and unlike AtomicReference to an immutable record the writer allocates nothing.
+// Compared to a StampedLock optimistic read, which works the same way, there is no
+// lock to fall back to, so writes never wait for readers and the holder is a single
+// object with an array of fields.
+//
+// Memory ordering follows the seqlock recipe for the Java memory model: fields are
+// accessed with opaque reads and writes, so no value is ever torn or cached, and fences
+// keep the writer's field writes between its two sequence updates and the reader's
+// field reads between its two sequence reads. The copy a reader gets may still be
+// inconsistent before validation, so callers only use it once read() has returned.
+public class SeqLock {
+    private static final VarHandle SEQUENCE = VarHandles.field(MethodHandles.lookup(), "sequence", long.class);
+    private static final VarHandle FIELDS = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final int SPINS_BEFORE_YIELD = 64;
+
+    private final long[] fields;
+    private volatile long sequence;
+
+    public SeqLock(int fieldCount) {
+        if (fieldCount <= 0) {
+            throw new IllegalArgumentException("fieldCount must be positive");
+        }
+        this.fields = new long[fieldCount];
+    }
+
+    public int fieldCount() {
+        return fields.length;
+    }
+
+    // Number of completed writes
+    public long version() {
+        return sequence >>> 1;
+    }
+
+    // Writer only: brackets a group of set() calls that readers see all or none of
+    public void beginWrite() {
+        long current = (long) SEQUENCE.getOpaque(this);
+        if ((current & 1) != 0) {
+            throw new IllegalStateException("write already in progress; SeqLock allows one writer");
+        }
+        SEQUENCE.setOpaque(this, current + 1);
+        VarHandle.releaseFence(); // The odd sequence becomes visible before any field write
+    }
+
+    public void set(int field, long value) {
+        FIELDS.setOpaque(fields, field, value);
+    }
+
+    public void setDouble(int field, double value) {
+        FIELDS.setOpaque(fields, field, Double.doubleToRawLongBits(value));
+    }
+
+    public void endWrite() {
+        SEQUENCE.setRelease(this, (long) SEQUENCE.getOpaque(this) + 1); // Field writes come first
+    }
+
+    // Writer only: replaces all fields in one write
+    public void write(long... values) {
+        if (values.length != fields.length) {
+            throw new IllegalArgumentException("expected " + fields.length + " values");
+        }
+        beginWrite();
+        for (int i = 0; i < values.length; i++) {
+            FIELDS.setOpaque(fields, i, values[i]);
+        }
+        endWrite();
+    }
+
+    // Copies a consistent snapshot of all fields into destination and returns the version
+    // it belongs to. Retries while a write overlaps, yielding now and then in case the
+    // writer was descheduled in the middle of a write.
+    public long read(long[] destination) {
+        if (destination.length < fields.length) {
+            throw new IllegalArgumentException("destination needs " + fields.length + " elements");
+        }
+        int attempts = 0;
+        while (true) {
+            long before = (long) SEQUENCE.getAcquire(this); // Field reads come after
+            if ((before & 1) == 0) {
+                for (int i = 0; i < fields.length; i++) {
+                    destination[i] = (long) FIELDS.getOpaque(fields, i);
+                }
+                VarHandle.acquireFence(); // Field reads complete before the second sequence read
+                if ((long) SEQUENCE.getOpaque(this) == before) {
+                    return before >>> 1;
+                }
+            }
+            if (++attempts % SPINS_BEFORE_YIELD == 0) {
+                Thread.yield();
+            } else {
+                Thread.onSpinWait();
+            }
+        }
+    }
+}
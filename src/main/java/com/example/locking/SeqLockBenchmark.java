@@ -0,0 +1,116 @@
+package com.example.locking;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+// JMH version of SeqLockExample's comparison: three readers and one writer share each
+// quote holder, and JMH reports the time per read and per publication separately.
+// SeqLockExample measures with plain threads and also checks every read for torn
+// quotes; this gives numbers free of its loop and counter overhead.
+//
+// Run with: mvn -B compile, then
+//   java -cp target/classes:$(mvn -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout) \
+//       com.example.locking.SeqLockBenchmark
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Group)
+public class SeqLockBenchmark {
+    // 0 publishes as fast as possible; 50000 is about every 50us, the read-mostly case
+    @Param({"0", "50000"})
+    public long writeIntervalNanos;
+
+    private SeqLockExample.Quotes seqLock;
+    private SeqLockExample.Quotes stampedLock;
+    private SeqLockExample.Quotes atomicReference;
+    private long publication; // Only touched by the group's single writer
+
+    @State(Scope.Thread)
+    public static class Scratch {
+        final long[] fields = new long[4];
+    }
+
+    @Setup
+    public void setUp() {
+        seqLock = new SeqLockExample.SeqLockQuotes();
+        stampedLock = new SeqLockExample.StampedLockQuotes();
+        atomicReference = new SeqLockExample.AtomicReferenceQuotes();
+        seqLock.publish(0);
+        stampedLock.publish(0);
+        atomicReference.publish(0);
+    }
+
+    @Benchmark
+    @Group("seqLock")
+    @GroupThreads(3)
+    public boolean seqLockRead(Scratch scratch) {
+        return seqLock.readConsistent(scratch.fields);
+    }
+
+    @Benchmark
+    @Group("seqLock")
+    @GroupThreads(1)
+    public void seqLockWrite() {
+        publish(seqLock);
+    }
+
+    @Benchmark
+    @Group("stampedLockOptimistic")
+    @GroupThreads(3)
+    public boolean stampedLockRead(Scratch scratch) {
+        return stampedLock.readConsistent(scratch.fields);
+    }
+
+    @Benchmark
+    @Group("stampedLockOptimistic")
+    @GroupThreads(1)
+    public void stampedLockWrite() {
+        publish(stampedLock);
+    }
+
+    @Benchmark
+    @Group("atomicReferenceRecord")
+    @GroupThreads(3)
+    public boolean atomicReferenceRead(Scratch scratch) {
+        return atomicReference.readConsistent(scratch.fields);
+    }
+
+    @Benchmark
+    @Group("atomicReferenceRecord")
+    @GroupThreads(1)
+    public void atomicReferenceWrite() {
+        publish(atomicReference);
+    }
+
+    private void publish(SeqLockExample.Quotes quotes) {
+        quotes.publish(++publication);
+        if (writeIntervalNanos > 0) {
+            LockSupport.parkNanos(writeIntervalNanos);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SeqLockBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
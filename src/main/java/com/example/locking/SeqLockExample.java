@@ -0,0 +1,229 @@
+package com.example.locking;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.StampedLock;
+
+public class SeqLockExample {
+    private static final int NUM_READERS = 3;
+    private static final long MEASURE_MILLIS = 500;
+
+    // Field layout of a quote in the SeqLock; prices are stored as raw double bits
+    private static final int BID = 0;
+    private static final int ASK = 1;
+    private static final int BID_SIZE = 2;
+    private static final int ASK_SIZE = 3;
+
+    // Publication number i is bid = i / 2, ask = bid + 1, bidSize = i, askSize = i + 1, so
+    // a reader can tell a consistent quote from one mixed from two publications
+    interface Quotes {
+        void publish(long i);
+
+        // Reads one quote and returns whether its fields belong together
+        boolean readConsistent(long[] scratch);
+    }
+
+    static class SeqLockQuotes implements Quotes {
+        private final SeqLock seqLock = new SeqLock(4);
+
+        public void publish(long i) {
+            seqLock.beginWrite();
+            seqLock.setDouble(BID, i * 0.5);
+            seqLock.setDouble(ASK, i * 0.5 + 1);
+            seqLock.set(BID_SIZE, i);
+            seqLock.set(ASK_SIZE, i + 1);
+            seqLock.endWrite();
+        }
+
+        public boolean readConsistent(long[] scratch) {
+            seqLock.read(scratch);
+            return isConsistent(Double.longBitsToDouble(scratch[BID]), Double.longBitsToDouble(scratch[ASK]),
+                    scratch[BID_SIZE], scratch[ASK_SIZE]);
+        }
+    }
+
+    // The StampedLockExample.Point pattern: optimistic read, read lock if validation fails
+    static class StampedLockQuotes implements Quotes {
+        private final StampedLock lock = new StampedLock();
+        private double bid, ask;
+        private long bidSize, askSize;
+
+        public void publish(long i) {
+            long stamp = lock.writeLock();
+            try {
+                bid = i * 0.5;
+                ask = i * 0.5 + 1;
+                bidSize = i;
+                askSize = i + 1;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        public boolean readConsistent(long[] scratch) {
+            long stamp = lock.tryOptimisticRead();
+            double currentBid = bid;
+            double currentAsk = ask;
+            long currentBidSize = bidSize;
+            long currentAskSize = askSize;
+            if (!lock.validate(stamp)) {
+                stamp = lock.readLock();
+                try {
+                    currentBid = bid;
+                    currentAsk = ask;
+                    currentBidSize = bidSize;
+                    currentAskSize = askSize;
+                } finally {
+                    lock.unlockRead(stamp);
+                }
+            }
+            return isConsistent(currentBid, currentAsk, currentBidSize, currentAskSize);
+        }
+    }
+
+    record Quote(double bid, double ask, long bidSize, long askSize) {
+    }
+
+    // A new immutable record per publication
+    static class AtomicReferenceQuotes implements Quotes {
+        private final AtomicReference<Quote> quote = new AtomicReference<>(new Quote(0, 1, 0, 1));
+
+        public void publish(long i) {
+            quote.set(new Quote(i * 0.5, i * 0.5 + 1, i, i + 1));
+        }
+
+        public boolean readConsistent(long[] scratch) {
+            Quote current = quote.get();
+            return isConsistent(current.bid(), current.ask(), current.bidSize(), current.askSize());
+        }
+    }
+
+    // Every field visible on its own, but nothing ties the four together
+    static class VolatileFieldQuotes implements Quotes {
+        private volatile double bid, ask;
+        private volatile long bidSize, askSize;
+
+        public void publish(long i) {
+            bid = i * 0.5;
+            ask = i * 0.5 + 1;
+            bidSize = i;
+            askSize = i + 1;
+        }
+
+        public boolean readConsistent(long[] scratch) {
+            return isConsistent(bid, ask, bidSize, askSize);
+        }
+    }
+
+    private static boolean isConsistent(double bid, double ask, long bidSize, long askSize) {
+        return askSize == bidSize + 1 && bid == bidSize * 0.5 && ask == bid + 1;
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        System.out.println("SeqLock Example");
+        System.out.println("===============");
+        System.out.println("This example publishes bid/ask/size quotes from one writer to " + NUM_READERS +
+                          " readers and");
+        System.out.println("checks every quote read for fields mixed from different publications.\n");
+        System.out.println("Available processors: " + Runtime.getRuntime().availableProcessors());
+
+        System.out.println("\nPart 1: Writer publishing as fast as it can\n");
+        compare(0);
+
+        Thread.sleep(1000);
+
+        System.out.println("\nPart 2: Writer publishing about every 50us, the common read-mostly case\n");
+        compare(50_000);
+
+        System.out.println("\nExplanation:");
+        System.out.println("Four volatile fields are each up to date, but a reader can see the bid of one");
+        System.out.println("quote next to the size of another; the quote has to be read as one unit.");
+        System.out.println("- SeqLock: the writer makes a sequence number odd, writes, and makes it even");
+        System.out.println("  again; readers copy the fields and retry if the number was odd or changed");
+        System.out.println("- Readers never write shared memory, so they scale across cores and never slow");
+        System.out.println("  the writer down, and the writer allocates nothing");
+        System.out.println("- StampedLock's optimistic read is the same idea, but falls back to a read lock");
+        System.out.println("  that does write shared memory and makes the writer wait");
+        System.out.println("- AtomicReference to an immutable record is the simplest correct option; it costs");
+        System.out.println("  an allocation per write and a pointer chase per read");
+        System.out.println("- The SeqLock here copies through an array, so a single read costs more than the");
+        System.out.println("  StampedLock's plain field reads; its writer is the fastest because it neither");
+        System.out.println("  allocates nor takes a lock");
+        System.out.println("- A seqlock suits small records of primitives with a single writer; readers may");
+        System.out.println("  starve if writes never pause, which a real quote feed does between ticks");
+    }
+
+    private static void compare(long writeIntervalNanos) throws InterruptedException {
+        System.out.printf("%-28s %14s %14s %12s%n", "Holder", "Reads/s", "Writes/s", "Inconsistent");
+        for (int round = 0; round < 2; round++) {
+            boolean print = round == 1; // First round is warm-up
+            run("SeqLock", new SeqLockQuotes(), writeIntervalNanos, print);
+            run("StampedLock optimistic", new StampedLockQuotes(), writeIntervalNanos, print);
+            run("AtomicReference<Quote>", new AtomicReferenceQuotes(), writeIntervalNanos, print);
+            run("volatile fields, no lock", new VolatileFieldQuotes(), writeIntervalNanos, print);
+        }
+    }
+
+    private static void run(String name, Quotes quotes, long writeIntervalNanos, boolean print)
+            throws InterruptedException {
+        LongAdder reads = new LongAdder();
+        LongAdder inconsistent = new LongAdder();
+        long[] writes = new long[1];
+        AtomicBoolean running = new AtomicBoolean(true);
+        CountDownLatch start = new CountDownLatch(1);
+        quotes.publish(0); // Readers may run before the writer's first publication
+
+        Thread writer = new Thread(() -> {
+            awaitStart(start);
+            long i = 1;
+            while (running.get()) {
+                quotes.publish(i++);
+                if (writeIntervalNanos > 0) {
+                    LockSupport.parkNanos(writeIntervalNanos);
+                }
+            }
+            writes[0] = i - 1;
+        });
+        Thread[] readers = new Thread[NUM_READERS];
+        for (int r = 0; r < NUM_READERS; r++) {
+            readers[r] = new Thread(() -> {
+                awaitStart(start);
+                long[] scratch = new long[4];
+                long count = 0;
+                long bad = 0;
+                while (running.get()) {
+                    if (!quotes.readConsistent(scratch)) {
+                        bad++;
+                    }
+                    count++;
+                }
+                reads.add(count);
+                inconsistent.add(bad);
+            });
+            readers[r].start();
+        }
+        writer.start();
+        start.countDown();
+        Thread.sleep(MEASURE_MILLIS);
+        running.set(false);
+        writer.join();
+        for (Thread reader : readers) {
+            reader.join();
+        }
+        if (print) {
+            System.out.printf("%-28s %,14d %,14d %,12d%n", name, reads.sum() * 1000 / MEASURE_MILLIS,
+                    writes[0] * 1000 / MEASURE_MILLIS, inconsistent.sum());
+        }
+    }
+
+    private static void awaitStart(CountDownLatch start) {
+        try {
+            start.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
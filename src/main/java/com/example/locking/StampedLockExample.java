@@ -227,5 +227,6 @@ public class StampedLockExample {
         System.out.println("StampedLock is NOT reentrant and does not support conditions.");
         System.out.println("It provides better throughput than ReentrantReadWriteLock");
         System.out.println("in high-contention scenarios with frequent reads.");
+        System.out.println("For a single writer, SeqLockExample drops the read-lock fallback entirely.");
     }
 } 
\ No newline at end of file
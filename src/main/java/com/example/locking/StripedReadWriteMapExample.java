@@ -0,0 +1,158 @@
+package com.example.locking;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReadWriteLock;
+
+public class StripedReadWriteMapExample {
+    private static final int[] STRIPE_COUNTS = {1, 4, 16, 64};
+    private static final int[] THREAD_COUNTS = {1, 2, 4, 8, 16};
+    private static final int NUM_KEYS = 1_000;
+    private static final int WRITE_PERCENT = 20;
+    private static final long WRITE_WORK_NANOS = TimeUnit.MICROSECONDS.toNanos(200);
+    private static final long MEASURE_MILLIS = 200;
+
+    public static void main(String[] args) throws InterruptedException {
+        System.out.println("Striped ReadWriteLock Map Example");
+        System.out.println("=================================");
+        System.out.println("This example splits a cache into stripes with one ReentrantReadWriteLock each,");
+        System.out.println("so slow writes to one key no longer block readers and writers of other keys.\n");
+
+        System.out.println("Part 1: A slow write only blocks its own stripe");
+        blockedStripeDemo();
+
+        Thread.sleep(1000);
+
+        System.out.println("\nPart 2: Throughput sweep, stripes x threads (" + (100 - WRITE_PERCENT) +
+                          "% reads, writes hold the lock for " +
+                          TimeUnit.NANOSECONDS.toMicros(WRITE_WORK_NANOS) + "us)");
+        sweep();
+
+        System.out.println("\nExplanation:");
+        System.out.println("With a single ReadWriteLock every writer excludes all readers and writers,");
+        System.out.println("even when they use unrelated keys.");
+        System.out.println("- Each key hashes to one stripe; only that stripe's lock is taken");
+        System.out.println("- With 1 stripe the map behaves like the global lock, so throughput stays flat");
+        System.out.println("- More stripes let independent writes proceed in parallel and readers skip them");
+        System.out.println("- Beyond a few stripes per thread the gain levels off; each stripe costs a lock and a map");
+        System.out.println("- lockFor(key) lets callers hold one key's stripe across a compound operation");
+    }
+
+    // Part 1: Hold one stripe's write lock and time reads of other keys
+    private static void blockedStripeDemo() throws InterruptedException {
+        StripedReadWriteMap<String, String> map = new StripedReadWriteMap<>(16);
+        for (int i = 0; i < 100; i++) {
+            map.put("Key-" + i, "Value-" + i);
+        }
+
+        CountDownLatch locked = new CountDownLatch(1);
+        Thread writer = new Thread(() -> {
+            ReadWriteLock lock = map.lockFor("Key-0");
+            lock.writeLock().lock();
+            try {
+                locked.countDown();
+                Thread.sleep(500); // A slow write, e.g. refreshing the value from a database
+                map.put("Key-0", "Refreshed");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+        writer.start();
+        locked.await();
+
+        int blocked = 0;
+        int immediate = 0;
+        for (int i = 1; i < 100; i++) {
+            String key = "Key-" + i;
+            if (map.lockFor(key) == map.lockFor("Key-0")) {
+                blocked++;
+                continue; // Would wait for the writer
+            }
+            long start = System.nanoTime();
+            map.get(key);
+            if (System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(50)) {
+                immediate++;
+            }
+        }
+        long start = System.nanoTime();
+        String value = map.get("Key-0");
+        long waitedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        writer.join();
+
+        System.out.println("Keys read without waiting while Key-0 was being written: " + immediate);
+        System.out.println("Keys sharing Key-0's stripe (would wait): " + blocked);
+        System.out.println("Reading Key-0 itself waited " + waitedMillis + "ms and returned " + value);
+    }
+
+    // Part 2: Fixed-duration runs over every stripe and thread count
+    private static void sweep() throws InterruptedException {
+        System.out.println("Available processors: " + Runtime.getRuntime().availableProcessors() + "\n");
+        run(new StripedReadWriteMap<>(16), 4); // Warm up
+
+        System.out.printf("%-8s", "Threads");
+        for (int stripes : STRIPE_COUNTS) {
+            System.out.printf(" %16s", stripes + (stripes == 1 ? " stripe" : " stripes"));
+        }
+        System.out.println();
+        for (int threads : THREAD_COUNTS) {
+            System.out.printf("%-8d", threads);
+            for (int stripes : STRIPE_COUNTS) {
+                long opsPerSecond = run(new StripedReadWriteMap<>(stripes), threads);
+                System.out.printf(" %,12d op/s", opsPerSecond);
+            }
+            System.out.println();
+        }
+    }
+
+    private static long run(StripedReadWriteMap<Integer, Integer> map, int threads) throws InterruptedException {
+        for (int i = 0; i < NUM_KEYS; i++) {
+            map.put(i, 0);
+        }
+        LongAdder ops = new LongAdder();
+        AtomicBoolean running = new AtomicBoolean(true);
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            workers[t] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (running.get()) {
+                    int key = random.nextInt(NUM_KEYS);
+                    if (random.nextInt(100) < WRITE_PERCENT) {
+                        ReadWriteLock lock = map.lockFor(key);
+                        lock.writeLock().lock();
+                        try {
+                            // Slow update, e.g. recomputing the value from a backend
+                            LockSupport.parkNanos(WRITE_WORK_NANOS);
+                            map.compute(key, (k, v) -> v + 1);
+                        } finally {
+                            lock.writeLock().unlock();
+                        }
+                    } else {
+                        map.get(key);
+                    }
+                    ops.increment();
+                }
+            });
+            workers[t].start();
+        }
+        start.countDown();
+        Thread.sleep(MEASURE_MILLIS);
+        running.set(false);
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        return ops.sum() * 1000 / MEASURE_MILLIS;
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+// Monotonic event counter. LongAdder spreads concurrent increments over padded cells,
+// so workers on different cores do not serialize on one cache line the way a single
+// AtomicLong or a synchronized block does. Reading sums the cells.
+public class Counter {
+    private final String name;
+    private final LongAdder adder = new LongAdder();
+
+    Counter(String name) {
+        this.name = name;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public void increment() {
+        adder.increment();
+    }
+
+    public void add(long delta) {
+        adder.add(delta);
+    }
+
+    public long get() {
+        return adder.sum();
+    }
+
+    // Not atomic with respect to concurrent increments: an increment racing with the
+    // reset is counted in this period or the next one, but never lost or blocked
+    public long getThenReset() {
+        return adder.sumThenReset();
+    }
+}
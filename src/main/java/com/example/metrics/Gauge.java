@@ -0,0 +1,52 @@
+package com.example.metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.function.LongBinaryOperator;
+
+// Tracks the largest or smallest value recorded since the last reset, e.g. the maximum
+// queue depth. Built on LongAccumulator, which like LongAdder uses striped cells and only
+// CASes a cell when the new value actually changes the result.
+public class Gauge {
+    private final String name;
+    private final long identity;
+    private final LongAccumulator accumulator;
+
+    private Gauge(String name, LongBinaryOperator function, long identity) {
+        this.name = name;
+        this.identity = identity;
+        this.accumulator = new LongAccumulator(function, identity);
+    }
+
+    static Gauge max(String name) {
+        return new Gauge(name, Math::max, Long.MIN_VALUE);
+    }
+
+    static Gauge min(String name) {
+        return new Gauge(name, Math::min, Long.MAX_VALUE);
+    }
+
+    public String name() {
+        return name;
+    }
+
+    boolean isMax() {
+        return identity == Long.MIN_VALUE;
+    }
+
+    public void record(long value) {
+        accumulator.accumulate(value);
+    }
+
+    public boolean hasValue() {
+        return accumulator.get() != identity;
+    }
+
+    // Returns Long.MIN_VALUE for a max gauge or Long.MAX_VALUE for a min gauge with no values
+    public long get() {
+        return accumulator.get();
+    }
+
+    public long getThenReset() {
+        return accumulator.getThenReset();
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.metrics;
+
+import java.util.concurrent.TimeUnit;
+
+// Immutable copy of a LatencyHistogram at one point in time
+public class HistogramSnapshot {
+    private final String name;
+    private final long[] counts;
+    private final long count;
+    private final long sum;
+    private final long max;
+
+    HistogramSnapshot(String name, long[] counts, long sum, long max) {
+        this.name = name;
+        this.counts = counts;
+        this.sum = sum;
+        this.max = max;
+        long total = 0;
+        for (long c : counts) {
+            total += c;
+        }
+        this.count = total;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public long count() {
+        return count;
+    }
+
+    public long maxNanos() {
+        return max;
+    }
+
+    public double meanNanos() {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+
+    // Upper bound of the bucket holding the given percentile (0-100), capped at the max
+    public long percentileNanos(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(LatencyHistogram.bucketUpperBound(i), max);
+            }
+        }
+        return max;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: count=%d mean=%.1fus p50=%.1fus p99=%.1fus p99.9=%.1fus max=%.1fus",
+                name, count, meanNanos() / 1_000.0,
+                toMicros(percentileNanos(50)), toMicros(percentileNanos(99)),
+                toMicros(percentileNanos(99.9)), toMicros(max));
+    }
+
+    private static double toMicros(long nanos) {
+        return nanos / (double) TimeUnit.MICROSECONDS.toNanos(1);
+    }
+}
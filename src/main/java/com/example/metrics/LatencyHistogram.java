@@ -0,0 +1,99 @@
+package com.example.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+// Lock-free log-linear histogram for latencies in nanoseconds (the bucket layout of
+// HdrHistogram). Every power of two is split into 16 linear sub-buckets, so a recorded
+// value is off by at most 1/16 (6.25%) from the bucket bound, across the whole long range,
+// in 960 buckets. Recording is one atomic increment on a per-thread stripe of buckets;
+// snapshots sum the stripes and never block recording threads.
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    static final int BUCKET_COUNT = SUB_BUCKETS + (63 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final String name;
+    private final AtomicLongArray[] stripes;
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    LatencyHistogram(String name) {
+        this.name = name;
+        int stripeCount = Integer.highestOneBit(Math.min(8, Runtime.getRuntime().availableProcessors()));
+        this.stripes = new AtomicLongArray[Math.max(1, stripeCount)];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new AtomicLongArray(BUCKET_COUNT);
+        }
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public void recordNanos(long nanos) {
+        long value = Math.max(0, nanos);
+        // Thread ids are sequential, so neighbouring threads land on different stripes
+        int stripe = (int) Thread.currentThread().threadId() & (stripes.length - 1);
+        stripes[stripe].incrementAndGet(bucketIndex(value));
+        sum.add(value);
+        max.accumulate(value);
+    }
+
+    public void record(long duration, TimeUnit unit) {
+        recordNanos(unit.toNanos(duration));
+    }
+
+    // Convenience for timing a section: long start = System.nanoTime(); ...; recordSince(start)
+    public void recordSince(long startNanos) {
+        recordNanos(System.nanoTime() - startNanos);
+    }
+
+    public HistogramSnapshot snapshot() {
+        return collect(false);
+    }
+
+    // Each bucket is swapped to zero individually, so a value recorded during the reset
+    // ends up either in this snapshot or in the next one
+    public HistogramSnapshot snapshotAndReset() {
+        return collect(true);
+    }
+
+    private HistogramSnapshot collect(boolean reset) {
+        long[] counts = new long[BUCKET_COUNT];
+        for (AtomicLongArray stripe : stripes) {
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                long count = stripe.get(i);
+                if (count != 0) {
+                    counts[i] += reset ? stripe.getAndSet(i, 0) : count;
+                }
+            }
+        }
+        long total = reset ? sum.sumThenReset() : sum.sum();
+        long highest = reset ? max.getThenReset() : max.get();
+        return new HistogramSnapshot(name, counts, total, highest);
+    }
+
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int magnitude = 63 - Long.numberOfLeadingZeros(value);
+        int shift = magnitude - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift) & (SUB_BUCKETS - 1);
+        return SUB_BUCKETS + shift * SUB_BUCKETS + subBucket;
+    }
+
+    // Largest value that maps to the given bucket
+    static long bucketUpperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = (index - SUB_BUCKETS) / SUB_BUCKETS;
+        long subBucket = (index - SUB_BUCKETS) % SUB_BUCKETS;
+        long lower = (SUB_BUCKETS + subBucket) << shift;
+        return lower + (1L << shift) - 1;
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.metrics;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class MetricsExample {
+    private static final int[] THREAD_COUNTS = {1, 2, 4, 8};
+    private static final int INCREMENTS_PER_THREAD = 5_000_000;
+
+    public static void main(String[] args) throws InterruptedException {
+        System.out.println("Metrics Registry Example");
+        System.out.println("========================");
+        System.out.println("This example instruments worker threads with striped counters, max/min");
+        System.out.println("gauges and lock-free latency histograms, and takes snapshots while the");
+        System.out.println("workers keep running.\n");
+
+        System.out.println("Part 1: Periodic snapshot-and-reset while workers record");
+        instrumentedWorkers();
+
+        Thread.sleep(1000);
+
+        System.out.println("\nPart 2: Counter throughput - synchronized vs AtomicLong vs Counter");
+        counterBenchmark();
+
+        Thread.sleep(1000);
+
+        System.out.println("\nPart 3: Histogram percentiles compared with exact values");
+        histogramAccuracy();
+
+        System.out.println("\nExplanation:");
+        System.out.println("A synchronized block or a single AtomicLong makes every worker write the same");
+        System.out.println("memory location, so counting serializes all threads.");
+        System.out.println("- Counter uses LongAdder: increments go to per-thread padded cells");
+        System.out.println("- Gauge uses LongAccumulator with max or min to track extremes the same way");
+        System.out.println("- LatencyHistogram uses log-linear buckets (6.25% precision) in per-thread stripes");
+        System.out.println("- Snapshots sum the cells and buckets without locks; reset swaps them to zero");
+        System.out.println("- Look up metrics once and keep them in fields, so the hot path is one atomic add");
+    }
+
+    // Part 1: Four workers process simulated requests, a reporter prints every 200ms
+    private static void instrumentedWorkers() throws InterruptedException {
+        MetricsRegistry registry = new MetricsRegistry();
+        Counter requests = registry.counter("requests");
+        Counter errors = registry.counter("errors");
+        Gauge largestPayload = registry.maxGauge("payload.max.bytes");
+        Gauge smallestPayload = registry.minGauge("payload.min.bytes");
+        LatencyHistogram latency = registry.histogram("request.latency");
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread[] workers = new Thread[4];
+        for (int w = 0; w < workers.length; w++) {
+            workers[w] = new Thread(() -> {
+                while (running.get()) {
+                    long start = System.nanoTime();
+                    int payload = ThreadLocalRandom.current().nextInt(100, 10_000);
+                    // Simulated work proportional to the payload
+                    double result = 0;
+                    for (int i = 0; i < payload; i++) {
+                        result += Math.sqrt(i);
+                    }
+                    if (result < 0 || ThreadLocalRandom.current().nextInt(100) == 0) {
+                        errors.increment();
+                    }
+                    requests.increment();
+                    largestPayload.record(payload);
+                    smallestPayload.record(payload);
+                    latency.recordSince(start);
+                }
+            });
+            workers[w].start();
+        }
+
+        long total = 0;
+        for (int interval = 1; interval <= 3; interval++) {
+            Thread.sleep(200);
+            MetricsSnapshot snapshot = registry.snapshotAndReset();
+            total += snapshot.counter("requests");
+            System.out.println("Interval " + interval + ":");
+            System.out.print(snapshot);
+        }
+        running.set(false);
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        total += registry.snapshot().counter("requests");
+        System.out.println("Requests over all intervals plus remainder: " + total);
+    }
+
+    // Part 2: Same increment loop with three counter implementations
+    private static void counterBenchmark() throws InterruptedException {
+        final Object lock = new Object();
+        final long[] synchronizedCount = new long[1];
+        final AtomicLong atomicCount = new AtomicLong();
+        final Counter stripedCount = new MetricsRegistry().counter("striped");
+
+        // Warm up
+        runIncrements(2, INCREMENTS_PER_THREAD / 10, () -> {
+            synchronized (lock) {
+                synchronizedCount[0]++;
+            }
+        });
+        runIncrements(2, INCREMENTS_PER_THREAD / 10, atomicCount::incrementAndGet);
+        runIncrements(2, INCREMENTS_PER_THREAD / 10, stripedCount::increment);
+
+        System.out.println("Available processors: " + Runtime.getRuntime().availableProcessors());
+        System.out.printf("%-8s %20s %20s %20s%n", "Threads", "synchronized", "AtomicLong", "Counter (LongAdder)");
+        for (int threads : THREAD_COUNTS) {
+            long ops = (long) threads * INCREMENTS_PER_THREAD;
+            long syncNanos = runIncrements(threads, INCREMENTS_PER_THREAD, () -> {
+                synchronized (lock) {
+                    synchronizedCount[0]++;
+                }
+            });
+            long atomicNanos = runIncrements(threads, INCREMENTS_PER_THREAD, atomicCount::incrementAndGet);
+            long stripedNanos = runIncrements(threads, INCREMENTS_PER_THREAD, stripedCount::increment);
+            System.out.printf("%-8d %,14d ops/s %,14d ops/s %,14d ops/s%n", threads,
+                    ops * 1_000_000_000L / syncNanos,
+                    ops * 1_000_000_000L / atomicNanos,
+                    ops * 1_000_000_000L / stripedNanos);
+        }
+    }
+
+    private static long runIncrements(int threads, int increments, Runnable increment) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            workers[t] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < increments; i++) {
+                    increment.run();
+                }
+            });
+            workers[t].start();
+        }
+        long startTime = System.nanoTime();
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        return System.nanoTime() - startTime;
+    }
+
+    // Part 3: Record a skewed latency distribution and compare with the sorted raw values
+    private static void histogramAccuracy() {
+        LatencyHistogram histogram = new MetricsRegistry().histogram("synthetic");
+        int samples = 1_000_000;
+        long[] raw = new long[samples];
+        for (int i = 0; i < samples; i++) {
+            // Mostly ~100us with a long tail up to ~50ms
+            double u = ThreadLocalRandom.current().nextDouble();
+            long nanos = (long) (TimeUnit.MICROSECONDS.toNanos(100) / Math.max(0.002, 1 - u));
+            raw[i] = nanos;
+            histogram.recordNanos(nanos);
+        }
+        Arrays.sort(raw);
+        HistogramSnapshot snapshot = histogram.snapshot();
+
+        System.out.printf("%-10s %14s %14s %8s%n", "Percentile", "Exact (us)", "Histogram (us)", "Error");
+        for (double p : new double[] {50, 90, 99, 99.9, 100}) {
+            long exact = raw[(int) Math.min(samples - 1, Math.ceil(p / 100 * samples) - 1)];
+            long approx = snapshot.percentileNanos(p);
+            System.out.printf("%-10s %14.1f %14.1f %7.2f%%%n", "p" + p, exact / 1_000.0, approx / 1_000.0,
+                    100.0 * (approx - exact) / exact);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Named counters, gauges and latency histograms. Look a metric up once and keep the
+// reference in a field; the hot path then only touches the metric itself. Snapshots
+// read every metric without locks, so reporting never stalls the threads being measured.
+public class MetricsRegistry {
+    private static final MetricsRegistry GLOBAL = new MetricsRegistry();
+
+    private final ConcurrentHashMap<String, Counter> counters = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Gauge> gauges = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+
+    // Shared registry for the examples and servers in this project
+    public static MetricsRegistry global() {
+        return GLOBAL;
+    }
+
+    public Counter counter(String name) {
+        return counters.computeIfAbsent(name, Counter::new);
+    }
+
+    // A name holds either a max or a min gauge; asking for the other kind throws
+    // IllegalArgumentException
+    public Gauge maxGauge(String name) {
+        return gauge(name, true);
+    }
+
+    public Gauge minGauge(String name) {
+        return gauge(name, false);
+    }
+
+    public LatencyHistogram histogram(String name) {
+        return histograms.computeIfAbsent(name, LatencyHistogram::new);
+    }
+
+    public MetricsSnapshot snapshot() {
+        return collect(false);
+    }
+
+    // Reads and zeroes every metric, e.g. once per reporting interval
+    public MetricsSnapshot snapshotAndReset() {
+        return collect(true);
+    }
+
+    // get() first: the computeIfAbsent lambda captures max, so it allocates on every call
+    private Gauge gauge(String name, boolean max) {
+        Gauge gauge = gauges.get(name);
+        if (gauge == null) {
+            gauge = gauges.computeIfAbsent(name, n -> max ? Gauge.max(n) : Gauge.min(n));
+        }
+        if (gauge.isMax() != max) {
+            throw new IllegalArgumentException("gauge " + name + " is already registered as a " +
+                    (max ? "min" : "max") + " gauge");
+        }
+        return gauge;
+    }
+
+    private MetricsSnapshot collect(boolean reset) {
+        Map<String, Long> counterValues = new TreeMap<>();
+        counters.forEach((name, counter) ->
+                counterValues.put(name, reset ? counter.getThenReset() : counter.get()));
+
+        Map<String, Long> gaugeValues = new TreeMap<>();
+        gauges.forEach((name, gauge) -> {
+            if (gauge.hasValue()) {
+                gaugeValues.put(name, reset ? gauge.getThenReset() : gauge.get());
+            }
+        });
+
+        Map<String, HistogramSnapshot> histogramValues = new TreeMap<>();
+        histograms.forEach((name, histogram) ->
+                histogramValues.put(name, reset ? histogram.snapshotAndReset() : histogram.snapshot()));
+
+        return new MetricsSnapshot(counterValues, gaugeValues, histogramValues);
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+
+// Values of all metrics of a registry at one point in time, sorted by name
+public class MetricsSnapshot {
+    private final Map<String, Long> counters;
+    private final Map<String, Long> gauges;
+    private final Map<String, HistogramSnapshot> histograms;
+
+    MetricsSnapshot(Map<String, Long> counters, Map<String, Long> gauges,
+                    Map<String, HistogramSnapshot> histograms) {
+        this.counters = Collections.unmodifiableMap(counters);
+        this.gauges = Collections.unmodifiableMap(gauges);
+        this.histograms = Collections.unmodifiableMap(histograms);
+    }
+
+    public Map<String, Long> counters() {
+        return counters;
+    }
+
+    public Map<String, Long> gauges() {
+        return gauges;
+    }
+
+    public Map<String, HistogramSnapshot> histograms() {
+        return histograms;
+    }
+
+    public long counter(String name) {
+        return counters.getOrDefault(name, 0L);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        counters.forEach((name, value) -> sb.append("  ").append(name).append(" = ").append(value).append('\n'));
+        gauges.forEach((name, value) -> sb.append("  ").append(name).append(" = ").append(value).append('\n'));
+        histograms.values().forEach(histogram -> sb.append("  ").append(histogram).append('\n'));
+        return sb.toString();
+    }
+}
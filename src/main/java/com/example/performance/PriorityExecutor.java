@@ -0,0 +1,310 @@
+package com.example.performance;
+
+import com.example.metrics.Counter;
+import com.example.metrics.HistogramSnapshot;
+import com.example.metrics.LatencyHistogram;
+import com.example.metrics.MetricsRegistry;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+// Thread pool that prioritizes work itself instead of relying on Thread.setPriority,
+// which Linux ignores for normal threads. Tasks go into lanes, one FIFO queue per lane,
+// and lane 0 has the highest priority. A free worker takes the head task of the most
+// urgent lane, so an interactive request waits at most for one worker to finish,
+// never for the batch backlog in front of it.
+//
+// Two mechanisms keep low lanes from starving and from crowding out high ones:
+// - Aging: a task's effective priority rises by one lane for every agingStep it has
+//   waited, so a batch task that waited long enough competes with fresh interactive
+//   work and eventually runs, however busy the higher lanes are.
+// - Per-lane caps: a lane never runs more than its maxConcurrent tasks at once, so
+//   long batch tasks cannot occupy every worker; the remaining workers stay available
+//   for the higher lanes.
+//
+// Per lane, the executor records how long tasks wait in the queue and their total
+// latency from submission to completion, in the given MetricsRegistry under
+// "executor.<name>.<lane>.*". Dispatch takes one lock and scans the lanes' heads, which
+// is cheap for the handful of lanes this is meant for.
+public class PriorityExecutor implements AutoCloseable {
+    // A priority lane; maxConcurrent caps how many workers its tasks may occupy
+    public record Lane(String name, int maxConcurrent) {
+        public Lane {
+            if (maxConcurrent <= 0) {
+                throw new IllegalArgumentException("maxConcurrent must be positive");
+            }
+        }
+    }
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition workAvailable = lock.newCondition();
+    private final LaneState[] lanes;
+    private final long agingStepNanos;
+    private final Thread[] workers;
+    private boolean shutdown; // Guarded by lock
+
+    private static final class Task {
+        final Runnable runnable;
+        final long submitNanos;
+        // False for submit(), whose caller sees the failure through the future
+        final boolean reportFailure;
+
+        Task(Runnable runnable, long submitNanos, boolean reportFailure) {
+            this.runnable = runnable;
+            this.submitNanos = submitNanos;
+            this.reportFailure = reportFailure;
+        }
+    }
+
+    private static final class LaneState {
+        final Lane lane;
+        final ArrayDeque<Task> queue = new ArrayDeque<>(); // Guarded by lock
+        int running; // Guarded by lock
+        final LatencyHistogram waitTimes;
+        final LatencyHistogram latencies;
+        final Counter completed;
+        final Counter failed;
+        final Counter promoted;
+
+        LaneState(Lane lane, String prefix, MetricsRegistry registry) {
+            this.lane = lane;
+            this.waitTimes = registry.histogram(prefix + "wait");
+            this.latencies = registry.histogram(prefix + "latency");
+            this.completed = registry.counter(prefix + "completed");
+            this.failed = registry.counter(prefix + "failed");
+            this.promoted = registry.counter(prefix + "promoted");
+        }
+    }
+
+    public PriorityExecutor(String name, int threads, long agingStep, TimeUnit unit, Lane... lanes) {
+        this(name, threads, agingStep, unit, MetricsRegistry.global(), lanes);
+    }
+
+    // An agingStep of 0 disables aging, giving strict priorities
+    public PriorityExecutor(String name, int threads, long agingStep, TimeUnit unit, MetricsRegistry registry,
+                            Lane... lanes) {
+        if (threads <= 0 || lanes.length == 0 || agingStep < 0) {
+            throw new IllegalArgumentException("need threads > 0, at least one lane and agingStep >= 0");
+        }
+        this.agingStepNanos = unit.toNanos(agingStep);
+        this.lanes = new LaneState[lanes.length];
+        for (int i = 0; i < lanes.length; i++) {
+            this.lanes[i] = new LaneState(lanes[i], "executor." + name + "." + lanes[i].name() + ".", registry);
+        }
+        this.workers = new Thread[threads];
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new Thread(this::work, name + "-worker-" + i);
+            workers[i].setDaemon(true);
+            workers[i].start();
+        }
+    }
+
+    public int laneCount() {
+        return lanes.length;
+    }
+
+    // A task that throws is counted as failed and passed to the worker's
+    // UncaughtExceptionHandler, as ThreadPoolExecutor would; the worker keeps running
+    public void execute(int lane, Runnable task) {
+        enqueue(lane, task, true);
+    }
+
+    private void enqueue(int lane, Runnable task, boolean reportFailure) {
+        LaneState state = lanes[lane];
+        lock.lock();
+        try {
+            if (shutdown) {
+                throw new RejectedExecutionException("executor is shut down");
+            }
+            state.queue.addLast(new Task(task, System.nanoTime(), reportFailure));
+            workAvailable.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public <T> CompletableFuture<T> submit(int lane, Supplier<T> task) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        enqueue(lane, () -> {
+            try {
+                future.complete(task.get());
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+                throw t; // Counted as failed, but not reported again
+            }
+        }, false);
+        return future;
+    }
+
+    public int queueDepth(int lane) {
+        lock.lock();
+        try {
+            return lanes[lane].queue.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Time from submission until a worker started the task
+    public HistogramSnapshot waitTimes(int lane) {
+        return lanes[lane].waitTimes.snapshot();
+    }
+
+    // Time from submission until the task finished
+    public HistogramSnapshot latencies(int lane) {
+        return lanes[lane].latencies.snapshot();
+    }
+
+    public long completedCount(int lane) {
+        return lanes[lane].completed.get();
+    }
+
+    // Tasks that were dispatched ahead of a higher lane's waiting task because they had aged
+    public long promotedCount(int lane) {
+        return lanes[lane].promoted.get();
+    }
+
+    public String report() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < lanes.length; i++) {
+            LaneState state = lanes[i];
+            sb.append(String.format("Lane %d '%s' (max %d concurrent): %d completed, %d failed, %d promoted by aging%n",
+                    i, state.lane.name(), state.lane.maxConcurrent(), state.completed.get(), state.failed.get(),
+                    state.promoted.get()));
+            sb.append("  ").append(state.waitTimes.snapshot()).append(System.lineSeparator());
+            sb.append("  ").append(state.latencies.snapshot()).append(System.lineSeparator());
+        }
+        return sb.toString();
+    }
+
+    // Stops accepting tasks, runs everything already queued and waits for the workers.
+    // Like ExecutorService.close(), an interrupt does not cut the wait short; the interrupt
+    // status is restored once every worker has finished. Throws IllegalStateException from
+    // a task, since its worker would wait for itself.
+    @Override
+    public void close() {
+        for (Thread worker : workers) {
+            if (worker == Thread.currentThread()) {
+                throw new IllegalStateException("close() called from a task on " + worker.getName());
+            }
+        }
+        lock.lock();
+        try {
+            shutdown = true;
+            workAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        boolean interrupted = false;
+        for (Thread worker : workers) {
+            while (true) {
+                try {
+                    worker.join();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void reportFailure(Throwable failure) {
+        Thread worker = Thread.currentThread();
+        try {
+            worker.getUncaughtExceptionHandler().uncaughtException(worker, failure);
+        } catch (Throwable ignored) {
+            // A failing handler must not take the worker down with it
+        }
+    }
+
+    private void work() {
+        while (true) {
+            LaneState state;
+            Task task;
+            lock.lock();
+            try {
+                int lane;
+                while ((lane = nextLane()) < 0) {
+                    if (shutdown && isEmpty()) {
+                        workAvailable.signalAll(); // Let the other workers see it too
+                        return;
+                    }
+                    workAvailable.awaitUninterruptibly();
+                }
+                state = lanes[lane];
+                task = state.queue.pollFirst();
+                state.running++;
+            } finally {
+                lock.unlock();
+            }
+            long start = System.nanoTime();
+            state.waitTimes.recordNanos(start - task.submitNanos);
+            try {
+                task.runnable.run();
+                state.completed.increment();
+            } catch (Throwable t) {
+                state.failed.increment();
+                if (task.reportFailure) {
+                    reportFailure(t);
+                }
+            }
+            state.latencies.recordSince(task.submitNanos);
+            lock.lock();
+            try {
+                state.running--;
+                if (shutdown) {
+                    workAvailable.signalAll(); // Workers waiting out the drain may be able to exit
+                } else if (!state.queue.isEmpty()) {
+                    workAvailable.signal(); // The freed slot may be the only one this lane could use
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    // The lane whose head task is most urgent, after aging, among lanes below their cap;
+    // -1 if none can run. Called with lock held.
+    private int nextLane() {
+        long now = System.nanoTime();
+        int best = -1;
+        long bestPriority = Long.MAX_VALUE;
+        int firstWaiting = -1;
+        for (int i = 0; i < lanes.length; i++) {
+            LaneState state = lanes[i];
+            Task head = state.queue.peekFirst();
+            if (head == null || state.running >= state.lane.maxConcurrent()) {
+                continue;
+            }
+            if (firstWaiting < 0) {
+                firstWaiting = i;
+            }
+            long priority = agingStepNanos == 0 ? i : i - (now - head.submitNanos) / agingStepNanos;
+            if (priority < bestPriority) {
+                best = i;
+                bestPriority = priority;
+            }
+        }
+        if (best > firstWaiting) {
+            lanes[best].promoted.increment();
+        }
+        return best;
+    }
+
+    private boolean isEmpty() {
+        for (LaneState state : lanes) {
+            if (!state.queue.isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+}